@@ -0,0 +1,111 @@
+package com.github.openwebnet.database;
+
+import android.os.SystemClock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.UUID;
+
+import io.realm.DynamicRealm;
+import io.realm.DynamicRealmObject;
+import io.realm.FieldAttribute;
+import io.realm.RealmConfiguration;
+import io.realm.RealmObjectSchema;
+
+import static com.github.openwebnet.model.DomoticModel.FIELD_ENVIRONMENT_ID;
+import static com.github.openwebnet.model.DomoticModel.FIELD_FAVOURITE;
+import static com.github.openwebnet.model.DomoticModel.FIELD_GATEWAY_UUID;
+import static com.github.openwebnet.model.DomoticModel.FIELD_NAME;
+import static com.github.openwebnet.model.RealmModel.FIELD_UUID;
+
+/**
+ * Device queries on a large installation, without and with the indexes of version 12.
+ *
+ * The same points are written in two in-memory databases that differ only for the indexes,
+ * the configured database is never touched.
+ */
+public class DatabaseBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBenchmark.class);
+
+    private static final String CLASS_NAME = "BenchmarkModel";
+    private static final int GATEWAYS = 4;
+    private static final int FAVOURITE_RATIO = 20;
+
+    private final int points;
+    private final int environments;
+    private final int repeats;
+
+    public DatabaseBenchmark(int points, int environments, int repeats) {
+        this.points = points;
+        this.environments = environments;
+        this.repeats = repeats;
+    }
+
+    /**
+     * Blocking, average time of a query in milliseconds.
+     */
+    public String run() {
+        double scan = measure(false);
+        double indexed = measure(true);
+        String result = String.format(Locale.US, "points=%d environments=%d: %.2f ms without index, %.2f ms with index",
+            points, environments, scan, indexed);
+        log.info("database benchmark | {}", result);
+        return result;
+    }
+
+    private double measure(boolean indexed) {
+        RealmConfiguration config = new RealmConfiguration.Builder()
+            .name("benchmark-" + UUID.randomUUID() + ".realm")
+            .inMemory()
+            .build();
+
+        DynamicRealm realm = DynamicRealm.getInstance(config);
+        try {
+            realm.beginTransaction();
+            createSchema(realm, indexed);
+            for (int i = 0; i < points; i++) {
+                DynamicRealmObject point = realm.createObject(CLASS_NAME, UUID.randomUUID().toString());
+                point.setInt(FIELD_ENVIRONMENT_ID, i % environments);
+                point.setString(FIELD_GATEWAY_UUID, "gateway" + (i % GATEWAYS));
+                point.setString(FIELD_NAME, "point" + i);
+                point.setBoolean(FIELD_FAVOURITE, i % FAVOURITE_RATIO == 0);
+            }
+            realm.commitTransaction();
+
+            // same queries of the device list: by environment and favourites, ordered by name
+            long start = SystemClock.elapsedRealtimeNanos();
+            int count = 0;
+            for (int r = 0; r < repeats; r++) {
+                for (int environment = 0; environment < environments; environment++) {
+                    count += realm.where(CLASS_NAME).equalTo(FIELD_ENVIRONMENT_ID, environment)
+                        .sort(FIELD_NAME).findAll().size();
+                }
+                count += realm.where(CLASS_NAME).equalTo(FIELD_FAVOURITE, true)
+                    .sort(FIELD_NAME).findAll().size();
+            }
+            long queries = (long) repeats * (environments + 1);
+            log.debug("database benchmark | indexed={} results={}", indexed, count);
+            return (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / queries;
+        } finally {
+            realm.close();
+        }
+    }
+
+    private void createSchema(DynamicRealm realm, boolean indexed) {
+        RealmObjectSchema schema = realm.getSchema().create(CLASS_NAME)
+            .addField(FIELD_UUID, String.class, FieldAttribute.PRIMARY_KEY)
+            .addField(FIELD_ENVIRONMENT_ID, Integer.class, FieldAttribute.REQUIRED)
+            .addField(FIELD_GATEWAY_UUID, String.class, FieldAttribute.REQUIRED)
+            .addField(FIELD_NAME, String.class, FieldAttribute.REQUIRED)
+            .addField(FIELD_FAVOURITE, boolean.class);
+        if (indexed) {
+            schema.addIndex(FIELD_ENVIRONMENT_ID)
+                .addIndex(FIELD_GATEWAY_UUID)
+                .addIndex(FIELD_FAVOURITE);
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.github.openwebnet.model.codec;
+
+import android.os.SystemClock;
+
+import com.github.niqdev.openwebnet.message.Lighting;
+import com.github.openwebnet.database.DatabaseRealmConfig;
+import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.firestore.ProfileVersionModel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Encode and decode of the same lights with FirestoreModel maps and with {@link ProfileCodec}.
+ *
+ * The stored maps are prepared as Firestore returns them (Long and String values):
+ * the map path measures only toMap and fromMap, not the Firestore serialization.
+ */
+public class ProfileCodecBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileCodecBenchmark.class);
+
+    private final int entries;
+    private final int repeats;
+
+    public ProfileCodecBenchmark(int entries, int repeats) {
+        this.entries = entries;
+        this.repeats = repeats;
+    }
+
+    /**
+     * Blocking, average time of a round in milliseconds.
+     */
+    public String run() throws IOException {
+        List<LightModel> lights = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            lights.add(LightModel.addBuilder()
+                .environment(100 + i % 10)
+                .gateway("gateway")
+                .name("light" + i)
+                .where(String.valueOf(i))
+                .type(Lighting.Type.POINT_TO_POINT)
+                .bus(Lighting.NO_BUS)
+                .favourite(i % 20 == 0)
+                .build());
+        }
+
+        ProfileVersionModel version = ProfileVersionModel.newInstance();
+        List<Map<String, Object>> stored = new ArrayList<>(entries);
+        for (LightModel light : lights) {
+            stored.add(asStored(light.toMap()));
+        }
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        int count = 0;
+        for (int r = 0; r < repeats; r++) {
+            for (LightModel light : lights) {
+                count += light.toMap().size();
+            }
+            for (Map<String, Object> map : stored) {
+                // fromMap can change the map with default values
+                count += LightModel.newInstance(new HashMap<>(map), version).isFavourite() ? 1 : 0;
+            }
+        }
+        double mapMillis = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / repeats;
+
+        int size = 0;
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int r = 0; r < repeats; r++) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (ProfileCodec.Writer writer = ProfileCodec.newWriter(outputStream, DatabaseRealmConfig.DATABASE_VERSION)) {
+                writer.writeAll(LightModel.class, lights, lights.size());
+            }
+            byte[] bytes = outputStream.toByteArray();
+            size = bytes.length;
+
+            try (ProfileCodec.Reader reader = ProfileCodec.newReader(new ByteArrayInputStream(bytes))) {
+                while (reader.nextSection()) {
+                    while (reader.hasNext()) {
+                        count += ((LightModel) reader.next()).isFavourite() ? 1 : 0;
+                    }
+                }
+            }
+        }
+        double binaryMillis = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / repeats;
+
+        String result = String.format(Locale.US, "entries=%d: %.2f ms with maps, %.2f ms binary (%d bytes)",
+            entries, mapMillis, binaryMillis, size);
+        log.info("codec benchmark | {} count={}", result, count);
+        return result;
+    }
+
+    private Map<String, Object> asStored(Map<String, Object> map) {
+        Map<String, Object> stored = new HashMap<>();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Integer) {
+                value = ((Integer) value).longValue();
+            } else if (value instanceof Enum) {
+                value = ((Enum) value).name();
+            }
+            stored.put(entry.getKey(), value);
+        }
+        return stored;
+    }
+
+}
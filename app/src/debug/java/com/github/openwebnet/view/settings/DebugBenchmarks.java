@@ -0,0 +1,36 @@
+package com.github.openwebnet.view.settings;
+
+import com.github.openwebnet.database.DatabaseBenchmark;
+import com.github.openwebnet.model.codec.ProfileCodecBenchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_DEBUG_CODEC_BENCHMARK;
+import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_DEBUG_DATABASE_BENCHMARK;
+
+/**
+ * Benchmarks of the debug builds only, the preferences are declared in settings_debug.xml
+ */
+class DebugBenchmarks {
+
+    private static final int POINTS = 5000;
+    private static final int ENVIRONMENTS = 50;
+    private static final int REPEATS = 10;
+
+    private DebugBenchmarks() {}
+
+    /*
+     * By preference key.
+     */
+    static Map<String, Callable<String>> getBenchmarks() {
+        Map<String, Callable<String>> benchmarks = new LinkedHashMap<>();
+        benchmarks.put(PREF_KEY_DEBUG_DATABASE_BENCHMARK,
+            () -> new DatabaseBenchmark(POINTS, ENVIRONMENTS, REPEATS).run());
+        benchmarks.put(PREF_KEY_DEBUG_CODEC_BENCHMARK,
+            () -> new ProfileCodecBenchmark(POINTS, REPEATS).run());
+        return benchmarks;
+    }
+
+}
@@ -22,6 +22,13 @@ public class OpenWebNetApplication extends Application {
         initRealm();
     }
 
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // the app can run for weeks: instances not closed pin old versions of the database
+        databaseRealm.checkLeaks();
+    }
+
     protected void initDagger() {
         Injector.initializeApplicationComponent(this);
         Injector.getApplicationComponent().inject(this);
@@ -16,6 +16,7 @@ import com.github.openwebnet.repository.impl.GatewayRepositoryImpl;
 import com.github.openwebnet.repository.impl.IpcamRepositoryImpl;
 import com.github.openwebnet.repository.impl.LightRepositoryImpl;
 import com.github.openwebnet.repository.impl.ScenarioRepositoryImpl;
+import com.github.openwebnet.repository.impl.SnapshotRepositoryImpl;
 import com.github.openwebnet.repository.impl.SoundRepositoryImpl;
 import com.github.openwebnet.repository.impl.TemperatureRepositoryImpl;
 import com.github.openwebnet.service.impl.AutomationServiceImpl;
@@ -27,9 +28,12 @@ import com.github.openwebnet.service.impl.FirebaseServiceImpl;
 import com.github.openwebnet.service.impl.GatewayServiceImpl;
 import com.github.openwebnet.service.impl.IpcamServiceImpl;
 import com.github.openwebnet.service.impl.LightServiceImpl;
+import com.github.openwebnet.service.impl.MonitorServiceImpl;
 import com.github.openwebnet.service.impl.PreferenceServiceImpl;
 import com.github.openwebnet.service.impl.ScenarioServiceImpl;
+import com.github.openwebnet.service.impl.SnapshotServiceImpl;
 import com.github.openwebnet.service.impl.SoundServiceImpl;
+import com.github.openwebnet.service.impl.StateServiceImpl;
 import com.github.openwebnet.service.impl.TemperatureServiceImpl;
 import com.github.openwebnet.service.impl.UtilityServiceImpl;
 import com.github.openwebnet.view.MainActivity;
@@ -50,6 +54,7 @@ import com.github.openwebnet.view.profile.ProfileActivity;
 import com.github.openwebnet.view.profile.ProfileAdapter;
 import com.github.openwebnet.view.settings.GatewayEditTextPreference;
 import com.github.openwebnet.view.settings.GatewayListPreference;
+import com.github.openwebnet.view.settings.SettingsFragment;
 
 import javax.inject.Singleton;
 
@@ -78,6 +83,7 @@ public interface ApplicationComponent {
     void inject(EnergyActivity activity);
     void inject(SoundActivity activity);
     void inject(ProfileActivity activity);
+    void inject(SettingsFragment fragment);
 
     void inject(NavigationViewItemSelectedListener listener);
     void inject(NavigationViewClickListener listener);
@@ -91,6 +97,7 @@ public interface ApplicationComponent {
     void inject(CommonServiceImpl commonService);
     void inject(UtilityServiceImpl utilityService);
     void inject(FirebaseServiceImpl firebaseService);
+    void inject(SnapshotServiceImpl snapshotService);
 
     // domotic service
     void inject(GatewayServiceImpl gatewayService);
@@ -103,6 +110,8 @@ public interface ApplicationComponent {
     void inject(ScenarioServiceImpl scenarioService);
     void inject(EnergyServiceImpl energyService);
     void inject(SoundServiceImpl soundService);
+    void inject(MonitorServiceImpl monitorService);
+    void inject(StateServiceImpl stateService);
 
     // database
     void inject(DatabaseRealm databaseRealm);
@@ -120,5 +129,6 @@ public interface ApplicationComponent {
     void inject(EnergyRepositoryImpl repository);
     void inject(SoundRepositoryImpl repository);
     void inject(FirestoreRepositoryImpl repository);
+    void inject(SnapshotRepositoryImpl repository);
 
 }
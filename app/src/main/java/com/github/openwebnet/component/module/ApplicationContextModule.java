@@ -6,10 +6,12 @@ import com.github.openwebnet.OpenWebNetApplication;
 import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.FirebaseService;
 import com.github.openwebnet.service.PreferenceService;
+import com.github.openwebnet.service.SnapshotService;
 import com.github.openwebnet.service.UtilityService;
 import com.github.openwebnet.service.impl.CommonServiceImpl;
 import com.github.openwebnet.service.impl.FirebaseServiceImpl;
 import com.github.openwebnet.service.impl.PreferenceServiceImpl;
+import com.github.openwebnet.service.impl.SnapshotServiceImpl;
 import com.github.openwebnet.service.impl.UtilityServiceImpl;
 
 import javax.inject.Singleton;
@@ -62,4 +64,10 @@ public class ApplicationContextModule {
         return new FirebaseServiceImpl();
     }
 
+    @Provides
+    @Singleton
+    SnapshotService provideSnapshotService() {
+        return new SnapshotServiceImpl();
+    }
+
 }
@@ -7,8 +7,10 @@ import com.github.openwebnet.service.EnvironmentService;
 import com.github.openwebnet.service.GatewayService;
 import com.github.openwebnet.service.IpcamService;
 import com.github.openwebnet.service.LightService;
+import com.github.openwebnet.service.MonitorService;
 import com.github.openwebnet.service.ScenarioService;
 import com.github.openwebnet.service.SoundService;
+import com.github.openwebnet.service.StateService;
 import com.github.openwebnet.service.TemperatureService;
 import com.github.openwebnet.service.impl.AutomationServiceImpl;
 import com.github.openwebnet.service.impl.DeviceServiceImpl;
@@ -17,8 +19,10 @@ import com.github.openwebnet.service.impl.EnvironmentServiceImpl;
 import com.github.openwebnet.service.impl.GatewayServiceImpl;
 import com.github.openwebnet.service.impl.IpcamServiceImpl;
 import com.github.openwebnet.service.impl.LightServiceImpl;
+import com.github.openwebnet.service.impl.MonitorServiceImpl;
 import com.github.openwebnet.service.impl.ScenarioServiceImpl;
 import com.github.openwebnet.service.impl.SoundServiceImpl;
+import com.github.openwebnet.service.impl.StateServiceImpl;
 import com.github.openwebnet.service.impl.TemperatureServiceImpl;
 
 import javax.inject.Singleton;
@@ -89,4 +93,16 @@ public class DomoticModule {
         return new SoundServiceImpl();
     }
 
+    @Provides
+    @Singleton
+    MonitorService provideMonitorService() {
+        return new MonitorServiceImpl();
+    }
+
+    @Provides
+    @Singleton
+    StateService provideStateService() {
+        return new StateServiceImpl();
+    }
+
 }
@@ -9,6 +9,7 @@ import com.github.openwebnet.repository.GatewayRepository;
 import com.github.openwebnet.repository.IpcamRepository;
 import com.github.openwebnet.repository.LightRepository;
 import com.github.openwebnet.repository.ScenarioRepository;
+import com.github.openwebnet.repository.SnapshotRepository;
 import com.github.openwebnet.repository.SoundRepository;
 import com.github.openwebnet.repository.TemperatureRepository;
 import com.github.openwebnet.repository.impl.AutomationRepositoryImpl;
@@ -20,6 +21,7 @@ import com.github.openwebnet.repository.impl.GatewayRepositoryImpl;
 import com.github.openwebnet.repository.impl.IpcamRepositoryImpl;
 import com.github.openwebnet.repository.impl.LightRepositoryImpl;
 import com.github.openwebnet.repository.impl.ScenarioRepositoryImpl;
+import com.github.openwebnet.repository.impl.SnapshotRepositoryImpl;
 import com.github.openwebnet.repository.impl.SoundRepositoryImpl;
 import com.github.openwebnet.repository.impl.TemperatureRepositoryImpl;
 
@@ -97,4 +99,10 @@ public class RepositoryModule {
         return new FirestoreRepositoryImpl();
     }
 
+    @Provides
+    @Singleton
+    SnapshotRepository provideSnapshot() {
+        return new SnapshotRepositoryImpl();
+    }
+
 }
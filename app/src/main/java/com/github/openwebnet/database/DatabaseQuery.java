@@ -0,0 +1,115 @@
+package com.github.openwebnet.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.realm.Realm;
+import io.realm.RealmObject;
+import io.realm.RealmQuery;
+import io.realm.RealmResults;
+import io.realm.Sort;
+import rx.functions.Action1;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Filters, order and limit are applied by the query engine, not in memory:
+ * only the rows of the requested page are copied out of Realm.
+ *
+ * The builder doesn't hold any instance, it can be created and executed on different threads.
+ */
+public class DatabaseQuery<T extends RealmObject> {
+
+    private final DatabaseRealm databaseRealm;
+    private final Class<T> clazz;
+    private final List<Action1<RealmQuery<T>>> conditions = new ArrayList<>();
+
+    private long offset = 0;
+    private long limit = Long.MAX_VALUE;
+
+    DatabaseQuery(DatabaseRealm databaseRealm, Class<T> clazz) {
+        this.databaseRealm = databaseRealm;
+        this.clazz = clazz;
+    }
+
+    public DatabaseQuery<T> equalTo(String field, String value) {
+        conditions.add(query -> query.equalTo(field, value));
+        return this;
+    }
+
+    public DatabaseQuery<T> equalTo(String field, Integer value) {
+        conditions.add(query -> query.equalTo(field, value));
+        return this;
+    }
+
+    public DatabaseQuery<T> equalTo(String field, Boolean value) {
+        conditions.add(query -> query.equalTo(field, value));
+        return this;
+    }
+
+    public DatabaseQuery<T> sortAscending(String field) {
+        return sort(field, Sort.ASCENDING);
+    }
+
+    public DatabaseQuery<T> sort(String field, Sort sortOrder) {
+        conditions.add(query -> query.sort(field, sortOrder));
+        return this;
+    }
+
+    public DatabaseQuery<T> limit(long limit) {
+        checkArgument(limit > 0, "invalid limit");
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * @param page zero-based
+     */
+    public DatabaseQuery<T> page(int page, int pageSize) {
+        checkArgument(page >= 0 && pageSize > 0, "invalid page");
+        this.offset = (long) page * pageSize;
+        this.limit = pageSize;
+        return this;
+    }
+
+    /**
+     * @return detached copies
+     */
+    public List<T> findCopy() {
+        Realm realm = databaseRealm.getRealmInstance();
+        try {
+            RealmQuery<T> query = realm.where(clazz);
+            for (Action1<RealmQuery<T>> condition : conditions) {
+                condition.call(query);
+            }
+            if (limit != Long.MAX_VALUE) {
+                // no offset in the query engine: the previous pages are skipped below
+                query.limit(offset + limit);
+            }
+            RealmResults<T> results = query.findAll();
+            if (offset >= results.size()) {
+                return Collections.emptyList();
+            }
+            // results are lazy: rows outside the page are never read
+            int to = (int) Math.min(results.size(), offset + limit);
+            return realm.copyFromRealm(results.subList((int) offset, to));
+        } finally {
+            databaseRealm.close(realm);
+        }
+    }
+
+    public long count() {
+        Realm realm = databaseRealm.getRealmInstance();
+        try {
+            RealmQuery<T> query = realm.where(clazz);
+            for (Action1<RealmQuery<T>> condition : conditions) {
+                condition.call(query);
+            }
+            return query.count();
+        } finally {
+            databaseRealm.close(realm);
+        }
+    }
+
+}
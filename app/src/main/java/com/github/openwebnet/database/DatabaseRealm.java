@@ -1,25 +1,69 @@
 package com.github.openwebnet.database;
 
+import com.github.openwebnet.BuildConfig;
 import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.model.SequenceModel;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
+import io.realm.OrderedCollectionChangeSet;
+import io.realm.OrderedRealmCollectionChangeListener;
 import io.realm.Realm;
 import io.realm.RealmConfiguration;
 import io.realm.RealmObject;
 import io.realm.RealmQuery;
 import io.realm.RealmResults;
 import io.realm.Sort;
+import rx.Observable;
+import rx.Scheduler;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+import rx.subscriptions.Subscriptions;
 
 public class DatabaseRealm {
 
+    private static final Logger log = LoggerFactory.getLogger(DatabaseRealm.class);
+
+    // longer than any query or transaction
+    private static final long LEAK_THRESHOLD_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final String WRITER_THREAD_NAME = "realm-writer";
+    private static final int SEQUENCE_BLOCK_SIZE = 10;
+    // models created and written at a time by Batch#addAll with a converter or a source
+    private static final int BATCH_CHUNK_SIZE = 100;
+
     @Inject
     DatabaseRealmConfig databaseRealmConfig;
 
     RealmConfiguration realmConfiguration;
 
+    private final RealmLeakDetector leakDetector = new RealmLeakDetector(BuildConfig.DEBUG);
+    private final QueryCache queryCache = new QueryCache();
+    private final Map<Class<?>, IdSequence> sequences = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<Class<? extends RealmObject>>> modelClasses = new ConcurrentHashMap<>();
+
+    // single writer: transactions are queued instead of blocking the callers on the write lock
+    private final Scheduler writeScheduler = Schedulers.from(Executors.newSingleThreadExecutor(runnable ->
+        new Thread(runnable, WRITER_THREAD_NAME)));
+
     public DatabaseRealm() {
         Injector.getApplicationComponent().inject(this);
     }
@@ -28,103 +72,499 @@ public class DatabaseRealm {
         if (realmConfiguration == null) {
             realmConfiguration = databaseRealmConfig.getConfig();
             Realm.setDefaultConfiguration(realmConfiguration);
+            // compacted if needed before the first query
+            close(getRealmInstance());
         } else {
             throw new IllegalStateException("database already configured");
         }
     }
 
+    /**
+     * Writes must be subscribed on this scheduler, the results are delivered on the main thread.
+     */
+    public Scheduler getWriteScheduler() {
+        return writeScheduler;
+    }
+
+    /**
+     * Every instance must be closed with {@link #close(Realm)} on the same thread.
+     */
     public Realm getRealmInstance() {
-        return Realm.getDefaultInstance();
+        Realm realm = Realm.getDefaultInstance();
+        leakDetector.onOpen();
+        return realm;
+    }
+
+    public void close(Realm realm) {
+        realm.close();
+        leakDetector.onClose();
+    }
+
+    /**
+     * Classes of the configured schema that implement the given type, e.g. every DomoticModel.
+     *
+     * The schema can't change at runtime: the classes are looked up once per type.
+     */
+    public List<Class<? extends RealmObject>> getModelClasses(Class<?> type) {
+        List<Class<? extends RealmObject>> classes = modelClasses.get(type);
+        if (classes == null) {
+            List<Class<? extends RealmObject>> found = new ArrayList<>();
+            for (Class<? extends io.realm.RealmModel> clazz : realmConfiguration.getRealmObjectClasses()) {
+                if (type.isAssignableFrom(clazz) && RealmObject.class.isAssignableFrom(clazz)) {
+                    found.add(clazz.asSubclass(RealmObject.class));
+                }
+            }
+            Collections.sort(found, (class1, class2) -> class1.getSimpleName().compareTo(class2.getSimpleName()));
+            log.debug("model classes of {}: {}", type.getSimpleName(), found);
+            modelClasses.putIfAbsent(type, Collections.unmodifiableList(found));
+            classes = modelClasses.get(type);
+        }
+        return classes;
+    }
+
+    /**
+     * Logs the threads that are still holding an instance.
+     *
+     * @return number of instances open in the process
+     */
+    public int checkLeaks() {
+        leakDetector.findLeaks(LEAK_THRESHOLD_MILLIS);
+        int globalCount = realmConfiguration == null ? 0 : Realm.getGlobalInstanceCount(realmConfiguration);
+        log.debug("realm instances: global={} tracked={}", globalCount, leakDetector.getOpenCount());
+        log.debug("query cache: hits={} misses={}", queryCache.getHitCount(), queryCache.getMissCount());
+        return globalCount;
+    }
+
+    /**
+     * Sizes of the file when it was opened, and now.
+     */
+    public String getFileReport() {
+        RealmCompaction compaction = databaseRealmConfig.getCompaction();
+        return String.format(Locale.US, "launch: %s file, %s data, %s | now: %s file",
+            formatBytes(compaction.getLaunchFileBytes()), formatBytes(compaction.getLaunchDataBytes()),
+            compaction.isCompactedOnLaunch() ? "compacted" : "not compacted", formatBytes(getFileBytes()));
+    }
+
+    /**
+     * It's skipped if an instance is still open on any thread.
+     *
+     * @return file size before and after
+     */
+    public Observable<String> compact() {
+        return Observable.fromCallable(() -> {
+            long before = getFileBytes();
+            boolean compacted;
+            try {
+                compacted = Realm.compactRealm(realmConfiguration);
+            } catch (IllegalStateException e) {
+                // open instances, e.g. live queries
+                log.warn("realm compaction skipped: {}", e.getMessage());
+                compacted = false;
+            }
+            String result = String.format(Locale.US, "%s before, %s after%s",
+                formatBytes(before), formatBytes(getFileBytes()), compacted ? "" : ", database in use");
+            log.info("realm compaction | {}", result);
+            return result;
+        })
+            // no transaction in progress
+            .subscribeOn(writeScheduler);
+    }
+
+    private long getFileBytes() {
+        return new File(realmConfiguration.getPath()).length();
+    }
+
+    private String formatBytes(long bytes) {
+        return bytes < 0 ? "n/a" : String.format(Locale.US, "%.1f KB", bytes / 1024.0);
     }
 
     public <T extends RealmObject> T add(T model) {
         Realm realm = getRealmInstance();
-        realm.beginTransaction();
-        realm.copyToRealm(model);
-        realm.commitTransaction();
-        return model;
+        try {
+            realm.executeTransaction(transaction -> transaction.copyToRealm(model));
+            return model;
+        } finally {
+            close(realm);
+            queryCache.invalidate(model.getClass());
+        }
     }
 
     public <T extends RealmObject> Iterable<T> addAll(Iterable<T> models) {
         Realm realm = getRealmInstance();
-        realm.beginTransaction();
-        realm.copyToRealm(models);
-        realm.commitTransaction();
-        return models;
+        try {
+            realm.executeTransaction(transaction -> transaction.copyToRealm(models));
+            return models;
+        } finally {
+            close(realm);
+            for (T model : models) {
+                queryCache.invalidate(model.getClass());
+                resetSequence(model.getClass());
+            }
+        }
     }
 
     public <T extends RealmObject> T update(T model) {
         Realm realm = getRealmInstance();
-        realm.beginTransaction();
-        realm.copyToRealmOrUpdate(model);
-        realm.commitTransaction();
-        return model;
+        try {
+            realm.executeTransaction(transaction -> transaction.copyToRealmOrUpdate(model));
+            return model;
+        } finally {
+            close(realm);
+            queryCache.invalidate(model.getClass());
+        }
     }
 
     public <T extends RealmObject> void delete(Class<T> clazz, String field, String value) {
         Realm realm = getRealmInstance();
-        RealmResults<T> models = realm.where(clazz).equalTo(field, value).findAll();
-        realm.beginTransaction();
-        models.deleteAllFromRealm();
-        realm.commitTransaction();
+        try {
+            realm.executeTransaction(transaction ->
+                transaction.where(clazz).equalTo(field, value).findAll().deleteAllFromRealm());
+        } finally {
+            close(realm);
+            queryCache.invalidate(clazz);
+        }
     }
 
     public <T extends RealmObject> void delete(Class<T> clazz, String field, Integer value) {
         Realm realm = getRealmInstance();
-        RealmResults<T> models = realm.where(clazz).equalTo(field, value).findAll();
-        realm.beginTransaction();
-        models.deleteAllFromRealm();
-        realm.commitTransaction();
+        try {
+            realm.executeTransaction(transaction ->
+                transaction.where(clazz).equalTo(field, value).findAll().deleteAllFromRealm());
+        } finally {
+            close(realm);
+            queryCache.invalidate(clazz);
+        }
     }
 
     public <T extends RealmObject> void deleteAll(Class<T> clazz) {
         Realm realm = getRealmInstance();
-        RealmResults<T> models = realm.where(clazz).findAll();
-        realm.beginTransaction();
-        models.deleteAllFromRealm();
-        realm.commitTransaction();
+        try {
+            realm.executeTransaction(transaction -> transaction.where(clazz).findAll().deleteAllFromRealm());
+        } finally {
+            close(realm);
+            queryCache.invalidate(clazz);
+        }
+    }
+
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Commits all the operations of the batch in a single transaction: if one fails none is applied.
+     */
+    public void execute(Batch batch) {
+        Realm realm = getRealmInstance();
+        try {
+            realm.executeTransaction(transaction -> {
+                for (Realm.Transaction operation : batch.operations) {
+                    operation.execute(transaction);
+                }
+            });
+        } finally {
+            close(realm);
+            for (Class<?> clazz : batch.classes) {
+                queryCache.invalidate(clazz);
+                resetSequence(clazz);
+            }
+        }
     }
 
-    private <T extends RealmObject> RealmQuery<T> query(Class<T> clazz) {
-        return getRealmInstance().where(clazz);
+    /**
+     * Query builder, the conditions are evaluated by Realm.
+     */
+    public <T extends RealmObject> DatabaseQuery<T> query(Class<T> clazz) {
+        return new DatabaseQuery<>(this, clazz);
     }
 
+    /*
+     * Managed objects are not valid after the instance is closed: the results are always detached.
+     */
     public <T extends RealmObject> List<T> find(Class<T> clazz) {
-        return query(clazz).findAll();
+        Realm realm = getRealmInstance();
+        try {
+            return realm.copyFromRealm(realm.where(clazz).findAll());
+        } finally {
+            close(realm);
+        }
     }
 
     public <T extends RealmObject> List<T> findSortedAscending(Class<T> clazz, String field) {
-        RealmResults<T> results = query(clazz).findAll();
-        results.sort(field, Sort.ASCENDING);
-        return results;
+        return query(clazz).sortAscending(field).findCopy();
     }
 
     public <T extends RealmObject> Number findMax(Class<T> clazz, String field) {
         Realm realm = getRealmInstance();
-        realm.beginTransaction();
-        Number max = realm.where(clazz).max(field);
-        realm.commitTransaction();
-        return max;
+        try {
+            return realm.where(clazz).max(field);
+        } finally {
+            close(realm);
+        }
+    }
+
+    /**
+     * Next value of a persistent sequence, never returned before even after a restart.
+     *
+     * The sequence starts after the maximum of the field, or from the initial value if there are no rows.
+     * A write transaction is needed only once every {@value #SEQUENCE_BLOCK_SIZE} ids: call it on the write scheduler.
+     */
+    public <T extends RealmObject> int nextId(Class<T> clazz, String field, int initialValue) {
+        IdSequence sequence = sequences.get(clazz);
+        if (sequence == null) {
+            sequences.putIfAbsent(clazz, new IdSequence(blockSize ->
+                allocateSequence(clazz, field, initialValue, blockSize), SEQUENCE_BLOCK_SIZE));
+            sequence = sequences.get(clazz);
+        }
+        return sequence.next();
+    }
+
+    private <T extends RealmObject> int allocateSequence(Class<T> clazz, String field, int initialValue, int blockSize) {
+        String name = clazz.getSimpleName();
+        int[] first = new int[1];
+        Realm realm = getRealmInstance();
+        try {
+            realm.executeTransaction(transaction -> {
+                SequenceModel sequence = transaction.where(SequenceModel.class)
+                    .equalTo(SequenceModel.FIELD_NAME, name).findFirst();
+                if (sequence == null) {
+                    sequence = transaction.createObject(SequenceModel.class, name);
+                    sequence.setValue(initialValue - 1);
+                }
+                // rows added without the sequence
+                Number max = transaction.where(clazz).max(field);
+                first[0] = Math.max(sequence.getValue(), max == null ? initialValue - 1 : max.intValue()) + 1;
+                sequence.setValue(first[0] + blockSize - 1);
+            });
+            log.debug("sequence {} reserved: {}-{}", name, first[0], first[0] + blockSize - 1);
+            return first[0];
+        } finally {
+            close(realm);
+        }
+    }
+
+    private void resetSequence(Class<?> clazz) {
+        IdSequence sequence = sequences.get(clazz);
+        if (sequence != null) {
+            sequence.reset();
+        }
     }
 
     public <T extends RealmObject> List<T> findWhere(Class<T> clazz, String field, String value) {
-        return query(clazz).equalTo(field, value).findAll();
+        Realm realm = getRealmInstance();
+        try {
+            return realm.copyFromRealm(realm.where(clazz).equalTo(field, value).findAll());
+        } finally {
+            close(realm);
+        }
     }
 
     public <T extends RealmObject> List<T> findCopyWhere(Class<T> clazz, String field, Integer value, String orderBy) {
-        RealmResults<T> results = query(clazz).equalTo(field, value).findAll();
+        List<T> cached = queryCache.get(clazz, field, value, orderBy);
+        if (cached != null) {
+            return cached;
+        }
+        long version = queryCache.version(clazz);
+        DatabaseQuery<T> query = query(clazz).equalTo(field, value);
         if (orderBy != null) {
-            results.sort(orderBy, Sort.ASCENDING);
+            query.sortAscending(orderBy);
         }
-        return getRealmInstance().copyFromRealm(results);
+        return queryCache.put(clazz, field, value, orderBy, version, query.findCopy());
     }
 
     public <T extends RealmObject> List<T> findCopyWhere(Class<T> clazz, String field, Boolean value, String orderBy) {
-        RealmResults<T> results = query(clazz).equalTo(field, value).findAll();
+        List<T> cached = queryCache.get(clazz, field, value, orderBy);
+        if (cached != null) {
+            return cached;
+        }
+        long version = queryCache.version(clazz);
+        DatabaseQuery<T> query = query(clazz).equalTo(field, value);
         if (orderBy != null) {
-            results.sort(orderBy, Sort.ASCENDING);
+            query.sortAscending(orderBy);
+        }
+        return queryCache.put(clazz, field, value, orderBy, version, query.findCopy());
+    }
+
+    public <T extends RealmObject> Observable<QueryChangeSet<T>> observeWhere(Class<T> clazz, String field, Integer value, String orderBy) {
+        return observe(realm -> realm.where(clazz).equalTo(field, value), orderBy);
+    }
+
+    public <T extends RealmObject> Observable<QueryChangeSet<T>> observeWhere(Class<T> clazz, String field, Boolean value, String orderBy) {
+        return observe(realm -> realm.where(clazz).equalTo(field, value), orderBy);
+    }
+
+    /*
+     * Live query: change listeners need a looper, the instance stays open on the main thread
+     * until unsubscribe and only the rows that have changed are copied.
+     */
+    private <T extends RealmObject> Observable<QueryChangeSet<T>> observe(Func1<Realm, RealmQuery<T>> query, String orderBy) {
+        return Observable.<QueryChangeSet<T>>create(subscriber -> {
+            // not tracked: on a looper the instance advances to the latest version and doesn't pin the file
+            Realm realm = Realm.getDefaultInstance();
+            RealmQuery<T> realmQuery = query.call(realm);
+            RealmResults<T> results = orderBy == null ? realmQuery.findAllAsync() :
+                realmQuery.sort(orderBy, Sort.ASCENDING).findAllAsync();
+
+            OrderedRealmCollectionChangeListener<RealmResults<T>> listener = (changedResults, changeSet) -> {
+                if (changeSet == null || changeSet.getState() == OrderedCollectionChangeSet.State.INITIAL) {
+                    subscriber.onNext(QueryChangeSet.initial(realm.copyFromRealm(changedResults)));
+                } else if (changeSet.getState() == OrderedCollectionChangeSet.State.ERROR) {
+                    subscriber.onError(changeSet.getError());
+                } else {
+                    subscriber.onNext(toQueryChangeSet(realm, changedResults, changeSet));
+                }
+            };
+            results.addChangeListener(listener);
+
+            subscriber.add(Subscriptions.create(() -> {
+                results.removeChangeListener(listener);
+                realm.close();
+            }));
+        })
+            .subscribeOn(AndroidSchedulers.mainThread())
+            .unsubscribeOn(AndroidSchedulers.mainThread());
+    }
+
+    private <T extends RealmObject> QueryChangeSet<T> toQueryChangeSet(Realm realm, RealmResults<T> results,
+                                                                     OrderedCollectionChangeSet changeSet) {
+        List<Integer> deletions = new ArrayList<>();
+        for (OrderedCollectionChangeSet.Range range : changeSet.getDeletionRanges()) {
+            for (int i = range.startIndex; i < range.startIndex + range.length; i++) {
+                deletions.add(i);
+            }
+        }
+        return QueryChangeSet.update(deletions,
+            copyRanges(realm, results, changeSet.getInsertionRanges()),
+            copyRanges(realm, results, changeSet.getChangeRanges()));
+    }
+
+    private <T extends RealmObject> Map<Integer, T> copyRanges(Realm realm, RealmResults<T> results,
+                                                               OrderedCollectionChangeSet.Range[] ranges) {
+        Map<Integer, T> copies = new HashMap<>();
+        for (OrderedCollectionChangeSet.Range range : ranges) {
+            for (int i = range.startIndex; i < range.startIndex + range.length; i++) {
+                copies.put(i, realm.copyFromRealm(results.get(i)));
+            }
+        }
+        return copies;
+    }
+
+    /**
+     * Unit of work across model classes, see {@link #execute(Batch)}.
+     */
+    public static class Batch {
+
+        private final List<Realm.Transaction> operations = new ArrayList<>();
+        // invalidated after the commit
+        private final Set<Class<?>> classes = new HashSet<>();
+
+        private Action1<Integer> progressListener = written -> {};
+        private int written;
+
+        private Batch() {}
+
+        /**
+         * Notified on the writer thread, inside the transaction, with the number of entries written so far.
+         */
+        public Batch onProgress(Action1<Integer> progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        public <T extends RealmObject> Batch add(T model) {
+            classes.add(model.getClass());
+            operations.add(transaction -> transaction.copyToRealm(model));
+            return this;
+        }
+
+        public <T extends RealmObject> Batch addAll(Iterable<T> models) {
+            for (T model : models) {
+                classes.add(model.getClass());
+            }
+            operations.add(transaction -> transaction.copyToRealm(models));
+            return this;
+        }
+
+        /**
+         * The models are created while they are written, a chunk at a time:
+         * only the sources are entirely in memory.
+         */
+        public <S, T extends RealmObject> Batch addAll(Class<T> clazz, List<S> sources, Func1<S, T> converter) {
+            classes.add(clazz);
+            operations.add(transaction -> {
+                for (int from = 0; from < sources.size(); from += BATCH_CHUNK_SIZE) {
+                    List<T> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+                    for (S source : sources.subList(from, Math.min(sources.size(), from + BATCH_CHUNK_SIZE))) {
+                        chunk.add(converter.call(source));
+                    }
+                    transaction.copyToRealm(chunk);
+                    written += chunk.size();
+                    progressListener.call(written);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * The models are read from the source while they are written, a chunk at a time:
+         * the source is never entirely in memory. It returns null after the last model.
+         *
+         * @param classes all the classes that the source can return
+         */
+        public Batch addAll(List<Class<? extends RealmObject>> classes, Func0<? extends RealmObject> source) {
+            this.classes.addAll(classes);
+            operations.add(transaction -> {
+                List<RealmObject> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+                RealmObject model = source.call();
+                while (model != null) {
+                    chunk.add(model);
+                    model = source.call();
+                    if (chunk.size() == BATCH_CHUNK_SIZE || model == null) {
+                        transaction.copyToRealm(chunk);
+                        written += chunk.size();
+                        progressListener.call(written);
+                        chunk.clear();
+                    }
+                }
+            });
+            return this;
+        }
+
+        public <T extends RealmObject> Batch update(T model) {
+            classes.add(model.getClass());
+            operations.add(transaction -> transaction.copyToRealmOrUpdate(model));
+            return this;
+        }
+
+        public <T extends RealmObject> Batch delete(Class<T> clazz, String field, String value) {
+            classes.add(clazz);
+            operations.add(transaction -> transaction.where(clazz).equalTo(field, value).findAll().deleteAllFromRealm());
+            return this;
+        }
+
+        public <T extends RealmObject> Batch delete(Class<T> clazz, String field, Integer value) {
+            classes.add(clazz);
+            operations.add(transaction -> transaction.where(clazz).equalTo(field, value).findAll().deleteAllFromRealm());
+            return this;
+        }
+
+        /*
+         * A single query for all the values.
+         */
+        public <T extends RealmObject> Batch deleteIn(Class<T> clazz, String field, Integer[] values) {
+            classes.add(clazz);
+            operations.add(transaction -> transaction.where(clazz).in(field, values).findAll().deleteAllFromRealm());
+            return this;
+        }
+
+        public <T extends RealmObject> Batch deleteAll(Class<T> clazz) {
+            classes.add(clazz);
+            operations.add(transaction -> transaction.where(clazz).findAll().deleteAllFromRealm());
+            return this;
+        }
+
+        public int size() {
+            return operations.size();
         }
-        return getRealmInstance().copyFromRealm(results);
     }
 
 }
@@ -28,7 +28,7 @@ public class DatabaseRealmConfig {
 
     private static final Logger log = LoggerFactory.getLogger(DatabaseRealmConfig.class);
 
-    public static final int DATABASE_VERSION = 11;
+    public static final int DATABASE_VERSION = 13;
     private static final String DATABASE_NAME = "openwebnet.realm";
     private static final String DATABASE_NAME_CRYPT = "openwebnet.crypt.realm";
 
@@ -37,6 +37,12 @@ public class DatabaseRealmConfig {
     private static final String PREFERENCE_DATABASE_KEY = "com.github.openwebnet.database.DatabaseRealmConfig.PREFERENCE_DATABASE_KEY";
     private static final String PREFERENCE_DATABASE_KEY_OLD = "com.github.openwebnet.database.DatabaseRealmConfig.PREFERENCE_DATABASE_KEY_OLD";
 
+    // a configuration is a few hundred KB: smaller files are never compacted
+    private static final long COMPACTION_MIN_FILE_BYTES = 1024 * 1024;
+    private static final double COMPACTION_MAX_FREE_RATIO = 0.5;
+
+    private final RealmCompaction compaction = new RealmCompaction(COMPACTION_MIN_FILE_BYTES, COMPACTION_MAX_FREE_RATIO);
+
     @Inject
     Context mContext;
 
@@ -87,9 +93,14 @@ public class DatabaseRealmConfig {
             .encryptionKey(getRealmKey())
             .schemaVersion(DATABASE_VERSION)
             .migration(new MigrationStrategy())
+            .compactOnLaunch(compaction)
             .build();
     }
 
+    RealmCompaction getCompaction() {
+        return compaction;
+    }
+
     private void migrateToEncryptedConfig(RealmConfiguration unencryptedConfig) throws IOException {
         Realm realm = Realm.getInstance(unencryptedConfig);
         realm.writeEncryptedCopyTo(new File(mContext.getFilesDir(), DATABASE_NAME_CRYPT), getRealmKey());
@@ -0,0 +1,74 @@
+package com.github.openwebnet.database;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Monotonic ids handed out from a block reserved in advance.
+ *
+ * Inside a block an id costs a single atomic increment, only the reservation of the next block
+ * is serialized and persisted. The ids left in a block when the process dies are skipped.
+ */
+class IdSequence {
+
+    interface Allocator {
+
+        /**
+         * @return first id of a new block of the given size, greater than any id already reserved
+         */
+        int allocate(int blockSize);
+    }
+
+    private final Allocator allocator;
+    private final int blockSize;
+    private final AtomicReference<Block> block = new AtomicReference<>(Block.empty());
+
+    IdSequence(Allocator allocator, int blockSize) {
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+    }
+
+    int next() {
+        while (true) {
+            Block current = block.get();
+            int id = current.next.getAndIncrement();
+            if (id < current.limit) {
+                return id;
+            }
+            synchronized (this) {
+                // only the first thread that finds the block exhausted reserves the next one
+                if (block.get() == current) {
+                    int first = allocator.allocate(blockSize);
+                    block.set(new Block(first, first + blockSize));
+                }
+            }
+        }
+    }
+
+    /*
+     * Ids written without the sequence, e.g. an imported profile:
+     * the next block is reserved again after the current maximum.
+     */
+    void reset() {
+        block.set(Block.empty());
+    }
+
+    /**
+     *
+     */
+    private static class Block {
+
+        private final AtomicInteger next;
+        private final int limit;
+
+        private Block(int first, int limit) {
+            this.next = new AtomicInteger(first);
+            this.limit = limit;
+        }
+
+        private static Block empty() {
+            return new Block(0, 0);
+        }
+    }
+
+}
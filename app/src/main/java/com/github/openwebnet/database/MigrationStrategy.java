@@ -7,11 +7,13 @@ import com.github.openwebnet.model.EnergyModel;
 import com.github.openwebnet.model.GatewayModel;
 import com.github.openwebnet.model.IpcamModel;
 import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.SequenceModel;
 import com.github.openwebnet.model.SoundModel;
 
 import io.realm.DynamicRealm;
 import io.realm.FieldAttribute;
 import io.realm.RealmMigration;
+import io.realm.RealmObjectSchema;
 import io.realm.RealmSchema;
 
 import static com.github.openwebnet.model.DomoticModel.FIELD_ENVIRONMENT_ID;
@@ -23,6 +25,13 @@ import static com.github.openwebnet.model.RealmModel.FIELD_UUID;
 
 public class MigrationStrategy implements RealmMigration {
 
+    private static final String[] DOMOTIC_MODELS = {"AutomationModel", "DeviceModel", "EnergyModel", "IpcamModel",
+        "LightModel", "ScenarioModel", "SoundModel", "TemperatureModel"};
+
+    // ipcam is not connected to a gateway
+    private static final String[] GATEWAY_MODELS = {"AutomationModel", "DeviceModel", "EnergyModel",
+        "LightModel", "ScenarioModel", "SoundModel", "TemperatureModel"};
+
     @Override
     public void migrate(DynamicRealm realm, long oldVersion, long newVersion) {
 
@@ -152,5 +161,35 @@ public class MigrationStrategy implements RealmMigration {
             ++oldVersion;
         }
 
+        // migrate to version 12
+        if (oldVersion == 11) {
+            // every device query filters by environment or favourite
+            for (String className : DOMOTIC_MODELS) {
+                addIndex(schema.get(className), FIELD_ENVIRONMENT_ID);
+                addIndex(schema.get(className), FIELD_FAVOURITE);
+            }
+            for (String className : GATEWAY_MODELS) {
+                addIndex(schema.get(className), FIELD_GATEWAY_UUID);
+            }
+
+            ++oldVersion;
+        }
+
+        // migrate to version 13
+        if (oldVersion == 12) {
+            // the sequences start after the current maximum at the first reservation
+            schema.create("SequenceModel")
+                .addField(SequenceModel.FIELD_NAME, String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                .addField(SequenceModel.FIELD_VALUE, int.class);
+
+            ++oldVersion;
+        }
+
+    }
+
+    private void addIndex(RealmObjectSchema objectSchema, String field) {
+        if (!objectSchema.hasIndex(field)) {
+            objectSchema.addIndex(field);
+        }
     }
 }
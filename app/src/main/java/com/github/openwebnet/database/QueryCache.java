@@ -0,0 +1,109 @@
+package com.github.openwebnet.database;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of detached query results, keyed by class, field, value and order.
+ *
+ * Each model class has a version that is increased after every committed write of that class:
+ * a result read before a write is never returned after it, even if it's stored later.
+ * The detached models are shared between the callers and the list is read-only: a hit costs
+ * a lookup, the models are only changed before they are written, which invalidates the class.
+ */
+class QueryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCache.class);
+
+    private static final long MAX_ENTRIES = 64;
+
+    private final Cache<List<Object>, Entry> entries = CacheBuilder.newBuilder()
+        .maximumSize(MAX_ENTRIES)
+        .build();
+
+    private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /*
+     * Read it before the query.
+     */
+    long version(Class<?> clazz) {
+        AtomicLong version = versions.get(clazz);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * @return null if the result is not cached or it's outdated
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> get(Class<T> clazz, String field, Object value, String orderBy) {
+        Entry entry = entries.getIfPresent(key(clazz, field, value, orderBy));
+        if (entry == null || entry.version != version(clazz)) {
+            long misses = missCount.incrementAndGet();
+            log.debug("query cache miss: {}.{}={} hits={} misses={}", clazz.getSimpleName(), field, value, hitCount.get(), misses);
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return (List<T>) entry.items;
+    }
+
+    /**
+     * @return the read-only list that is cached
+     */
+    <T> List<T> put(Class<T> clazz, String field, Object value, String orderBy, long version, List<T> items) {
+        List<T> cached = Collections.unmodifiableList(new ArrayList<>(items));
+        entries.put(key(clazz, field, value, orderBy), new Entry(version, cached));
+        return cached;
+    }
+
+    /*
+     * After the commit.
+     */
+    void invalidate(Class<?> clazz) {
+        AtomicLong version = versions.get(clazz);
+        if (version == null) {
+            versions.putIfAbsent(clazz, new AtomicLong());
+            version = versions.get(clazz);
+        }
+        version.incrementAndGet();
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    private List<Object> key(Class<?> clazz, String field, Object value, String orderBy) {
+        return Arrays.asList(clazz, field, value, orderBy);
+    }
+
+    /**
+     *
+     */
+    private static class Entry {
+
+        private final long version;
+        private final List<?> items;
+
+        private Entry(long version, List<?> items) {
+            this.version = version;
+            this.items = items;
+        }
+    }
+
+}
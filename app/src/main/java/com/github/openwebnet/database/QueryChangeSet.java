@@ -0,0 +1,84 @@
+package com.github.openwebnet.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Detached rows of a live query that have changed since the previous emission.
+ *
+ * Only inserted and modified rows are copied out of Realm: the observer keeps its own list
+ * and patches it with {@link #applyTo(List)}.
+ */
+public class QueryChangeSet<T> {
+
+    private final boolean initial;
+    // old positions
+    private final List<Integer> deletions;
+    // new positions
+    private final Map<Integer, T> insertions;
+    private final Map<Integer, T> changes;
+
+    private QueryChangeSet(boolean initial, List<Integer> deletions, Map<Integer, T> insertions, Map<Integer, T> changes) {
+        this.initial = initial;
+        this.deletions = deletions;
+        this.insertions = insertions;
+        this.changes = changes;
+    }
+
+    public static <T> QueryChangeSet<T> initial(List<T> items) {
+        Map<Integer, T> insertions = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            insertions.put(i, items.get(i));
+        }
+        return new QueryChangeSet<>(true, Collections.emptyList(), insertions, Collections.emptyMap());
+    }
+
+    public static <T> QueryChangeSet<T> update(List<Integer> deletions, Map<Integer, T> insertions, Map<Integer, T> changes) {
+        List<Integer> sortedDeletions = new ArrayList<>(deletions);
+        // removed from the end, the lower positions are still valid
+        Collections.sort(sortedDeletions, Collections.reverseOrder());
+        return new QueryChangeSet<>(false, sortedDeletions, new TreeMap<>(insertions), new TreeMap<>(changes));
+    }
+
+    public boolean isInitial() {
+        return initial;
+    }
+
+    public boolean isEmpty() {
+        return deletions.isEmpty() && insertions.isEmpty() && changes.isEmpty();
+    }
+
+    public List<Integer> getDeletions() {
+        return deletions;
+    }
+
+    public Map<Integer, T> getInsertions() {
+        return insertions;
+    }
+
+    public Map<Integer, T> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Same order as RecyclerView.Adapter notifications: deletions, insertions and then changes.
+     */
+    public void applyTo(List<T> items) {
+        if (initial) {
+            items.clear();
+        }
+        for (int position : deletions) {
+            items.remove(position);
+        }
+        for (Map.Entry<Integer, T> insertion : insertions.entrySet()) {
+            items.add(insertion.getKey(), insertion.getValue());
+        }
+        for (Map.Entry<Integer, T> change : changes.entrySet()) {
+            items.set(change.getKey(), change.getValue());
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.github.openwebnet.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.realm.CompactOnLaunchCallback;
+
+/**
+ * Compacts the file when it's opened for the first time in the process, only if it's big enough
+ * and mostly made of free space: old versions pinned by instances that were not closed and
+ * rewritten rows are never released otherwise.
+ *
+ * The sizes seen at launch are kept for the debug settings.
+ */
+class RealmCompaction implements CompactOnLaunchCallback {
+
+    private static final Logger log = LoggerFactory.getLogger(RealmCompaction.class);
+
+    private final long minFileBytes;
+    private final double maxFreeRatio;
+
+    private volatile long launchFileBytes = -1;
+    private volatile long launchDataBytes = -1;
+    private volatile boolean compactedOnLaunch;
+
+    RealmCompaction(long minFileBytes, double maxFreeRatio) {
+        this.minFileBytes = minFileBytes;
+        this.maxFreeRatio = maxFreeRatio;
+    }
+
+    /*
+     * Invoked by Realm before opening the file.
+     */
+    @Override
+    public boolean shouldCompact(long totalBytes, long usedBytes) {
+        boolean compact = totalBytes >= minFileBytes && totalBytes - usedBytes > totalBytes * maxFreeRatio;
+        launchFileBytes = totalBytes;
+        launchDataBytes = usedBytes;
+        compactedOnLaunch = compact;
+        log.info("realm file on launch: size={} data={} compact={}", totalBytes, usedBytes, compact);
+        return compact;
+    }
+
+    /**
+     * @return -1 if the file has not been opened yet
+     */
+    long getLaunchFileBytes() {
+        return launchFileBytes;
+    }
+
+    long getLaunchDataBytes() {
+        return launchDataBytes;
+    }
+
+    boolean isCompactedOnLaunch() {
+        return compactedOnLaunch;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.github.openwebnet.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reference count of the Realm instances opened by each thread.
+ *
+ * Realm caches one instance for each thread and releases it when it has been closed as many times
+ * as it has been opened: a thread that keeps a reference pins the version read and the file grows.
+ */
+class RealmLeakDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(RealmLeakDetector.class);
+
+    private final boolean captureStackTrace;
+
+    private final Map<Thread, Handle> handles = new ConcurrentHashMap<>();
+    private final AtomicInteger openCount = new AtomicInteger(0);
+
+    /**
+     * @param captureStackTrace records where the first reference of each thread has been opened
+     */
+    RealmLeakDetector(boolean captureStackTrace) {
+        this.captureStackTrace = captureStackTrace;
+    }
+
+    void onOpen() {
+        openCount.incrementAndGet();
+        Handle handle = handles.get(Thread.currentThread());
+        if (handle == null) {
+            handles.put(Thread.currentThread(), new Handle(captureStackTrace ? new Throwable("realm opened") : null));
+        } else {
+            handle.references++;
+        }
+    }
+
+    void onClose() {
+        Handle handle = handles.get(Thread.currentThread());
+        if (handle == null) {
+            log.warn("thread={} | realm closed more times than opened", Thread.currentThread().getName());
+            return;
+        }
+        openCount.decrementAndGet();
+        if (--handle.references == 0) {
+            handles.remove(Thread.currentThread());
+        }
+    }
+
+    /**
+     * @return references not closed yet, by all the threads
+     */
+    int getOpenCount() {
+        return openCount.get();
+    }
+
+    /**
+     * @return threads holding a reference for more than maxAgeMillis
+     */
+    List<String> findLeaks(long maxAgeMillis) {
+        long now = System.currentTimeMillis();
+        List<String> leaks = new ArrayList<>();
+        for (Map.Entry<Thread, Handle> entry : handles.entrySet()) {
+            Handle handle = entry.getValue();
+            if (now - handle.timestamp > maxAgeMillis) {
+                String thread = entry.getKey().getName();
+                leaks.add(thread);
+                log.warn("thread={} | {} realm references open for {} ms", thread, handle.references, now - handle.timestamp, handle.stackTrace);
+            }
+        }
+        return leaks;
+    }
+
+    /**
+     * Confined to the owner thread.
+     */
+    private static class Handle {
+
+        private final long timestamp = System.currentTimeMillis();
+        private final Throwable stackTrace;
+        private int references = 1;
+
+        private Handle(Throwable stackTrace) {
+            this.stackTrace = stackTrace;
+        }
+    }
+
+}
@@ -10,6 +10,7 @@ import java.util.UUID;
 
 import io.realm.RealmObject;
 import io.realm.annotations.Ignore;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -29,9 +30,11 @@ public class AutomationModel extends RealmObject
     @PrimaryKey
     private String uuid;
 
+    @Index
     @Required
     private Integer environmentId;
 
+    @Index
     @Required
     private String gatewayUuid;
 
@@ -47,6 +50,7 @@ public class AutomationModel extends RealmObject
     @Required
     private String bus;
 
+    @Index
     private boolean favourite;
 
     @Ignore
@@ -255,11 +259,11 @@ public class AutomationModel extends RealmObject
     }
 
     public Automation.Type getAutomationType() {
-        return Automation.Type.valueOf(this.type);
+        return this.type == null ? null : Automation.Type.valueOf(this.type);
     }
 
     public void setAutomationType(Automation.Type automationType) {
-        this.type = automationType.name();
+        this.type = automationType == null ? null : automationType.name();
     }
 
 }
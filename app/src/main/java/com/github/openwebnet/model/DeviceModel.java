@@ -11,6 +11,7 @@ import java.util.UUID;
 
 import io.realm.RealmObject;
 import io.realm.annotations.Ignore;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -32,9 +33,11 @@ public class DeviceModel extends RealmObject
     @PrimaryKey
     private String uuid;
 
+    @Index
     @Required
     private Integer environmentId;
 
+    @Index
     @Required
     private String gatewayUuid;
 
@@ -47,6 +50,7 @@ public class DeviceModel extends RealmObject
     @Required
     private String response;
 
+    @Index
     private boolean favourite;
 
     private boolean runOnLoad;
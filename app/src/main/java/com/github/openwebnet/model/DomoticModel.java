@@ -11,9 +11,8 @@ package com.github.openwebnet.model;
  * @see SoundModel
  *
  * Note:
- * check https://github.com/openwebnet/openwebnet-android/pull/29
- * For now if you add a new class that implements this interface,
- * you must remember to verify EnvironmentRepositoryImpl#delete
+ * the implementations are discovered from the database schema,
+ * see EnvironmentRepositoryImpl#delete
  */
 public interface DomoticModel {
 
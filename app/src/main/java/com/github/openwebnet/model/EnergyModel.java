@@ -10,6 +10,7 @@ import java.util.UUID;
 
 import io.realm.RealmObject;
 import io.realm.annotations.Ignore;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -24,9 +25,11 @@ public class EnergyModel extends RealmObject
     @PrimaryKey
     private String uuid;
 
+    @Index
     @Required
     private Integer environmentId;
 
+    @Index
     @Required
     private String gatewayUuid;
 
@@ -39,6 +42,7 @@ public class EnergyModel extends RealmObject
     @Required
     private String version;
 
+    @Index
     private boolean favourite;
 
     // NOT USED: realm error otherwise
@@ -224,11 +228,11 @@ public class EnergyModel extends RealmObject
     }
 
     public EnergyManagement.Version getEnergyManagementVersion() {
-        return EnergyManagement.Version.valueOf(this.version);
+        return this.version == null ? null : EnergyManagement.Version.valueOf(this.version);
     }
 
     public void setEnergyManagementVersion(EnergyManagement.Version energyManagementVersion) {
-        this.version = energyManagementVersion.name();
+        this.version = energyManagementVersion == null ? null : energyManagementVersion.name();
     }
 
     public String getInstantaneousPower() {
@@ -13,6 +13,7 @@ import java.util.UUID;
 
 import io.realm.RealmObject;
 import io.realm.annotations.Ignore;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -67,6 +68,7 @@ public class IpcamModel extends RealmObject
     @PrimaryKey
     private String uuid;
 
+    @Index
     @Required
     private Integer environmentId;
 
@@ -83,6 +85,7 @@ public class IpcamModel extends RealmObject
 
     private String password;
 
+    @Index
     private boolean favourite;
 
     // NOT USED: realm error otherwise
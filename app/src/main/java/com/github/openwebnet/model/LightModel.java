@@ -10,6 +10,7 @@ import java.util.UUID;
 
 import io.realm.RealmObject;
 import io.realm.annotations.Ignore;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -32,9 +33,11 @@ public class LightModel extends RealmObject
     @PrimaryKey
     private String uuid;
 
+    @Index
     @Required
     private Integer environmentId;
 
+    @Index
     @Required
     private String gatewayUuid;
 
@@ -50,6 +53,7 @@ public class LightModel extends RealmObject
     @Required
     private String bus;
 
+    @Index
     private boolean favourite;
 
     @Ignore
@@ -258,11 +262,11 @@ public class LightModel extends RealmObject
     }
 
     public Lighting.Type getLightingType() {
-        return Lighting.Type.valueOf(this.type);
+        return this.type == null ? null : Lighting.Type.valueOf(this.type);
     }
 
     public void setLightingType(Lighting.Type lightingType) {
-        this.type = lightingType.name();
+        this.type = lightingType == null ? null : lightingType.name();
     }
 
 }
@@ -9,6 +9,7 @@ import java.util.UUID;
 
 import io.realm.RealmObject;
 import io.realm.annotations.Ignore;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -25,9 +26,11 @@ public class ScenarioModel extends RealmObject
     @PrimaryKey
     private String uuid;
 
+    @Index
     @Required
     private Integer environmentId;
 
+    @Index
     @Required
     private String gatewayUuid;
 
@@ -37,6 +40,7 @@ public class ScenarioModel extends RealmObject
     @Required
     private String where;
 
+    @Index
     private boolean favourite;
 
     @Ignore
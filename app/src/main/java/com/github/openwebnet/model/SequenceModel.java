@@ -0,0 +1,37 @@
+package com.github.openwebnet.model;
+
+import io.realm.RealmObject;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+/**
+ * Highest id reserved by a sequence, the ids up to this value may not be used yet.
+ */
+public class SequenceModel extends RealmObject {
+
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_VALUE = "value";
+
+    @Required
+    @PrimaryKey
+    private String name;
+
+    private int value;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+}
@@ -10,6 +10,7 @@ import java.util.UUID;
 
 import io.realm.RealmObject;
 import io.realm.annotations.Ignore;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -29,9 +30,11 @@ public class SoundModel extends RealmObject
     @PrimaryKey
     private String uuid;
 
+    @Index
     @Required
     private Integer environmentId;
 
+    @Index
     @Required
     private String gatewayUuid;
 
@@ -47,6 +50,7 @@ public class SoundModel extends RealmObject
     @Required
     private String type;
 
+    @Index
     private boolean favourite;
 
     @Ignore
@@ -254,19 +258,19 @@ public class SoundModel extends RealmObject
     }
 
     public SoundSystem.Source getSoundSystemSource() {
-        return SoundSystem.Source.valueOf(this.source);
+        return this.source == null ? null : SoundSystem.Source.valueOf(this.source);
     }
 
     public void setSoundSystemSource(SoundSystem.Source soundSystemSource) {
-        this.source = soundSystemSource.name();
+        this.source = soundSystemSource == null ? null : soundSystemSource.name();
     }
 
     public SoundSystem.Type getSoundSystemType() {
-        return SoundSystem.Type.valueOf(this.type);
+        return this.type == null ? null : SoundSystem.Type.valueOf(this.type);
     }
 
     public void setSoundSystemType(SoundSystem.Type soundSystemType) {
-        this.type = soundSystemType.name();
+        this.type = soundSystemType == null ? null : soundSystemType.name();
     }
 
 }
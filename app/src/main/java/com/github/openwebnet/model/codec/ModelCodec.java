@@ -0,0 +1,23 @@
+package com.github.openwebnet.model.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import io.realm.RealmObject;
+
+/**
+ * Typed binary encoder of the persisted fields of a model, without intermediate maps or boxing.
+ *
+ * Fields are positional: a codec can only append new fields and must keep reading the old layout,
+ * see {@link ProfileCodec#FORMAT_VERSION}.
+ */
+public interface ModelCodec<T extends RealmObject> {
+
+    Class<T> getModelClass();
+
+    void encode(T model, DataOutput output) throws IOException;
+
+    T decode(DataInput input) throws IOException;
+
+}
@@ -0,0 +1,448 @@
+package com.github.openwebnet.model.codec;
+
+import com.github.niqdev.openwebnet.message.Automation;
+import com.github.niqdev.openwebnet.message.EnergyManagement;
+import com.github.niqdev.openwebnet.message.Lighting;
+import com.github.niqdev.openwebnet.message.SoundSystem;
+import com.github.openwebnet.model.AutomationModel;
+import com.github.openwebnet.model.DeviceModel;
+import com.github.openwebnet.model.EnergyModel;
+import com.github.openwebnet.model.EnvironmentModel;
+import com.github.openwebnet.model.GatewayModel;
+import com.github.openwebnet.model.IpcamModel;
+import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.ScenarioModel;
+import com.github.openwebnet.model.SoundModel;
+import com.github.openwebnet.model.TemperatureModel;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.realm.RealmObject;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Hand-written codecs of every model exported with a profile, same fields of FirestoreModel#toMap.
+ */
+public final class ModelCodecs {
+
+    public static final ModelCodec<AutomationModel> AUTOMATION = new AutomationCodec();
+    public static final ModelCodec<DeviceModel> DEVICE = new DeviceCodec();
+    public static final ModelCodec<EnergyModel> ENERGY = new EnergyCodec();
+    public static final ModelCodec<EnvironmentModel> ENVIRONMENT = new EnvironmentCodec();
+    public static final ModelCodec<GatewayModel> GATEWAY = new GatewayCodec();
+    public static final ModelCodec<IpcamModel> IPCAM = new IpcamCodec();
+    public static final ModelCodec<LightModel> LIGHT = new LightCodec();
+    public static final ModelCodec<ScenarioModel> SCENARIO = new ScenarioCodec();
+    public static final ModelCodec<SoundModel> SOUND = new SoundCodec();
+    public static final ModelCodec<TemperatureModel> TEMPERATURE = new TemperatureCodec();
+
+    // environments and gateways before the models that refer to them
+    public static final List<ModelCodec<? extends RealmObject>> ALL = Collections.unmodifiableList(Arrays.asList(
+        ENVIRONMENT, GATEWAY, AUTOMATION, DEVICE, ENERGY, IPCAM, LIGHT, SCENARIO, SOUND, TEMPERATURE));
+
+    private static final Map<String, ModelCodec<? extends RealmObject>> CODECS_BY_NAME = new HashMap<>();
+
+    static {
+        for (ModelCodec<? extends RealmObject> codec : ALL) {
+            CODECS_BY_NAME.put(codec.getModelClass().getSimpleName(), codec);
+        }
+    }
+
+    private ModelCodecs() {}
+
+    @SuppressWarnings("unchecked")
+    public static <T extends RealmObject> ModelCodec<T> forClass(Class<T> clazz) {
+        return (ModelCodec<T>) forName(clazz.getSimpleName());
+    }
+
+    static ModelCodec<? extends RealmObject> forName(String name) {
+        ModelCodec<? extends RealmObject> codec = CODECS_BY_NAME.get(name);
+        checkArgument(codec != null, "codec not found: " + name);
+        return codec;
+    }
+
+    /*
+     * Nullable values are prefixed by a presence flag.
+     */
+    static void writeString(DataOutput output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    static void writeInteger(DataOutput output, Integer value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeInt(value);
+        }
+    }
+
+    static Integer readInteger(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readInt() : null;
+    }
+
+    static void writeEnum(DataOutput output, Enum<?> value) throws IOException {
+        writeString(output, value != null ? value.name() : null);
+    }
+
+    static <E extends Enum<E>> E readEnum(DataInput input, Class<E> enumClass) throws IOException {
+        String name = readString(input);
+        return name != null ? Enum.valueOf(enumClass, name) : null;
+    }
+
+    /**
+     *
+     */
+    private static class AutomationCodec implements ModelCodec<AutomationModel> {
+
+        @Override
+        public Class<AutomationModel> getModelClass() {
+            return AutomationModel.class;
+        }
+
+        @Override
+        public void encode(AutomationModel model, DataOutput output) throws IOException {
+            writeString(output, model.getUuid());
+            writeInteger(output, model.getEnvironmentId());
+            writeString(output, model.getGatewayUuid());
+            writeString(output, model.getName());
+            writeString(output, model.getWhere());
+            writeEnum(output, model.getAutomationType());
+            writeString(output, model.getBus());
+            output.writeBoolean(model.isFavourite());
+        }
+
+        @Override
+        public AutomationModel decode(DataInput input) throws IOException {
+            AutomationModel model = new AutomationModel();
+            model.setUuid(readString(input));
+            model.setEnvironmentId(readInteger(input));
+            model.setGatewayUuid(readString(input));
+            model.setName(readString(input));
+            model.setWhere(readString(input));
+            model.setAutomationType(readEnum(input, Automation.Type.class));
+            model.setBus(readString(input));
+            model.setFavourite(input.readBoolean());
+            return model;
+        }
+    }
+
+    /**
+     *
+     */
+    private static class DeviceCodec implements ModelCodec<DeviceModel> {
+
+        @Override
+        public Class<DeviceModel> getModelClass() {
+            return DeviceModel.class;
+        }
+
+        @Override
+        public void encode(DeviceModel model, DataOutput output) throws IOException {
+            writeString(output, model.getUuid());
+            writeInteger(output, model.getEnvironmentId());
+            writeString(output, model.getGatewayUuid());
+            writeString(output, model.getName());
+            writeString(output, model.getRequest());
+            writeString(output, model.getResponse());
+            output.writeBoolean(model.isFavourite());
+            output.writeBoolean(model.isRunOnLoad());
+            output.writeBoolean(model.isShowConfirmation());
+        }
+
+        @Override
+        public DeviceModel decode(DataInput input) throws IOException {
+            DeviceModel model = new DeviceModel();
+            model.setUuid(readString(input));
+            model.setEnvironmentId(readInteger(input));
+            model.setGatewayUuid(readString(input));
+            model.setName(readString(input));
+            model.setRequest(readString(input));
+            model.setResponse(readString(input));
+            model.setFavourite(input.readBoolean());
+            model.setRunOnLoad(input.readBoolean());
+            model.setShowConfirmation(input.readBoolean());
+            return model;
+        }
+    }
+
+    /**
+     *
+     */
+    private static class EnergyCodec implements ModelCodec<EnergyModel> {
+
+        @Override
+        public Class<EnergyModel> getModelClass() {
+            return EnergyModel.class;
+        }
+
+        @Override
+        public void encode(EnergyModel model, DataOutput output) throws IOException {
+            writeString(output, model.getUuid());
+            writeInteger(output, model.getEnvironmentId());
+            writeString(output, model.getGatewayUuid());
+            writeString(output, model.getName());
+            writeString(output, model.getWhere());
+            writeEnum(output, model.getEnergyManagementVersion());
+            output.writeBoolean(model.isFavourite());
+        }
+
+        @Override
+        public EnergyModel decode(DataInput input) throws IOException {
+            EnergyModel model = new EnergyModel();
+            model.setUuid(readString(input));
+            model.setEnvironmentId(readInteger(input));
+            model.setGatewayUuid(readString(input));
+            model.setName(readString(input));
+            model.setWhere(readString(input));
+            model.setEnergyManagementVersion(readEnum(input, EnergyManagement.Version.class));
+            model.setFavourite(input.readBoolean());
+            return model;
+        }
+    }
+
+    /**
+     *
+     */
+    private static class EnvironmentCodec implements ModelCodec<EnvironmentModel> {
+
+        @Override
+        public Class<EnvironmentModel> getModelClass() {
+            return EnvironmentModel.class;
+        }
+
+        @Override
+        public void encode(EnvironmentModel model, DataOutput output) throws IOException {
+            writeInteger(output, model.getId());
+            writeString(output, model.getName());
+        }
+
+        @Override
+        public EnvironmentModel decode(DataInput input) throws IOException {
+            EnvironmentModel model = new EnvironmentModel();
+            model.setId(readInteger(input));
+            model.setName(readString(input));
+            return model;
+        }
+    }
+
+    /**
+     *
+     */
+    private static class GatewayCodec implements ModelCodec<GatewayModel> {
+
+        @Override
+        public Class<GatewayModel> getModelClass() {
+            return GatewayModel.class;
+        }
+
+        @Override
+        public void encode(GatewayModel model, DataOutput output) throws IOException {
+            writeString(output, model.getUuid());
+            writeString(output, model.getHost());
+            writeInteger(output, model.getPort());
+            writeString(output, model.getPassword());
+        }
+
+        @Override
+        public GatewayModel decode(DataInput input) throws IOException {
+            GatewayModel model = new GatewayModel();
+            model.setUuid(readString(input));
+            model.setHost(readString(input));
+            model.setPort(readInteger(input));
+            model.setPassword(readString(input));
+            return model;
+        }
+    }
+
+    /**
+     *
+     */
+    private static class IpcamCodec implements ModelCodec<IpcamModel> {
+
+        @Override
+        public Class<IpcamModel> getModelClass() {
+            return IpcamModel.class;
+        }
+
+        @Override
+        public void encode(IpcamModel model, DataOutput output) throws IOException {
+            writeString(output, model.getUuid());
+            writeInteger(output, model.getEnvironmentId());
+            writeString(output, model.getName());
+            writeString(output, model.getUrl());
+            writeString(output, model.getType());
+            writeString(output, model.getUsername());
+            writeString(output, model.getPassword());
+            output.writeBoolean(model.isFavourite());
+        }
+
+        @Override
+        public IpcamModel decode(DataInput input) throws IOException {
+            IpcamModel model = new IpcamModel();
+            model.setUuid(readString(input));
+            model.setEnvironmentId(readInteger(input));
+            model.setName(readString(input));
+            model.setUrl(readString(input));
+            model.setType(readString(input));
+            model.setUsername(readString(input));
+            model.setPassword(readString(input));
+            model.setFavourite(input.readBoolean());
+            return model;
+        }
+    }
+
+    /**
+     *
+     */
+    private static class LightCodec implements ModelCodec<LightModel> {
+
+        @Override
+        public Class<LightModel> getModelClass() {
+            return LightModel.class;
+        }
+
+        @Override
+        public void encode(LightModel model, DataOutput output) throws IOException {
+            writeString(output, model.getUuid());
+            writeInteger(output, model.getEnvironmentId());
+            writeString(output, model.getGatewayUuid());
+            writeString(output, model.getName());
+            writeString(output, model.getWhere());
+            writeEnum(output, model.getLightingType());
+            writeString(output, model.getBus());
+            output.writeBoolean(model.isFavourite());
+        }
+
+        @Override
+        public LightModel decode(DataInput input) throws IOException {
+            LightModel model = new LightModel();
+            model.setUuid(readString(input));
+            model.setEnvironmentId(readInteger(input));
+            model.setGatewayUuid(readString(input));
+            model.setName(readString(input));
+            model.setWhere(readString(input));
+            model.setLightingType(readEnum(input, Lighting.Type.class));
+            model.setBus(readString(input));
+            model.setFavourite(input.readBoolean());
+            return model;
+        }
+    }
+
+    /**
+     *
+     */
+    private static class ScenarioCodec implements ModelCodec<ScenarioModel> {
+
+        @Override
+        public Class<ScenarioModel> getModelClass() {
+            return ScenarioModel.class;
+        }
+
+        @Override
+        public void encode(ScenarioModel model, DataOutput output) throws IOException {
+            writeString(output, model.getUuid());
+            writeInteger(output, model.getEnvironmentId());
+            writeString(output, model.getGatewayUuid());
+            writeString(output, model.getName());
+            writeString(output, model.getWhere());
+            output.writeBoolean(model.isFavourite());
+        }
+
+        @Override
+        public ScenarioModel decode(DataInput input) throws IOException {
+            ScenarioModel model = new ScenarioModel();
+            model.setUuid(readString(input));
+            model.setEnvironmentId(readInteger(input));
+            model.setGatewayUuid(readString(input));
+            model.setName(readString(input));
+            model.setWhere(readString(input));
+            model.setFavourite(input.readBoolean());
+            return model;
+        }
+    }
+
+    /**
+     *
+     */
+    private static class SoundCodec implements ModelCodec<SoundModel> {
+
+        @Override
+        public Class<SoundModel> getModelClass() {
+            return SoundModel.class;
+        }
+
+        @Override
+        public void encode(SoundModel model, DataOutput output) throws IOException {
+            writeString(output, model.getUuid());
+            writeInteger(output, model.getEnvironmentId());
+            writeString(output, model.getGatewayUuid());
+            writeString(output, model.getName());
+            writeString(output, model.getWhere());
+            writeEnum(output, model.getSoundSystemSource());
+            writeEnum(output, model.getSoundSystemType());
+            output.writeBoolean(model.isFavourite());
+        }
+
+        @Override
+        public SoundModel decode(DataInput input) throws IOException {
+            SoundModel model = new SoundModel();
+            model.setUuid(readString(input));
+            model.setEnvironmentId(readInteger(input));
+            model.setGatewayUuid(readString(input));
+            model.setName(readString(input));
+            model.setWhere(readString(input));
+            model.setSoundSystemSource(readEnum(input, SoundSystem.Source.class));
+            model.setSoundSystemType(readEnum(input, SoundSystem.Type.class));
+            model.setFavourite(input.readBoolean());
+            return model;
+        }
+    }
+
+    /**
+     *
+     */
+    private static class TemperatureCodec implements ModelCodec<TemperatureModel> {
+
+        @Override
+        public Class<TemperatureModel> getModelClass() {
+            return TemperatureModel.class;
+        }
+
+        @Override
+        public void encode(TemperatureModel model, DataOutput output) throws IOException {
+            writeString(output, model.getUuid());
+            writeInteger(output, model.getEnvironmentId());
+            writeString(output, model.getGatewayUuid());
+            writeString(output, model.getName());
+            writeString(output, model.getWhere());
+            output.writeBoolean(model.isFavourite());
+        }
+
+        @Override
+        public TemperatureModel decode(DataInput input) throws IOException {
+            TemperatureModel model = new TemperatureModel();
+            model.setUuid(readString(input));
+            model.setEnvironmentId(readInteger(input));
+            model.setGatewayUuid(readString(input));
+            model.setName(readString(input));
+            model.setWhere(readString(input));
+            model.setFavourite(input.readBoolean());
+            return model;
+        }
+    }
+
+}
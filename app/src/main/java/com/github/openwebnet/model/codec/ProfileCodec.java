@@ -0,0 +1,177 @@
+package com.github.openwebnet.model.codec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import io.realm.RealmObject;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Compact binary form of a profile for local backup and export.
+ *
+ * Layout: magic, format version, realm version, then a section per model class
+ * (class name, count and entries) and an empty class name at the end.
+ * Both sides are streaming: only the current entry is in memory.
+ */
+public final class ProfileCodec {
+
+    private static final int MAGIC = 0x4F574E50;
+    public static final int FORMAT_VERSION = 1;
+    private static final String END_OF_SECTIONS = "";
+
+    private ProfileCodec() {}
+
+    public static Writer newWriter(OutputStream outputStream, int databaseRealmVersion) throws IOException {
+        return new Writer(outputStream, databaseRealmVersion);
+    }
+
+    public static Reader newReader(InputStream inputStream) throws IOException {
+        return new Reader(inputStream);
+    }
+
+    /**
+     *
+     */
+    public static class Writer implements Closeable {
+
+        private final DataOutputStream output;
+
+        private ModelCodec<? extends RealmObject> sectionCodec;
+        private int sectionRemaining;
+
+        private Writer(OutputStream outputStream, int databaseRealmVersion) throws IOException {
+            this.output = new DataOutputStream(new BufferedOutputStream(outputStream));
+            output.writeInt(MAGIC);
+            output.writeShort(FORMAT_VERSION);
+            output.writeInt(databaseRealmVersion);
+        }
+
+        /**
+         * Starts a section of exactly size entries, see {@link #write(RealmObject)}.
+         */
+        public <T extends RealmObject> Writer section(Class<T> clazz, int size) throws IOException {
+            checkState(sectionRemaining == 0, "previous section is incomplete");
+            sectionCodec = ModelCodecs.forClass(clazz);
+            sectionRemaining = size;
+            output.writeUTF(clazz.getSimpleName());
+            output.writeInt(size);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T extends RealmObject> Writer write(T model) throws IOException {
+            checkState(sectionRemaining > 0, "section is complete");
+            checkState(sectionCodec.getModelClass().equals(model.getClass()), "invalid section");
+            ((ModelCodec<T>) sectionCodec).encode(model, output);
+            sectionRemaining--;
+            return this;
+        }
+
+        public <T extends RealmObject> Writer writeAll(Class<T> clazz, Iterable<T> models, int size) throws IOException {
+            section(clazz, size);
+            for (T model : models) {
+                write(model);
+            }
+            return this;
+        }
+
+        /**
+         * Writes the end of the sections and closes the stream.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                checkState(sectionRemaining == 0, "section is incomplete");
+                output.writeUTF(END_OF_SECTIONS);
+                output.flush();
+            } finally {
+                output.close();
+            }
+        }
+    }
+
+    /**
+     *
+     */
+    public static class Reader implements Closeable {
+
+        private final DataInputStream input;
+        private final int formatVersion;
+        private final int databaseRealmVersion;
+
+        private ModelCodec<? extends RealmObject> sectionCodec;
+        private int sectionSize;
+        private int sectionRemaining;
+
+        private Reader(InputStream inputStream) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(inputStream));
+            if (input.readInt() != MAGIC) {
+                throw new IOException("invalid profile format");
+            }
+            this.formatVersion = input.readUnsignedShort();
+            if (formatVersion > FORMAT_VERSION) {
+                throw new IOException("unsupported profile format: " + formatVersion);
+            }
+            this.databaseRealmVersion = input.readInt();
+        }
+
+        public int getFormatVersion() {
+            return formatVersion;
+        }
+
+        public int getDatabaseRealmVersion() {
+            return databaseRealmVersion;
+        }
+
+        /**
+         * Skips what is left of the current section.
+         *
+         * @return false after the last section
+         */
+        public boolean nextSection() throws IOException {
+            while (sectionRemaining > 0) {
+                next();
+            }
+            String name = input.readUTF();
+            if (END_OF_SECTIONS.equals(name)) {
+                sectionCodec = null;
+                return false;
+            }
+            sectionCodec = ModelCodecs.forName(name);
+            sectionSize = input.readInt();
+            sectionRemaining = sectionSize;
+            return true;
+        }
+
+        public Class<? extends RealmObject> getSectionClass() {
+            return sectionCodec.getModelClass();
+        }
+
+        public int getSectionSize() {
+            return sectionSize;
+        }
+
+        public boolean hasNext() {
+            return sectionRemaining > 0;
+        }
+
+        public RealmObject next() throws IOException {
+            checkState(sectionRemaining > 0, "section is complete");
+            sectionRemaining--;
+            return sectionCodec.decode(input);
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+}
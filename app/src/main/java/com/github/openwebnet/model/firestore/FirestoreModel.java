@@ -18,10 +18,16 @@ import java.util.Map;
  *   + add AutomationModel.type
  *   + add AutomationModel.bus
  *   + add LightModel.bus
+ *
+ * v5 @ 2026-10-18
+ * > databaseFirestoreVersion 5
+ * > databaseRealmVersion 13
+ *   + add ProfileVersionModel.payloadEncoding
+ *   + add ProfileModel.payload (optional, DEFLATE only)
  */
 public interface FirestoreModel<T> {
 
-    int DATABASE_VERSION = 4;
+    int DATABASE_VERSION = 5;
 
     Map<String, Object> toMap();
 
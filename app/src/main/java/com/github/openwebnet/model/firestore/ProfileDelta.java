@@ -0,0 +1,137 @@
+package com.github.openwebnet.model.firestore;
+
+import com.github.openwebnet.model.EnvironmentModel;
+import com.github.openwebnet.model.RealmModel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entries of a profile that differ from the previously synced version, by uuid (id for environments).
+ *
+ * A modified entry is both removed, as it is stored, and added, as it is now:
+ * Firestore can only remove array elements that are equal to the stored ones.
+ */
+public class ProfileDelta {
+
+    // field name of the collection
+    private final Map<String, List<Map<String, Object>>> removed = new LinkedHashMap<>();
+    private final Map<String, List<Map<String, Object>>> added = new LinkedHashMap<>();
+
+    private ProfileDelta() {}
+
+    public static ProfileDelta between(ProfileModel previous, ProfileModel current) {
+        ProfileDelta delta = new ProfileDelta();
+        Map<String, List<Map<String, Object>>> previousCollections = collections(previous);
+        for (Map.Entry<String, List<Map<String, Object>>> collection : collections(current).entrySet()) {
+            Map<String, Map<String, Object>> previousEntries = byKey(previousCollections.get(collection.getKey()));
+            Map<String, Map<String, Object>> currentEntries = byKey(collection.getValue());
+
+            List<Map<String, Object>> removedEntries = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Object>> entry : previousEntries.entrySet()) {
+                Map<String, Object> currentEntry = currentEntries.get(entry.getKey());
+                if (currentEntry == null || !normalize(currentEntry).equals(normalize(entry.getValue()))) {
+                    removedEntries.add(entry.getValue());
+                }
+            }
+            List<Map<String, Object>> addedEntries = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Object>> entry : currentEntries.entrySet()) {
+                Map<String, Object> previousEntry = previousEntries.get(entry.getKey());
+                if (previousEntry == null || !normalize(previousEntry).equals(normalize(entry.getValue()))) {
+                    addedEntries.add(entry.getValue());
+                }
+            }
+
+            if (!removedEntries.isEmpty()) {
+                delta.removed.put(collection.getKey(), removedEntries);
+            }
+            if (!addedEntries.isEmpty()) {
+                delta.added.put(collection.getKey(), addedEntries);
+            }
+        }
+        return delta;
+    }
+
+    private static Map<String, List<Map<String, Object>>> collections(ProfileModel profile) {
+        Map<String, List<Map<String, Object>>> collections = new LinkedHashMap<>();
+        collections.put(ProfileModel.FIELD_AUTOMATIONS, profile.getAutomations());
+        collections.put(ProfileModel.FIELD_DEVICES, profile.getDevices());
+        collections.put(ProfileModel.FIELD_ENERGIES, profile.getEnergies());
+        collections.put(ProfileModel.FIELD_ENVIRONMENTS, profile.getEnvironments());
+        collections.put(ProfileModel.FIELD_GATEWAYS, profile.getGateways());
+        collections.put(ProfileModel.FIELD_IPCAMS, profile.getIpcams());
+        collections.put(ProfileModel.FIELD_LIGHTS, profile.getLights());
+        collections.put(ProfileModel.FIELD_SCENARIOS, profile.getScenarios());
+        collections.put(ProfileModel.FIELD_SOUNDS, profile.getSounds());
+        collections.put(ProfileModel.FIELD_TEMPERATURES, profile.getTemperatures());
+        return collections;
+    }
+
+    private static Map<String, Map<String, Object>> byKey(List<Map<String, Object>> entries) {
+        Map<String, Map<String, Object>> byKey = new LinkedHashMap<>();
+        if (entries != null) {
+            for (Map<String, Object> entry : entries) {
+                Object key = entry.containsKey(RealmModel.FIELD_UUID) ?
+                    entry.get(RealmModel.FIELD_UUID) : entry.get(EnvironmentModel.FIELD_ID);
+                byKey.put(String.valueOf(normalize(key)), entry);
+            }
+        }
+        return byKey;
+    }
+
+    /*
+     * Firestore returns every integer as Long and every decimal as Double.
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), normalize(entry.getValue()));
+            }
+            return map;
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object item : (List<?>) value) {
+                list.add(normalize(item));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return removed.isEmpty() && added.isEmpty();
+    }
+
+    /**
+     * @return number of removed and added entries
+     */
+    public int size() {
+        int size = 0;
+        for (List<Map<String, Object>> entries : removed.values()) {
+            size += entries.size();
+        }
+        for (List<Map<String, Object>> entries : added.values()) {
+            size += entries.size();
+        }
+        return size;
+    }
+
+    public Map<String, List<Map<String, Object>>> getRemoved() {
+        return removed;
+    }
+
+    public Map<String, List<Map<String, Object>>> getAdded() {
+        return added;
+    }
+
+}
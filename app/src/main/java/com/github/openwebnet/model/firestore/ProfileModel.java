@@ -12,7 +12,11 @@ import com.github.openwebnet.model.ScenarioModel;
 import com.github.openwebnet.model.SoundModel;
 import com.github.openwebnet.model.TemperatureModel;
 
+import com.google.firebase.firestore.Blob;
+
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +24,19 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public class ProfileModel {
 
+    public static final String FIELD_VERSION = "version";
+    public static final String FIELD_AUTOMATIONS = "automations";
+    public static final String FIELD_DEVICES = "devices";
+    public static final String FIELD_ENERGIES = "energies";
+    public static final String FIELD_ENVIRONMENTS = "environments";
+    public static final String FIELD_GATEWAYS = "gateways";
+    public static final String FIELD_IPCAMS = "ipcams";
+    public static final String FIELD_LIGHTS = "lights";
+    public static final String FIELD_SCENARIOS = "scenarios";
+    public static final String FIELD_SOUNDS = "sounds";
+    public static final String FIELD_TEMPERATURES = "temperatures";
+    public static final String FIELD_PAYLOAD = "payload";
+
     private ProfileVersionModel version;
 
     // FIXME used maps ;-( due to serialization and inheritance issues
@@ -37,6 +54,9 @@ public class ProfileModel {
     private List<Map<String, Object>> sounds;
     private List<Map<String, Object>> temperatures;
 
+    // DEFLATE encoding only, the collections are empty
+    private Blob payload;
+
     // required by Firestore
     public ProfileModel() {}
 
@@ -54,6 +74,26 @@ public class ProfileModel {
         this.temperatures = builder.temperatures;
     }
 
+    private ProfileModel(ProfileVersionModel version, Map<String, List<Map<String, Object>>> collections, Blob payload) {
+        this.version = version;
+        this.automations = getOrEmpty(collections, FIELD_AUTOMATIONS);
+        this.devices = getOrEmpty(collections, FIELD_DEVICES);
+        this.energies = getOrEmpty(collections, FIELD_ENERGIES);
+        this.environments = getOrEmpty(collections, FIELD_ENVIRONMENTS);
+        this.gateways = getOrEmpty(collections, FIELD_GATEWAYS);
+        this.ipcams = getOrEmpty(collections, FIELD_IPCAMS);
+        this.lights = getOrEmpty(collections, FIELD_LIGHTS);
+        this.scenarios = getOrEmpty(collections, FIELD_SCENARIOS);
+        this.sounds = getOrEmpty(collections, FIELD_SOUNDS);
+        this.temperatures = getOrEmpty(collections, FIELD_TEMPERATURES);
+        this.payload = payload;
+    }
+
+    private static List<Map<String, Object>> getOrEmpty(Map<String, List<Map<String, Object>>> collections, String name) {
+        List<Map<String, Object>> entries = collections.get(name);
+        return entries == null ? new ArrayList<>() : entries;
+    }
+
     public static class Builder {
         private ProfileVersionModel version;
         private List<Map<String, Object>> automations;
@@ -157,6 +197,51 @@ public class ProfileModel {
         return new Builder();
     }
 
+    /**
+     * Same profile with the collections in a single ProfilePayload blob.
+     */
+    public ProfileModel compress() throws IOException {
+        byte[] bytes = ProfilePayload.encode(getCollections());
+        return new ProfileModel(ProfileVersionModel.newInstance(ProfileVersionModel.PayloadEncoding.DEFLATE),
+            new LinkedHashMap<>(), Blob.fromBytes(bytes));
+    }
+
+    /**
+     * Profiles stored as maps are returned as they are, the version is preserved.
+     */
+    public ProfileModel decompress() throws IOException {
+        if (payload == null) {
+            return this;
+        }
+        return new ProfileModel(version, ProfilePayload.decode(payload.toBytes()), null);
+    }
+
+    /**
+     * Entries of all the collections.
+     */
+    public int size() {
+        int size = 0;
+        for (List<Map<String, Object>> entries : getCollections().values()) {
+            size += entries.size();
+        }
+        return size;
+    }
+
+    private Map<String, List<Map<String, Object>>> getCollections() {
+        Map<String, List<Map<String, Object>>> collections = new LinkedHashMap<>();
+        collections.put(FIELD_ENVIRONMENTS, environments);
+        collections.put(FIELD_GATEWAYS, gateways);
+        collections.put(FIELD_AUTOMATIONS, automations);
+        collections.put(FIELD_DEVICES, devices);
+        collections.put(FIELD_ENERGIES, energies);
+        collections.put(FIELD_IPCAMS, ipcams);
+        collections.put(FIELD_LIGHTS, lights);
+        collections.put(FIELD_SCENARIOS, scenarios);
+        collections.put(FIELD_SOUNDS, sounds);
+        collections.put(FIELD_TEMPERATURES, temperatures);
+        return collections;
+    }
+
     public ProfileVersionModel getVersion() {
         return version;
     }
@@ -201,4 +286,8 @@ public class ProfileModel {
         return temperatures;
     }
 
+    public Blob getPayload() {
+        return payload;
+    }
+
 }
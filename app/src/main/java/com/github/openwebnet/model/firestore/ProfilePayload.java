@@ -0,0 +1,168 @@
+package com.github.openwebnet.model.firestore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compressed form of the collections of a profile, stored in a single blob.
+ *
+ * Every string, field names included, is written once in a dictionary and then referenced by index:
+ * gateway uuids and field names are repeated in each entry. The whole payload is deflated.
+ * Decoded values have the same types returned by Firestore: integers as Long and decimals as Double.
+ */
+public final class ProfilePayload {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+
+    private ProfilePayload() {}
+
+    /**
+     * @param collections entries by collection name
+     */
+    public static byte[] encode(Map<String, List<Map<String, Object>>> collections) throws IOException {
+        Map<String, Integer> dictionary = newDictionary(collections);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            output.writeShort(FORMAT_VERSION);
+
+            output.writeInt(dictionary.size());
+            for (String value : dictionary.keySet()) {
+                output.writeUTF(value);
+            }
+
+            output.writeInt(collections.size());
+            for (Map.Entry<String, List<Map<String, Object>>> collection : collections.entrySet()) {
+                output.writeInt(dictionary.get(collection.getKey()));
+                output.writeInt(collection.getValue().size());
+                for (Map<String, Object> entry : collection.getValue()) {
+                    output.writeInt(entry.size());
+                    for (Map.Entry<String, Object> field : entry.entrySet()) {
+                        output.writeInt(dictionary.get(field.getKey()));
+                        writeValue(output, dictionary, field.getValue());
+                    }
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Map<String, List<Map<String, Object>>> decode(byte[] payload) throws IOException {
+        try (DataInputStream input = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+            int formatVersion = input.readUnsignedShort();
+            if (formatVersion > FORMAT_VERSION) {
+                throw new IOException("unsupported payload format: " + formatVersion);
+            }
+
+            int dictionarySize = input.readInt();
+            List<String> dictionary = new ArrayList<>(dictionarySize);
+            for (int i = 0; i < dictionarySize; i++) {
+                dictionary.add(input.readUTF());
+            }
+
+            int collectionsSize = input.readInt();
+            Map<String, List<Map<String, Object>>> collections = new LinkedHashMap<>();
+            for (int c = 0; c < collectionsSize; c++) {
+                String name = readString(input, dictionary);
+                int entriesSize = input.readInt();
+                List<Map<String, Object>> entries = new ArrayList<>(entriesSize);
+                for (int e = 0; e < entriesSize; e++) {
+                    int fieldsSize = input.readInt();
+                    Map<String, Object> entry = new HashMap<>();
+                    for (int f = 0; f < fieldsSize; f++) {
+                        entry.put(readString(input, dictionary), readValue(input, dictionary));
+                    }
+                    entries.add(entry);
+                }
+                collections.put(name, entries);
+            }
+            return collections;
+        }
+    }
+
+    // ordered by first occurrence
+    private static Map<String, Integer> newDictionary(Map<String, List<Map<String, Object>>> collections) {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Map<String, Object>>> collection : collections.entrySet()) {
+            addToDictionary(dictionary, collection.getKey());
+            for (Map<String, Object> entry : collection.getValue()) {
+                for (Map.Entry<String, Object> field : entry.entrySet()) {
+                    addToDictionary(dictionary, field.getKey());
+                    if (field.getValue() instanceof String) {
+                        addToDictionary(dictionary, (String) field.getValue());
+                    }
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    private static void addToDictionary(Map<String, Integer> dictionary, String value) {
+        if (!dictionary.containsKey(value)) {
+            dictionary.put(value, dictionary.size());
+        }
+    }
+
+    private static void writeValue(DataOutputStream output, Map<String, Integer> dictionary, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(TYPE_STRING);
+            output.writeInt(dictionary.get(value));
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            output.writeByte(TYPE_LONG);
+            output.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            output.writeByte(TYPE_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else {
+            throw new IllegalArgumentException("unsupported value: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream input, List<String> dictionary) throws IOException {
+        byte type = input.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(input, dictionary);
+            case TYPE_LONG:
+                return input.readLong();
+            case TYPE_DOUBLE:
+                return input.readDouble();
+            case TYPE_BOOLEAN:
+                return input.readBoolean();
+            default:
+                throw new IOException("invalid value type: " + type);
+        }
+    }
+
+    private static String readString(DataInputStream input, List<String> dictionary) throws IOException {
+        int index = input.readInt();
+        if (index < 0 || index >= dictionary.size()) {
+            throw new IOException("invalid dictionary index: " + index);
+        }
+        return dictionary.get(index);
+    }
+
+}
@@ -5,6 +5,29 @@ import com.github.openwebnet.database.DatabaseRealmConfig;
 
 public class ProfileVersionModel {
 
+    /**
+     * How the collections of the profile are stored, missing in the profiles of the previous versions.
+     */
+    public enum PayloadEncoding {
+        // a list of maps per collection
+        MAPS(4),
+        // ProfilePayload blob
+        DEFLATE(5);
+
+        private final int databaseFirestoreVersion;
+
+        PayloadEncoding(int databaseFirestoreVersion) {
+            this.databaseFirestoreVersion = databaseFirestoreVersion;
+        }
+
+        /**
+         * Min version of the app able to read it.
+         */
+        public int getDatabaseFirestoreVersion() {
+            return databaseFirestoreVersion;
+        }
+    }
+
     private int appVersionCode;
 
     private String appVersionName;
@@ -13,6 +36,8 @@ public class ProfileVersionModel {
 
     private int databaseRealmVersion;
 
+    private PayloadEncoding payloadEncoding;
+
     public ProfileVersionModel() {}
 
     private ProfileVersionModel(Builder builder) {
@@ -20,6 +45,7 @@ public class ProfileVersionModel {
         this.appVersionName = builder.appVersionName;
         this.databaseFirestoreVersion = builder.databaseFirestoreVersion;
         this.databaseRealmVersion = builder.databaseRealmVersion;
+        this.payloadEncoding = builder.payloadEncoding;
     }
 
     private static class Builder {
@@ -28,12 +54,14 @@ public class ProfileVersionModel {
         private String appVersionName;
         private int databaseFirestoreVersion;
         private int databaseRealmVersion;
+        private PayloadEncoding payloadEncoding;
 
-        private Builder() {
+        private Builder(PayloadEncoding payloadEncoding) {
             this.appVersionCode = BuildConfig.VERSION_CODE;
             this.appVersionName = BuildConfig.VERSION_NAME;
             this.databaseFirestoreVersion = FirestoreModel.DATABASE_VERSION;
             this.databaseRealmVersion = DatabaseRealmConfig.DATABASE_VERSION;
+            this.payloadEncoding = payloadEncoding;
         }
 
         private ProfileVersionModel build() {
@@ -42,7 +70,11 @@ public class ProfileVersionModel {
     }
 
     public static ProfileVersionModel newInstance() {
-        return new ProfileVersionModel.Builder().build();
+        return newInstance(PayloadEncoding.MAPS);
+    }
+
+    public static ProfileVersionModel newInstance(PayloadEncoding payloadEncoding) {
+        return new ProfileVersionModel.Builder(payloadEncoding).build();
     }
 
     public int getAppVersionCode() {
@@ -61,4 +93,8 @@ public class ProfileVersionModel {
         return databaseRealmVersion;
     }
 
+    public PayloadEncoding getPayloadEncoding() {
+        return payloadEncoding == null ? PayloadEncoding.MAPS : payloadEncoding;
+    }
+
 }
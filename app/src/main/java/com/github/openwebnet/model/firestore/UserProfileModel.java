@@ -22,12 +22,12 @@ public class UserProfileModel implements FirestoreModel<UserProfileModel> {
         DELETED
     }
 
-    private static final String FIELD_PROFILE_REF = "profileRef";
+    public static final String FIELD_PROFILE_REF = "profileRef";
     private static final String FIELD_VERSION = "version";
     private static final String FIELD_NAME = "name";
     private static final String FIELD_CREATED_AT = "createdAt";
     private static final String FIELD_MODIFIED_AT = "modifiedAt";
-    private static final String FIELD_STATUS = "status";
+    public static final String FIELD_STATUS = "status";
     private static final String FIELD_SHARED_FROM = "sharedFrom";
     private static final String FIELD_SHARED_TO = "sharedTo";
 
@@ -122,6 +122,14 @@ public class UserProfileModel implements FirestoreModel<UserProfileModel> {
             return this;
         }
 
+        /**
+         * Min version of the app able to read the profile, by default the current one.
+         */
+        public Builder version(Integer version) {
+            this.version = version;
+            return this;
+        }
+
         public Builder name(String name) {
             this.name = name;
             return this;
@@ -1,5 +1,6 @@
 package com.github.openwebnet.repository;
 
+import com.github.openwebnet.database.QueryChangeSet;
 import com.github.openwebnet.model.DomoticModel;
 import com.github.openwebnet.model.RealmModel;
 
@@ -13,6 +14,18 @@ public interface DomoticRepository<D extends RealmObject & RealmModel & DomoticM
 
     Observable<List<D>> findByEnvironment(Integer id);
 
+    /*
+     * Zero-based page of the environment ordered by name, not cached.
+     */
+    Observable<List<D>> findByEnvironment(Integer id, int page, int pageSize);
+
     Observable<List<D>> findFavourites();
 
+    /*
+     * Live queries: the first emission contains all the rows, then only the changes.
+     */
+    Observable<QueryChangeSet<D>> observeByEnvironment(Integer id);
+
+    Observable<QueryChangeSet<D>> observeFavourites();
+
 }
@@ -11,15 +11,31 @@ import rx.Observable;
 
 public interface FirestoreRepository {
 
+    /**
+     * Offline the profiles are read from the local cache and the changes are queued,
+     * they are sent as soon as it's online again.
+     */
+    void setOnline(boolean online);
+
     Observable<Void> updateUser(UserModel user);
 
     Observable<String> addProfile(UserModel user, String name);
 
+    /**
+     * A profile stored as maps is compressed once it reaches the size of the new profiles.
+     *
+     * @return number of changed entries
+     */
+    Observable<Integer> updateProfile(String userId, DocumentReference profileRef);
+
     Observable<List<UserProfileModel>> getProfiles(String userId);
 
     Observable<ProfileModel> getProfile(DocumentReference profileRef);
 
-    Observable<List<Integer>> applyProfile(ProfileModel profile);
+    /**
+     * @return progress percentage, 100 once the profile is committed
+     */
+    Observable<Integer> applyProfile(ProfileModel profile);
 
     Observable<Void> renameProfile(String userId, DocumentReference profileRef, String name);
 
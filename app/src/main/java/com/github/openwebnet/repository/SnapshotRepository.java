@@ -0,0 +1,28 @@
+package com.github.openwebnet.repository;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import rx.Observable;
+
+/**
+ * Local copy of the whole configuration, without Firebase.
+ */
+public interface SnapshotRepository {
+
+    /**
+     * The stream is closed.
+     *
+     * @return number of entries written
+     */
+    Observable<Integer> exportSnapshot(OutputStream outputStream);
+
+    /**
+     * Replaces the whole configuration, nothing is changed if the snapshot is invalid.
+     * The stream is closed.
+     *
+     * @return number of entries read
+     */
+    Observable<Integer> importSnapshot(InputStream inputStream);
+
+}
@@ -8,12 +8,17 @@ import com.github.openwebnet.repository.CommonRealmRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 
 import io.realm.RealmObject;
 import rx.Observable;
+import rx.Scheduler;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.subjects.AsyncSubject;
 
 import static com.google.common.base.Preconditions.checkState;
 
@@ -25,11 +30,31 @@ public abstract class CommonRealmRepositoryImpl<M extends RealmObject & RealmMod
     @Inject
     DatabaseRealm databaseRealm;
 
+    // update queued for each uuid, guarded by itself
+    private final Map<String, PendingUpdate<M>> pendingUpdates = new HashMap<>();
+
+    private static class PendingUpdate<M> {
+
+        private M model;
+        private final AsyncSubject<Void> result = AsyncSubject.create();
+
+        private PendingUpdate(M model) {
+            this.model = model;
+        }
+    }
+
     protected abstract Class<M> getRealmModelClass();
 
+    // single writer thread, the result is delivered on the main thread
+    private <T> Observable<T> write(Observable<T> observable) {
+        return observable
+            .subscribeOn(databaseRealm.getWriteScheduler())
+            .observeOn(AndroidSchedulers.mainThread());
+    }
+
     @Override
     public Observable<String> add(M model) {
-        return Observable.create(subscriber -> {
+        return write(Observable.create(subscriber -> {
             try {
                 subscriber.onNext(databaseRealm.add(model).getUuid());
                 subscriber.onCompleted();
@@ -37,12 +62,12 @@ public abstract class CommonRealmRepositoryImpl<M extends RealmObject & RealmMod
                 log.error("common-ADD", e);
                 subscriber.onError(e);
             }
-        });
+        }));
     }
 
     @Override
     public Observable<List<String>> addAll(List<M> models) {
-        return Observable.create(subscriber -> {
+        return write(Observable.create(subscriber -> {
             try {
                 List<String> results = Stream
                     .of(databaseRealm.addAll(models))
@@ -55,26 +80,58 @@ public abstract class CommonRealmRepositoryImpl<M extends RealmObject & RealmMod
                 log.error("common-ADD_ALL", e);
                 subscriber.onError(e);
             }
-        });
+        }));
     }
 
+    /*
+     * Updates of the same model still queued are coalesced: only the last one is written,
+     * and every coalesced caller completes, or fails, with that single write.
+     */
     @Override
     public Observable<Void> update(M model) {
-        return Observable.create(subscriber -> {
+        final String uuid = model.getUuid();
+        return Observable.defer(() -> {
+            PendingUpdate<M> pending;
+            synchronized (pendingUpdates) {
+                pending = pendingUpdates.get(uuid);
+                if (pending != null) {
+                    log.debug("common-UPDATE: {} coalesced", uuid);
+                    pending.model = model;
+                    return pending.result.observeOn(AndroidSchedulers.mainThread());
+                }
+                pending = new PendingUpdate<>(model);
+                pendingUpdates.put(uuid, pending);
+            }
+            scheduleUpdate(uuid, pending);
+            return pending.result.observeOn(AndroidSchedulers.mainThread());
+        });
+    }
+
+    // not bound to the first caller: unsubscribing must not cancel the write of the others
+    private void scheduleUpdate(String uuid, PendingUpdate<M> pending) {
+        Scheduler.Worker worker = databaseRealm.getWriteScheduler().createWorker();
+        worker.schedule(() -> {
             try {
+                M model;
+                synchronized (pendingUpdates) {
+                    pendingUpdates.remove(uuid);
+                    model = pending.model;
+                }
                 databaseRealm.update(model);
-                subscriber.onNext(null);
-                subscriber.onCompleted();
+                pending.result.onNext(null);
+                pending.result.onCompleted();
             } catch (Exception e) {
                 log.error("common-UPDATE", e);
-                subscriber.onError(e);
+                pending.result.onError(e);
+            } finally {
+                worker.unsubscribe();
             }
         });
     }
 
     @Override
     public Observable<Void> delete(String uuid) {
-        return Observable.create(subscriber -> {
+        return write(Observable.create(subscriber -> {
             try {
                 databaseRealm.delete(getRealmModelClass(), RealmModel.FIELD_UUID, uuid);
                 subscriber.onNext(null);
@@ -83,12 +140,12 @@ public abstract class CommonRealmRepositoryImpl<M extends RealmObject & RealmMod
                 log.error("common-DELETE", e);
                 subscriber.onError(e);
             }
-        });
+        }));
     }
 
     @Override
     public Observable<Void> deleteAll() {
-        return Observable.create(subscriber -> {
+        return write(Observable.create(subscriber -> {
             try {
                 databaseRealm.deleteAll(getRealmModelClass());
                 subscriber.onNext(null);
@@ -97,7 +154,7 @@ public abstract class CommonRealmRepositoryImpl<M extends RealmObject & RealmMod
                 log.error("common-DELETE_ALL", e);
                 subscriber.onError(e);
             }
-        });
+        }));
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.github.openwebnet.repository.impl;
 
+import com.github.openwebnet.database.QueryChangeSet;
 import com.github.openwebnet.model.DomoticModel;
 import com.github.openwebnet.model.RealmModel;
 import com.github.openwebnet.repository.DomoticRepository;
@@ -35,6 +36,23 @@ public abstract class DomoticRepositoryImpl<D extends RealmObject & RealmModel &
         });
     }
 
+    @Override
+    public Observable<List<D>> findByEnvironment(Integer id, int page, int pageSize) {
+        return Observable.create(subscriber -> {
+            try {
+                subscriber.onNext(databaseRealm.query(getRealmModelClass())
+                    .equalTo(FIELD_ENVIRONMENT_ID, id)
+                    .sortAscending(FIELD_NAME)
+                    .page(page, pageSize)
+                    .findCopy());
+                subscriber.onCompleted();
+            } catch (Exception e) {
+                log.error("FIND_BY_ENVIRONMENT-page", e);
+                subscriber.onError(e);
+            }
+        });
+    }
+
     @Override
     public Observable<List<D>> findFavourites() {
         return Observable.create(subscriber -> {
@@ -48,4 +66,19 @@ public abstract class DomoticRepositoryImpl<D extends RealmObject & RealmModel &
             }
         });
     }
+
+    @Override
+    public Observable<QueryChangeSet<D>> observeByEnvironment(Integer id) {
+        return databaseRealm
+            .observeWhere(getRealmModelClass(), FIELD_ENVIRONMENT_ID, id, FIELD_NAME)
+            .doOnError(e -> log.error("OBSERVE_BY_ENVIRONMENT-orderByName", e));
+    }
+
+    @Override
+    public Observable<QueryChangeSet<D>> observeFavourites() {
+        return databaseRealm
+            .observeWhere(getRealmModelClass(), FIELD_FAVOURITE, true, FIELD_NAME)
+            .doOnError(e -> log.error("OBSERVE_FAVOURITES-orderByName", e));
+    }
+
 }
@@ -3,27 +3,20 @@ package com.github.openwebnet.repository.impl;
 import com.annimon.stream.Stream;
 import com.github.openwebnet.component.Injector;
 import com.github.openwebnet.database.DatabaseRealm;
-import com.github.openwebnet.model.AutomationModel;
-import com.github.openwebnet.model.DeviceModel;
 import com.github.openwebnet.model.DomoticModel;
-import com.github.openwebnet.model.EnergyModel;
 import com.github.openwebnet.model.EnvironmentModel;
-import com.github.openwebnet.model.IpcamModel;
-import com.github.openwebnet.model.LightModel;
-import com.github.openwebnet.model.ScenarioModel;
-import com.github.openwebnet.model.SoundModel;
-import com.github.openwebnet.model.TemperatureModel;
 import com.github.openwebnet.repository.EnvironmentRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
+import io.realm.RealmObject;
 import rx.Observable;
+import rx.android.schedulers.AndroidSchedulers;
 
 import static com.google.common.base.Preconditions.checkState;
 
@@ -39,26 +32,30 @@ public class EnvironmentRepositoryImpl implements EnvironmentRepository {
         Injector.getApplicationComponent().inject(this);
     }
 
+    // single writer thread, the result is delivered on the main thread
+    private <T> Observable<T> write(Observable<T> observable) {
+        return observable
+            .subscribeOn(databaseRealm.getWriteScheduler())
+            .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    // a new block of ids is reserved with a write transaction
     @Override
     public Observable<Integer> getNextId() {
-        return Observable.create(subscriber -> {
+        return write(Observable.create(subscriber -> {
             try {
-                Number maxId = databaseRealm.findMax(EnvironmentModel.class, EnvironmentModel.FIELD_ID);
-                Integer lastId = maxId == null ? INITIAL_SEQ :
-                    new AtomicInteger(maxId.intValue()).incrementAndGet();
-
-                subscriber.onNext(lastId);
+                subscriber.onNext(databaseRealm.nextId(EnvironmentModel.class, EnvironmentModel.FIELD_ID, INITIAL_SEQ));
                 subscriber.onCompleted();
             } catch (Exception e) {
                 log.error("environment-NEXT_ID", e);
                 subscriber.onError(e);
             }
-        });
+        }));
     }
 
     @Override
     public Observable<Integer> add(EnvironmentModel environment) {
-        return Observable.create(subscriber -> {
+        return write(Observable.create(subscriber -> {
             try {
                 subscriber.onNext(databaseRealm.add(environment).getId());
                 subscriber.onCompleted();
@@ -66,12 +63,12 @@ public class EnvironmentRepositoryImpl implements EnvironmentRepository {
                 log.error("environment-ADD", e);
                 subscriber.onError(e);
             }
-        });
+        }));
     }
 
     @Override
     public Observable<List<Integer>> addAll(List<EnvironmentModel> environments) {
-        return Observable.create(subscriber -> {
+        return write(Observable.create(subscriber -> {
             try {
                 List<Integer> results = Stream
                     .of(databaseRealm.addAll(environments))
@@ -84,12 +81,12 @@ public class EnvironmentRepositoryImpl implements EnvironmentRepository {
                 log.error("environment-ADD_ALL", e);
                 subscriber.onError(e);
             }
-        });
+        }));
     }
 
     @Override
     public Observable<Void> update(EnvironmentModel environment) {
-        return Observable.create(subscriber -> {
+        return write(Observable.create(subscriber -> {
             try {
                 databaseRealm.update(environment);
                 subscriber.onNext(null);
@@ -98,7 +95,7 @@ public class EnvironmentRepositoryImpl implements EnvironmentRepository {
                 log.error("environment-UPDATE", e);
                 subscriber.onError(e);
             }
-        });
+        }));
     }
 
     @Override
@@ -133,32 +130,46 @@ public class EnvironmentRepositoryImpl implements EnvironmentRepository {
 
     @Override
     public Observable<Void> delete(Integer id) {
-        return Observable.create(subscriber -> {
+        return write(Observable.create(subscriber -> {
             try {
-                // TODO use reflections? https://github.com/openwebnet/openwebnet-android/pull/29
-                databaseRealm.delete(LightModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, id);
-                databaseRealm.delete(AutomationModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, id);
-                databaseRealm.delete(DeviceModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, id);
-                databaseRealm.delete(IpcamModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, id);
-                databaseRealm.delete(TemperatureModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, id);
-                databaseRealm.delete(ScenarioModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, id);
-                databaseRealm.delete(EnergyModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, id);
-                databaseRealm.delete(SoundModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, id);
-
-                databaseRealm.delete(EnvironmentModel.class, EnvironmentModel.FIELD_ID, id);
+                databaseRealm.execute(cascadeDelete(id));
                 subscriber.onNext(null);
                 subscriber.onCompleted();
             } catch (Exception e) {
                 log.error("environment-DELETE", e);
                 subscriber.onError(e);
             }
-        });
+        }));
     }
 
     @Override
     public Observable<Void> deleteAll() {
-        return findAll()
-            .flatMap(environmentModels -> Observable.from(environmentModels)
-                .flatMap(environmentModel -> delete(environmentModel.getId())));
+        return write(Observable.create(subscriber -> {
+            try {
+                // orphan devices are removed too, they are not visible anyway
+                DatabaseRealm.Batch batch = databaseRealm.newBatch();
+                for (Class<? extends RealmObject> clazz : databaseRealm.getModelClasses(DomoticModel.class)) {
+                    batch.deleteAll(clazz);
+                }
+                databaseRealm.execute(batch.deleteAll(EnvironmentModel.class));
+
+                subscriber.onNext(null);
+                subscriber.onCompleted();
+            } catch (Exception e) {
+                log.error("environment-DELETE_ALL", e);
+                subscriber.onError(e);
+            }
+        }));
+    }
+
+    /*
+     * One query per model class for all the environments, in a single transaction.
+     */
+    private DatabaseRealm.Batch cascadeDelete(Integer... ids) {
+        DatabaseRealm.Batch batch = databaseRealm.newBatch();
+        for (Class<? extends RealmObject> clazz : databaseRealm.getModelClasses(DomoticModel.class)) {
+            batch.deleteIn(clazz, DomoticModel.FIELD_ENVIRONMENT_ID, ids);
+        }
+        return batch.deleteIn(EnvironmentModel.class, EnvironmentModel.FIELD_ID, ids);
     }
 }
@@ -2,6 +2,7 @@ package com.github.openwebnet.repository.impl;
 
 import com.annimon.stream.Stream;
 import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.database.DatabaseRealm;
 import com.github.openwebnet.model.AutomationModel;
 import com.github.openwebnet.model.DeviceModel;
 import com.github.openwebnet.model.EnergyModel;
@@ -12,6 +13,7 @@ import com.github.openwebnet.model.LightModel;
 import com.github.openwebnet.model.ScenarioModel;
 import com.github.openwebnet.model.SoundModel;
 import com.github.openwebnet.model.TemperatureModel;
+import com.github.openwebnet.model.firestore.ProfileDelta;
 import com.github.openwebnet.model.firestore.ProfileInfoModel;
 import com.github.openwebnet.model.firestore.ProfileModel;
 import com.github.openwebnet.model.firestore.ProfileVersionModel;
@@ -35,14 +37,17 @@ import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.FirebaseFirestoreSettings;
 import com.google.firebase.firestore.SetOptions;
 import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.Transaction;
 import com.google.firebase.firestore.WriteBatch;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -52,6 +57,11 @@ import java.util.Map;
 import javax.inject.Inject;
 
 import rx.Observable;
+import rx.Subscriber;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.exceptions.Exceptions;
+import rx.functions.Action1;
+import rx.functions.Func1;
 
 public class FirestoreRepositoryImpl implements FirestoreRepository {
 
@@ -67,6 +77,17 @@ public class FirestoreRepositoryImpl implements FirestoreRepository {
     private static final String COLLECTION_SHARE_PROFILE = ENVIRONMENT + "share_profile";
     private static final String COLLECTION_SHARE_PROFILE_REQUESTS = "requests";
 
+    // close to the size limit of a document, each entry is stored with all the field names
+    private static final int COMPRESSION_MIN_ENTRIES = 500;
+
+    private static FirebaseFirestore firestore;
+
+    // the network of the firestore instance is global too
+    private static volatile boolean online = true;
+
+    @Inject
+    DatabaseRealm databaseRealm;
+
     @Inject
     AutomationRepository automationRepository;
 
@@ -101,37 +122,69 @@ public class FirestoreRepositoryImpl implements FirestoreRepository {
         Injector.getApplicationComponent().inject(this);
     }
 
-    private FirebaseFirestore getDb() {
-        FirebaseFirestore firestore = FirebaseFirestore.getInstance();
-        FirebaseFirestoreSettings settings = new FirebaseFirestoreSettings.Builder()
-            // warning
-            .setTimestampsInSnapshotsEnabled(true)
-            // cache
-            .setPersistenceEnabled(false)
-            .build();
-        firestore.setFirestoreSettings(settings);
+    // settings can be applied only once, before any other call
+    private static synchronized FirebaseFirestore getDb() {
+        if (firestore == null) {
+            firestore = FirebaseFirestore.getInstance();
+            FirebaseFirestoreSettings settings = new FirebaseFirestoreSettings.Builder()
+                // warning
+                .setTimestampsInSnapshotsEnabled(true)
+                // local cache and durable queue of the pending writes
+                .setPersistenceEnabled(true)
+                .build();
+            firestore.setFirestoreSettings(settings);
+        }
         return firestore;
     }
 
+    @Override
+    public void setOnline(boolean online) {
+        if (FirestoreRepositoryImpl.online == online) {
+            return;
+        }
+        FirestoreRepositoryImpl.online = online;
+        log.info("firestore network: online={}", online);
+        // offline the reads are served by the cache, online the pending writes are sent
+        (online ? getDb().enableNetwork() : getDb().disableNetwork())
+            .addOnFailureListener(e -> log.error("failed to change firestore network", e));
+    }
+
+    /*
+     * Offline the write is applied to the cache and queued: waiting for the server would block until reconnected.
+     */
+    static <T> void onWrite(boolean online, Task<Void> task, Subscriber<? super T> subscriber, T result, String description) {
+        if (!online) {
+            log.info("{}: queued offline", description);
+            task.addOnCompleteListener(completed ->
+                log.info("{}: synchronized success={}", description, completed.isSuccessful()));
+            subscriber.onNext(result);
+            subscriber.onCompleted();
+            return;
+        }
+        task
+            .addOnSuccessListener(aVoid -> {
+                log.info("{}: success", description);
+                subscriber.onNext(result);
+                subscriber.onCompleted();
+            })
+            .addOnFailureListener(e -> {
+                log.error("{}: failed", description, e);
+                subscriber.onError(e);
+            });
+    }
+
     @Override
     public Observable<Void> updateUser(UserModel user) {
         return Observable.create(subscriber -> {
             try {
                 log.info("updating user: userId={}", user.getUserId());
 
-                getDb()
+                Task<Void> task = getDb()
                     .collection(COLLECTION_USERS)
                     .document(user.getUserId())
-                    .set(user, SetOptions.merge())
-                    .addOnSuccessListener(aVoid -> {
-                        log.info("user updated with success");
-                        subscriber.onNext(null);
-                        subscriber.onCompleted();
-                    })
-                    .addOnFailureListener(e -> {
-                        log.error("failed to update user", e);
-                        subscriber.onError(e);
-                    });
+                    .set(user, SetOptions.merge());
+
+                onWrite(online, task, subscriber, null, "update user");
             } catch (Exception e) {
                 log.error("FirestoreRepository#updateUser", e);
                 subscriber.onError(e);
@@ -141,6 +194,21 @@ public class FirestoreRepositoryImpl implements FirestoreRepository {
 
     @Override
     public Observable<String> addProfile(UserModel user, String name) {
+        return getLocalProfile()
+            .map(profile -> {
+                if (profile.size() < COMPRESSION_MIN_ENTRIES) {
+                    return profile;
+                }
+                try {
+                    return profile.compress();
+                } catch (IOException e) {
+                    throw Exceptions.propagate(e);
+                }
+            })
+            .flatMap(profile -> addProfile(user.getUserId(), name, profile));
+    }
+
+    private Observable<ProfileModel> getLocalProfile() {
 
         List<Observable<?>> findAll = Lists.newArrayList(
             automationRepository.findAll(),
@@ -169,12 +237,110 @@ public class FirestoreRepositoryImpl implements FirestoreRepository {
                 .scenarios((List<ScenarioModel>) results[7])
                 .sounds((List<SoundModel>) results[8])
                 .temperatures((List<TemperatureModel>) results[9])
-                .build())
-            .flatMap(profile -> addProfile(user.getUserId(), name, profile));
+                .build());
+    }
+
+    @Override
+    public Observable<Integer> updateProfile(String userId, DocumentReference profileRef) {
+        return Observable.zip(getProfile(profileRef), getLocalProfile(), (previous, current) -> {
+            ProfileDelta delta = ProfileDelta.between(previous, current);
+            if (previous.getVersion().getPayloadEncoding() == ProfileVersionModel.PayloadEncoding.DEFLATE) {
+                return updateCompressedProfile(profileRef, current, delta);
+            }
+            // the transaction on the user requires the server: migrated the next time online
+            if (online && current.size() >= COMPRESSION_MIN_ENTRIES) {
+                return migrateCompressedProfile(userId, profileRef, current, delta);
+            }
+            return updateProfile(profileRef, delta);
+        })
+            .flatMap(update -> update);
+    }
+
+    /*
+     * The version of the user profile and the blob are written in the same transaction:
+     * older versions refuse the profile instead of reading a blob they can't decode,
+     * and a failed migration leaves the maps readable and is retried on the next update.
+     */
+    private Observable<Integer> migrateCompressedProfile(String userId, DocumentReference profileRef,
+                                                         ProfileModel profile, ProfileDelta delta) {
+        return Observable.defer(() -> {
+            log.info("migrating profile to {}: profileRef={} entries={}",
+                ProfileVersionModel.PayloadEncoding.DEFLATE, profileRef.getPath(), profile.size());
+            ProfileModel compressed;
+            try {
+                compressed = profile.compress();
+            } catch (IOException e) {
+                log.error("FirestoreRepository#migrateCompressedProfile", e);
+                return Observable.error(e);
+            }
+            DocumentReference documentRef = getDb().collection(COLLECTION_PROFILES).document(profileRef.getId());
+
+            return updateUserProfile(userId, profileRef, userProfileMap -> UserProfileModel
+                .getBuilder(userProfileMap)
+                .version(ProfileVersionModel.PayloadEncoding.DEFLATE.getDatabaseFirestoreVersion())
+                .modifiedAt(new Date())
+                .build()
+                .toMap(), transaction -> transaction.set(documentRef, compressed));
+        })
+            .map(aVoid -> delta.size());
+    }
+
+    // a single blob can't be patched: it's rewritten only if there are changes
+    private Observable<Integer> updateCompressedProfile(DocumentReference profileRef, ProfileModel profile, ProfileDelta delta) {
+        return Observable.create(subscriber -> {
+            try {
+                log.info("updating compressed profile: profileRef={} changes={}", profileRef.getPath(), delta.size());
+                if (delta.isEmpty()) {
+                    subscriber.onNext(0);
+                    subscriber.onCompleted();
+                    return;
+                }
+
+                Task<Void> task = getDb()
+                    .collection(COLLECTION_PROFILES)
+                    .document(profileRef.getId())
+                    .set(profile.compress());
+
+                onWrite(online, task, subscriber, delta.size(), "update compressed profile");
+            } catch (Exception e) {
+                log.error("FirestoreRepository#updateCompressedProfile", e);
+                subscriber.onError(e);
+            }
+        });
+    }
+
+    // only the entries changed since the last synced version are uploaded
+    private Observable<Integer> updateProfile(DocumentReference profileRef, ProfileDelta delta) {
+        return Observable.create(subscriber -> {
+            try {
+                log.info("updating profile: profileRef={} changes={}", profileRef.getPath(), delta.size());
+                if (delta.isEmpty()) {
+                    subscriber.onNext(0);
+                    subscriber.onCompleted();
+                    return;
+                }
+
+                FirebaseFirestore db = getDb();
+                WriteBatch batch = db.batch();
+                DocumentReference documentRef = db.collection(COLLECTION_PROFILES).document(profileRef.getId());
+
+                // a field can't be transformed twice in the same update: removed before added
+                for (Map.Entry<String, List<Map<String, Object>>> removed : delta.getRemoved().entrySet()) {
+                    batch.update(documentRef, removed.getKey(), FieldValue.arrayRemove(removed.getValue().toArray()));
+                }
+                for (Map.Entry<String, List<Map<String, Object>>> added : delta.getAdded().entrySet()) {
+                    batch.update(documentRef, added.getKey(), FieldValue.arrayUnion(added.getValue().toArray()));
+                }
+                batch.update(documentRef, ProfileModel.FIELD_VERSION, ProfileVersionModel.newInstance());
+
+                onWrite(online, batch.commit(), subscriber, delta.size(), "update profile");
+            } catch (Exception e) {
+                log.error("FirestoreRepository#updateProfile", e);
+                subscriber.onError(e);
+            }
+        });
     }
 
-    // issue: if there are too many DELETED profiles
-    // user might be blocked to add more due to maxProfile restriction
     private Observable<String> addProfile(String userId, String name, ProfileModel profile) {
         return Observable.create(subscriber -> {
             try {
@@ -185,8 +351,10 @@ public class FirestoreRepositoryImpl implements FirestoreRepository {
                 DocumentReference profileRef = db.collection(COLLECTION_PROFILES).document();
                 batch.set(profileRef, profile, SetOptions.merge());
 
+                // older versions can still read the profiles stored as maps
                 UserProfileModel userProfile = UserProfileModel
                     .addBuilder()
+                    .version(profile.getVersion().getPayloadEncoding().getDatabaseFirestoreVersion())
                     .profileRef(profileRef)
                     .name(name)
                     .build();
@@ -206,16 +374,7 @@ public class FirestoreRepositoryImpl implements FirestoreRepository {
                 DocumentReference profileInfoRef = db.collection(COLLECTION_PROFILES_INFO).document(profileKey);
                 batch.set(profileInfoRef, profileInfo, SetOptions.merge());
 
-                batch.commit()
-                    .addOnSuccessListener(aVoid -> {
-                        log.info("profile added with success");
-                        subscriber.onNext(profileRef.getPath());
-                        subscriber.onCompleted();
-                    })
-                    .addOnFailureListener(e -> {
-                        log.error("failed to add profile", e);
-                        subscriber.onError(e);
-                    });
+                onWrite(online, batch.commit(), subscriber, profileRef.getPath(), "add profile");
             } catch (Exception e) {
                 log.error("FirestoreRepository#addProfile", e);
                 subscriber.onError(e);
@@ -281,9 +440,14 @@ public class FirestoreRepositoryImpl implements FirestoreRepository {
                     .get()
                     .addOnSuccessListener(documentSnapshot -> {
                         log.info("profile retrieved with success");
-                        ProfileModel profileModel = documentSnapshot.toObject(ProfileModel.class);
-                        subscriber.onNext(profileModel);
-                        subscriber.onCompleted();
+                        try {
+                            ProfileModel profileModel = documentSnapshot.toObject(ProfileModel.class).decompress();
+                            subscriber.onNext(profileModel);
+                            subscriber.onCompleted();
+                        } catch (IOException e) {
+                            log.error("failed to decompress profile", e);
+                            subscriber.onError(e);
+                        }
                     })
                     .addOnFailureListener(e -> {
                         log.error("failed to retrieve profile", e);
@@ -298,60 +462,62 @@ public class FirestoreRepositoryImpl implements FirestoreRepository {
     }
 
     @Override
-    public Observable<List<Integer>> applyProfile(ProfileModel profile) {
-        ProfileVersionModel version = profile.getVersion();
-
-        List<Observable<?>> addAll = Lists.newArrayList(
-            automationRepository.addAll(Stream.of(profile.getAutomations())
-                .map(automationMap -> AutomationModel.newInstance(automationMap, version)).toList()),
-            deviceRepository.addAll(Stream.of(profile.getDevices())
-                .map(deviceMap -> DeviceModel.newInstance(deviceMap, version)).toList()),
-            energyRepository.addAll(Stream.of(profile.getEnergies())
-                .map(energyMap -> EnergyModel.newInstance(energyMap, version)).toList()),
-            environmentRepository.addAll(Stream.of(profile.getEnvironments())
-                .map(environmentMap -> EnvironmentModel.newInstance(environmentMap, version)).toList()),
-            gatewayRepository.addAll(Stream.of(profile.getGateways())
-                .map(gatewayMap -> GatewayModel.newInstance(gatewayMap, version)).toList()),
-            ipcamRepository.addAll(Stream.of(profile.getIpcams())
-                .map(ipcamMap -> IpcamModel.newInstance(ipcamMap, version)).toList()),
-            lightRepository.addAll(Stream.of(profile.getLights())
-                .map(lightMap -> LightModel.newInstance(lightMap, version)).toList()),
-            scenarioRepository.addAll(Stream.of(profile.getScenarios())
-                .map(scenarioMap -> ScenarioModel.newInstance(scenarioMap, version)).toList()),
-            soundRepository.addAll(Stream.of(profile.getSounds())
-                .map(soundMap -> SoundModel.newInstance(soundMap, version)).toList()),
-            temperatureRepository.addAll(Stream.of(profile.getTemperatures())
-                .map(temperatureMap -> TemperatureModel.newInstance(temperatureMap, version)).toList())
-        );
-
-        // count of each model
-        return Observable.zip(addAll, results -> Stream.of(results)
-            .map(object -> ((List<?>) object).size()).toList());
+    public Observable<Integer> applyProfile(ProfileModel profile) {
+        return Observable.<Integer>create(subscriber -> {
+            try {
+                ProfileVersionModel version = profile.getVersion();
+
+                // all or nothing: a partial profile is never applied
+                DatabaseRealm.Batch batch = databaseRealm.newBatch()
+                    .addAll(AutomationModel.class, profile.getAutomations(),
+                        automationMap -> AutomationModel.newInstance(automationMap, version))
+                    .addAll(DeviceModel.class, profile.getDevices(),
+                        deviceMap -> DeviceModel.newInstance(deviceMap, version))
+                    .addAll(EnergyModel.class, profile.getEnergies(),
+                        energyMap -> EnergyModel.newInstance(energyMap, version))
+                    .addAll(EnvironmentModel.class, profile.getEnvironments(),
+                        environmentMap -> EnvironmentModel.newInstance(environmentMap, version))
+                    .addAll(GatewayModel.class, profile.getGateways(),
+                        gatewayMap -> GatewayModel.newInstance(gatewayMap, version))
+                    .addAll(IpcamModel.class, profile.getIpcams(),
+                        ipcamMap -> IpcamModel.newInstance(ipcamMap, version))
+                    .addAll(LightModel.class, profile.getLights(),
+                        lightMap -> LightModel.newInstance(lightMap, version))
+                    .addAll(ScenarioModel.class, profile.getScenarios(),
+                        scenarioMap -> ScenarioModel.newInstance(scenarioMap, version))
+                    .addAll(SoundModel.class, profile.getSounds(),
+                        soundMap -> SoundModel.newInstance(soundMap, version))
+                    .addAll(TemperatureModel.class, profile.getTemperatures(),
+                        temperatureMap -> TemperatureModel.newInstance(temperatureMap, version));
+
+                int total = profile.size();
+                log.info("applying profile: entries={}", total);
+
+                // 100 only after the commit
+                databaseRealm.execute(batch.onProgress(written -> subscriber.onNext(Math.min(99, written * 100 / total))));
+
+                subscriber.onNext(100);
+                subscriber.onCompleted();
+            } catch (Exception e) {
+                log.error("FirestoreRepository#applyProfile", e);
+                subscriber.onError(e);
+            }
+        })
+            // single writer thread
+            .subscribeOn(databaseRealm.getWriteScheduler())
+            .observeOn(AndroidSchedulers.mainThread())
+            .distinctUntilChanged();
     }
 
     @Override
     public Observable<Void> renameProfile(String userId, DocumentReference profileRef, String name) {
-        return getProfiles(userId)
-            .flatMap(userProfiles -> {
-                log.info("rename user profile: userId={} profileRef={} name={}", userId, profileRef.getPath(), name);
-
-                List<UserProfileModel> updatedUserProfiles = Stream
-                    .of(userProfiles)
-                    .map(userProfile -> {
-                        // update name
-                        if (userProfile.getProfileRef().getPath().equals(profileRef.getPath())) {
-                            return UserProfileModel
-                                .getBuilder(userProfile.toMap())
-                                .name(name)
-                                .modifiedAt(new Date())
-                                .build();
-                        }
-                        return userProfile;
-                    })
-                    .toList();
-
-                return updateUserProfile(userId, updatedUserProfiles);
-            });
+        log.info("rename user profile: userId={} profileRef={} name={}", userId, profileRef.getPath(), name);
+        return updateUserProfile(userId, profileRef, userProfileMap -> UserProfileModel
+            .getBuilder(userProfileMap)
+            .name(name)
+            .modifiedAt(new Date())
+            .build()
+            .toMap());
     }
 
     // immutable append-only
@@ -406,43 +572,61 @@ public class FirestoreRepositoryImpl implements FirestoreRepository {
         });
     }
 
+    // the entry is removed: the shared profile is still referenced by profiles_info
     @Override
     public Observable<Void> deleteProfile(String userId, DocumentReference profileRef) {
-        return getProfiles(userId)
-            .flatMap(userProfiles -> {
-                log.info("delete user profile: userId={} profileRef={}", userId, profileRef.getPath());
-
-                List<UserProfileModel> updatedUserProfiles = Stream
-                    .of(userProfiles)
-                    .map(userProfile -> {
-                        // update status
-                        if (userProfile.getProfileRef().getPath().equals(profileRef.getPath())) {
-                            return UserProfileModel
-                                .getBuilder(userProfile.toMap())
-                                .status(UserProfileModel.Status.DELETED)
-                                .modifiedAt(new Date())
-                                .build();
-                        }
-                        return userProfile;
-                    })
-                    .toList();
+        log.info("delete user profile: userId={} profileRef={}", userId, profileRef.getPath());
+        return updateUserProfile(userId, profileRef, userProfileMap -> null);
+    }
 
-                return updateUserProfile(userId, updatedUserProfiles);
-            });
+    /*
+     * Single read and write of the user document in a transaction, retried by firestore on concurrent changes:
+     * only the entry of the profile is replaced, or removed if the update returns null, the others are
+     * written back as read. The DELETED entries of the previous versions are compacted, they only count
+     * against the max number of profiles.
+     *
+     * Transactions require the server, they fail when offline.
+     */
+    private Observable<Void> updateUserProfile(String userId, DocumentReference profileRef,
+                                               Func1<Map<String, Object>, Map<String, Object>> update) {
+        return updateUserProfile(userId, profileRef, update, transaction -> {});
     }
 
-    private Observable<Void> updateUserProfile(String userId, List<UserProfileModel> userProfiles) {
+    // the other writes are committed, or discarded, together with the user profile
+    private Observable<Void> updateUserProfile(String userId, DocumentReference profileRef,
+                                               Func1<Map<String, Object>, Map<String, Object>> update,
+                                               Action1<Transaction> writes) {
         return Observable.create(subscriber -> {
             try {
-                log.info("updating user profile: new size={}", userProfiles.size());
+                FirebaseFirestore db = getDb();
+                DocumentReference userRef = db.collection(COLLECTION_USERS).document(userId);
 
-                List<Map<String, Object>> userProfilesMap =
-                    Stream.of(userProfiles).map(UserProfileModel::toMap).toList();
+                db.runTransaction(transaction -> {
+                    DocumentSnapshot document = transaction.get(userRef);
+                    if (!userHasProfiles(document)) {
+                        throw new FirebaseFirestoreException("user profiles not found", FirebaseFirestoreException.Code.NOT_FOUND);
+                    }
 
-                getDb()
-                    .collection(COLLECTION_USERS)
-                    .document(userId)
-                    .update(COLLECTION_USER_PROFILES, userProfilesMap)
+                    List<Map<String, Object>> userProfilesMap = new ArrayList<>();
+                    int compacted = 0;
+                    for (Map<String, Object> userProfileMap : (List<Map<String, Object>>) document.getData().get(COLLECTION_USER_PROFILES)) {
+                        if (UserProfileModel.Status.DELETED.name().equals(userProfileMap.get(UserProfileModel.FIELD_STATUS))) {
+                            compacted++;
+                        } else if (((DocumentReference) userProfileMap.get(UserProfileModel.FIELD_PROFILE_REF)).getPath().equals(profileRef.getPath())) {
+                            Map<String, Object> updatedUserProfileMap = update.call(userProfileMap);
+                            if (updatedUserProfileMap != null) {
+                                userProfilesMap.add(updatedUserProfileMap);
+                            }
+                        } else {
+                            userProfilesMap.add(userProfileMap);
+                        }
+                    }
+                    log.info("updating user profile: new size={} compacted={}", userProfilesMap.size(), compacted);
+
+                    transaction.update(userRef, COLLECTION_USER_PROFILES, userProfilesMap);
+                    writes.call(transaction);
+                    return null;
+                })
                     .addOnSuccessListener(aVoid -> {
                         log.info("user profile updated with success");
                         subscriber.onNext(null);
@@ -0,0 +1,123 @@
+package com.github.openwebnet.repository.impl;
+
+import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.database.DatabaseRealm;
+import com.github.openwebnet.database.DatabaseRealmConfig;
+import com.github.openwebnet.model.codec.ModelCodec;
+import com.github.openwebnet.model.codec.ModelCodecs;
+import com.github.openwebnet.model.codec.ProfileCodec;
+import com.github.openwebnet.repository.SnapshotRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.inject.Inject;
+
+import io.realm.RealmObject;
+import rx.Observable;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.exceptions.Exceptions;
+
+/**
+ * Snapshots are gzipped {@link ProfileCodec} streams of every model class.
+ *
+ * Both directions run on the writer thread: the export is never interleaved with a write
+ * and the rows are read a page at a time, the import is a single transaction.
+ */
+public class SnapshotRepositoryImpl implements SnapshotRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotRepositoryImpl.class);
+
+    private static final int PAGE_SIZE = 100;
+
+    @Inject
+    DatabaseRealm databaseRealm;
+
+    public SnapshotRepositoryImpl() {
+        Injector.getApplicationComponent().inject(this);
+    }
+
+    @Override
+    public Observable<Integer> exportSnapshot(OutputStream outputStream) {
+        return Observable.fromCallable(() -> {
+            int total = 0;
+            // the raw stream is closed even if the writer can't be created
+            try (OutputStream output = outputStream;
+                 ProfileCodec.Writer writer = ProfileCodec.newWriter(new GZIPOutputStream(output),
+                    DatabaseRealmConfig.DATABASE_VERSION)) {
+                for (ModelCodec<? extends RealmObject> codec : ModelCodecs.ALL) {
+                    total += exportAll(writer, codec.getModelClass());
+                }
+            }
+            log.info("snapshot exported: entries={}", total);
+            return total;
+        })
+            // single writer thread
+            .subscribeOn(databaseRealm.getWriteScheduler())
+            .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    private <T extends RealmObject> int exportAll(ProfileCodec.Writer writer, Class<T> clazz) throws IOException {
+        int size = (int) databaseRealm.query(clazz).count();
+        writer.section(clazz, size);
+        for (int page = 0; page * PAGE_SIZE < size; page++) {
+            for (T model : databaseRealm.query(clazz).page(page, PAGE_SIZE).findCopy()) {
+                writer.write(model);
+            }
+        }
+        log.debug("snapshot section exported: {} entries={}", clazz.getSimpleName(), size);
+        return size;
+    }
+
+    @Override
+    public Observable<Integer> importSnapshot(InputStream inputStream) {
+        return Observable.fromCallable(() -> {
+            // the raw stream is closed even if the header is invalid
+            try (InputStream input = inputStream;
+                 ProfileCodec.Reader reader = ProfileCodec.newReader(new GZIPInputStream(input))) {
+                if (reader.getDatabaseRealmVersion() > DatabaseRealmConfig.DATABASE_VERSION) {
+                    throw new IOException("snapshot of a newer version: " + reader.getDatabaseRealmVersion());
+                }
+
+                List<Class<? extends RealmObject>> classes = new ArrayList<>();
+                DatabaseRealm.Batch batch = databaseRealm.newBatch();
+                for (ModelCodec<? extends RealmObject> codec : ModelCodecs.ALL) {
+                    classes.add(codec.getModelClass());
+                    batch.deleteAll(codec.getModelClass());
+                }
+
+                int[] total = new int[1];
+                batch.addAll(classes, () -> {
+                    try {
+                        while (!reader.hasNext()) {
+                            if (!reader.nextSection()) {
+                                return null;
+                            }
+                        }
+                        total[0]++;
+                        return reader.next();
+                    } catch (IOException e) {
+                        throw Exceptions.propagate(e);
+                    }
+                });
+
+                // all or nothing: a truncated snapshot is rolled back
+                databaseRealm.execute(batch);
+                log.info("snapshot imported: entries={}", total[0]);
+                return total[0];
+            }
+        })
+            // single writer thread
+            .subscribeOn(databaseRealm.getWriteScheduler())
+            .observeOn(AndroidSchedulers.mainThread());
+    }
+
+}
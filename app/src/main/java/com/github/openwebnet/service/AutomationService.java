@@ -12,6 +12,8 @@ public interface AutomationService extends DomoticService<AutomationModel> {
 
     Observable<List<AutomationModel>> requestFavourites();
 
+    Observable<AutomationModel> requestStatus(AutomationModel automation);
+
     Observable<AutomationModel> stop(AutomationModel automation);
 
     Observable<AutomationModel> moveUp(AutomationModel automation);
@@ -2,7 +2,13 @@ package com.github.openwebnet.service;
 
 import android.support.v7.app.AppCompatActivity;
 
+import com.github.niqdev.openwebnet.OpenSession;
 import com.github.niqdev.openwebnet.OpenWebNet;
+import com.github.niqdev.openwebnet.message.OpenMessage;
+
+import java.util.List;
+
+import rx.Observable;
 
 public interface CommonService {
 
@@ -10,6 +16,16 @@ public interface CommonService {
 
     OpenWebNet findClient(String gatewayUuid);
 
+    Observable<OpenSession> send(String gatewayUuid, OpenMessage request);
+
+    Observable<List<OpenSession>> send(String gatewayUuid, List<OpenMessage> requests);
+
+    GatewayStats getGatewayStats(String gatewayUuid);
+
+    void invalidateClient(String gatewayUuid);
+
+    void invalidateClients();
+
     String getDefaultGateway();
 
 }
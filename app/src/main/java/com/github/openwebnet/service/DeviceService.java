@@ -12,6 +12,8 @@ public interface DeviceService extends DomoticService<DeviceModel> {
 
     Observable<List<DeviceModel>> requestFavourites();
 
+    Observable<DeviceModel> requestStatus(DeviceModel device);
+
     Observable<DeviceModel> sendRequest(DeviceModel device);
 
 }
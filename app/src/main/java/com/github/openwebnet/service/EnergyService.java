@@ -12,4 +12,6 @@ public interface EnergyService extends DomoticService<EnergyModel> {
 
     Observable<List<EnergyModel>> requestFavourites();
 
+    Observable<EnergyModel> requestStatus(EnergyModel energy);
+
 }
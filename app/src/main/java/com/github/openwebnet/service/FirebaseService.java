@@ -21,13 +21,20 @@ public interface FirebaseService {
 
     String getUserPhotoUrl();
 
+    void setOnline(boolean online);
+
     Observable<Void> updateUser();
 
     Observable<String> addProfile(String name);
 
+    Observable<Integer> updateProfile(DocumentReference profileRef);
+
     Observable<List<UserProfileModel>> getProfiles();
 
-    Observable<Void> switchProfile(DocumentReference profileRef);
+    /**
+     * @return progress percentage, 100 once the profile is applied
+     */
+    Observable<Integer> switchProfile(DocumentReference profileRef);
 
     Observable<Void> renameProfile(DocumentReference profileRef, String name);
 
@@ -0,0 +1,45 @@
+package com.github.openwebnet.service;
+
+/**
+ * Snapshot of the request queue of a gateway.
+ */
+public final class GatewayStats {
+
+    private final String gatewayUuid;
+    private final int inFlight;
+    private final int queueDepth;
+    private final int maxQueueDepth;
+
+    public GatewayStats(String gatewayUuid, int inFlight, int queueDepth, int maxQueueDepth) {
+        this.gatewayUuid = gatewayUuid;
+        this.inFlight = inFlight;
+        this.queueDepth = queueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    public String getGatewayUuid() {
+        return gatewayUuid;
+    }
+
+    // bursts waiting for a response
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    // frames waiting for a free session
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    // highest queue depth since the session was opened
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("gateway=%s [inFlight=%d|queued=%d|maxQueued=%d]",
+            gatewayUuid, inFlight, queueDepth, maxQueueDepth);
+    }
+
+}
@@ -12,6 +12,8 @@ public interface LightService extends DomoticService<LightModel> {
 
     Observable<List<LightModel>> requestFavourites();
 
+    Observable<LightModel> requestStatus(LightModel light);
+
     Observable<LightModel> turnOn(LightModel light);
 
     Observable<LightModel> turnOff(LightModel light);
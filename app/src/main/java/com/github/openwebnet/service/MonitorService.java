@@ -0,0 +1,25 @@
+package com.github.openwebnet.service;
+
+import com.github.openwebnet.model.DomoticModel;
+
+import rx.Observable;
+
+public interface MonitorService {
+
+    /*
+     * Emits the uuid of a gateway each time one of its devices changes state.
+     * The event sessions are open only while there is at least one subscriber.
+     */
+    Observable<String> observe();
+
+    /*
+     * The gateways are changed: the open event sessions are replaced.
+     */
+    void reload();
+
+    /*
+     * Applies the last monitored state, returns true if the model has changed.
+     */
+    boolean update(DomoticModel model);
+
+}
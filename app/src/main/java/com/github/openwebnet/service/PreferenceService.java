@@ -20,6 +20,10 @@ public interface PreferenceService {
 
     String getDefaultGateway();
 
+    int getGatewayMaxRequests();
+
+    int getGatewayStateCacheSeconds();
+
     TemperatureScale getDefaultTemperatureScale();
 
     boolean isDeviceDebugEnabled();
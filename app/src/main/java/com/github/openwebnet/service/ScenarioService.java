@@ -12,6 +12,8 @@ public interface ScenarioService extends DomoticService<ScenarioModel> {
 
     Observable<List<ScenarioModel>> requestFavourites();
 
+    Observable<ScenarioModel> requestStatus(ScenarioModel scenario);
+
     Observable<ScenarioModel> start(ScenarioModel scenario);
 
     Observable<ScenarioModel> stop(ScenarioModel scenario);
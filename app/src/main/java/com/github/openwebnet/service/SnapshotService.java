@@ -0,0 +1,21 @@
+package com.github.openwebnet.service;
+
+import android.net.Uri;
+
+import rx.Observable;
+
+public interface SnapshotService {
+
+    /**
+     * @return number of entries exported
+     */
+    Observable<Integer> exportSnapshot(Uri uri);
+
+    /**
+     * Replaces the whole configuration.
+     *
+     * @return number of entries imported
+     */
+    Observable<Integer> importSnapshot(Uri uri);
+
+}
@@ -12,6 +12,8 @@ public interface SoundService extends DomoticService<SoundModel> {
 
     Observable<List<SoundModel>> requestFavourites();
 
+    Observable<SoundModel> requestStatus(SoundModel sound);
+
     Observable<SoundModel> turnOn(SoundModel sound);
 
     Observable<SoundModel> turnOff(SoundModel sound);
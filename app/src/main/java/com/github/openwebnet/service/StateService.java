@@ -0,0 +1,28 @@
+package com.github.openwebnet.service;
+
+import com.github.openwebnet.model.DomoticModel;
+
+import rx.Observable;
+import rx.functions.Func1;
+
+public interface StateService {
+
+    /*
+     * Wraps a status request: a fresh state is restored without sending the request,
+     * a stale state is restored immediately and revalidated in background.
+     */
+    <M extends DomoticModel> Func1<M, Observable<M>> cached(Func1<M, Observable<M>> request);
+
+    /*
+     * Stores the state just read from the gateway, an unknown state is removed.
+     */
+    void put(DomoticModel model);
+
+    void invalidate();
+
+    /*
+     * Emits the uuid of a device each time its state is revalidated in background.
+     */
+    Observable<String> revalidated();
+
+}
@@ -12,4 +12,6 @@ public interface TemperatureService extends DomoticService<TemperatureModel> {
 
     Observable<List<TemperatureModel>> requestFavourites();
 
+    Observable<TemperatureModel> requestStatus(TemperatureModel temperature);
+
 }
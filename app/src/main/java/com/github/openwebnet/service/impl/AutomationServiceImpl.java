@@ -9,6 +9,7 @@ import com.github.openwebnet.model.AutomationModel.Status;
 import com.github.openwebnet.repository.AutomationRepository;
 import com.github.openwebnet.service.AutomationService;
 import com.github.openwebnet.service.CommonService;
+import com.github.openwebnet.service.StateService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +24,6 @@ import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Func1;
 import rx.functions.Func2;
 import rx.functions.Func3;
-import rx.schedulers.Schedulers;
 
 import static com.github.openwebnet.model.AutomationModel.Status.DOWN;
 import static com.github.openwebnet.model.AutomationModel.Status.STOP;
@@ -39,6 +39,9 @@ public class AutomationServiceImpl implements AutomationService {
     @Inject
     CommonService commonService;
 
+    @Inject
+    StateService stateService;
+
     public AutomationServiceImpl() {
         Injector.getApplicationComponent().inject(this);
     }
@@ -82,7 +85,7 @@ public class AutomationServiceImpl implements AutomationService {
     public Observable<List<AutomationModel>> requestByEnvironment(Integer id) {
         return findByEnvironment(id)
             .flatMapIterable(automationModels -> automationModels)
-            .flatMap(requestAutomation(Automation::requestStatus, handleStatus))
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
@@ -90,10 +93,15 @@ public class AutomationServiceImpl implements AutomationService {
     public Observable<List<AutomationModel>> requestFavourites() {
         return findFavourites()
             .flatMapIterable(automationModels -> automationModels)
-            .flatMap(requestAutomation(Automation::requestStatus, handleStatus))
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
+    @Override
+    public Observable<AutomationModel> requestStatus(AutomationModel automation) {
+        return stateService.cached(requestAutomation(Automation::requestStatus, handleStatus)).call(automation);
+    }
+
     private Func2<OpenSession, AutomationModel, AutomationModel> handleResponse(Status status) {
         return (openSession, automation) -> {
             Automation.handleResponse(() ->
@@ -120,11 +128,11 @@ public class AutomationServiceImpl implements AutomationService {
     private Func1<AutomationModel, Observable<AutomationModel>> requestAutomation(
         Func3<String, Automation.Type, String, Automation> request, Func2<OpenSession, AutomationModel, AutomationModel> handler) {
 
-        return automation -> commonService.findClient(automation.getGatewayUuid())
-            .send(request.call(automation.getWhere(), automation.getAutomationType(), automation.getBus()))
-            .subscribeOn(Schedulers.io())
+        return automation -> commonService
+            .send(automation.getGatewayUuid(), request.call(automation.getWhere(), automation.getAutomationType(), automation.getBus()))
             .observeOn(AndroidSchedulers.mainThread())
             .map(openSession -> handler.call(openSession, automation))
+            .doOnNext(stateService::put)
             .onErrorReturn(throwable -> {
                 log.warn("automation={} | failing request={}", automation.getUuid(),
                     request.call(automation.getWhere(), automation.getAutomationType(), automation.getBus()).getValue());
@@ -3,23 +3,36 @@ package com.github.openwebnet.service.impl;
 import android.content.Context;
 import android.support.v7.app.AppCompatActivity;
 
+import com.github.niqdev.openwebnet.OpenSession;
 import com.github.niqdev.openwebnet.OpenWebNet;
+import com.github.niqdev.openwebnet.message.OpenMessage;
 import com.github.openwebnet.R;
 import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.model.GatewayModel;
 import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.EnvironmentService;
 import com.github.openwebnet.service.GatewayService;
+import com.github.openwebnet.service.GatewayStats;
+import com.github.openwebnet.service.MonitorService;
 import com.github.openwebnet.service.PreferenceService;
 import com.github.openwebnet.service.UtilityService;
 import com.github.openwebnet.view.ChangeLogDialogFragment;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
 import static com.github.niqdev.openwebnet.OpenWebNet.gateway;
 import static com.github.niqdev.openwebnet.OpenWebNet.newClient;
 
@@ -27,7 +40,8 @@ public class CommonServiceImpl implements CommonService {
 
     private static final Logger log = LoggerFactory.getLogger(CommonService.class);
 
-    private HashMap<String, OpenWebNet> CLIENT_CACHE;
+    // unused sessions are evicted and rebuilt on demand
+    private static final long SESSION_IDLE_MINUTES = 30;
 
     @Inject
     PreferenceService preferenceService;
@@ -41,11 +55,29 @@ public class CommonServiceImpl implements CommonService {
     @Inject
     GatewayService gatewayService;
 
+    @Inject
+    MonitorService monitorService;
+
     @Inject
     Context mContext;
 
+    // thread-safe: concurrent misses on the same gateway are loaded only once
+    private final LoadingCache<String, GatewaySession> sessionCache;
+
     public CommonServiceImpl() {
         Injector.getApplicationComponent().inject(this);
+
+        this.sessionCache = CacheBuilder.newBuilder()
+            .expireAfterAccess(SESSION_IDLE_MINUTES, TimeUnit.MINUTES)
+            .removalListener(notification ->
+                log.info("session removed: {} [cause={}]", notification.getKey(), notification.getCause()))
+            .build(new CacheLoader<String, GatewaySession>() {
+                @Override
+                public GatewaySession load(String gatewayUuid) {
+                    // blocking - caller thread
+                    return newGatewaySession(gatewayService.findById(gatewayUuid).toBlocking().first());
+                }
+            });
     }
 
     @Override
@@ -61,25 +93,95 @@ public class CommonServiceImpl implements CommonService {
             ChangeLogDialogFragment.show(activity);
             preferenceService.initVersion();
         }
-        CLIENT_CACHE = new HashMap<>();
+        warmUpClients();
+    }
+
+    /*
+     * Avoid the blocking database lookup on the first status request of each gateway.
+     * Through the loader: the gateway is read again, an invalidated session is never put back.
+     */
+    private void warmUpClients() {
+        gatewayService.findAll()
+            .subscribeOn(Schedulers.io())
+            .flatMapIterable(gateways -> gateways)
+            .map(GatewayModel::getUuid)
+            .observeOn(Schedulers.io())
+            .subscribe(
+                this::findClient,
+                throwable -> log.error("warmUpClients", throwable));
+    }
+
+    private GatewaySession newGatewaySession(GatewayModel gatewayModel) {
+        OpenWebNet.OpenGateway gateway = gateway(
+            gatewayModel.getHost(),
+            gatewayModel.getPort(),
+            gatewayModel.getPasswordNullable());
+        log.info("new session cached: {}", gatewayModel.getUuid());
+        return new GatewaySession(gatewayModel.getUuid(), newClient(gateway),
+            preferenceService::getGatewayMaxRequests);
     }
 
-    // TODO clean cache always when add/update/delete gateway
+    /*
+     * Returns null if the gateway doesn't exist.
+     */
     @Override
     public OpenWebNet findClient(String gatewayUuid) {
-        if (!CLIENT_CACHE.containsKey(gatewayUuid)) {
-            // blocking - same thread
-            gatewayService.findById(gatewayUuid).subscribe(gatewayModel -> {
-                OpenWebNet.OpenGateway gateway = gateway(
-                    gatewayModel.getHost(),
-                    gatewayModel.getPort(),
-                    gatewayModel.getPasswordNullable());
-                OpenWebNet client = newClient(gateway);
-                CLIENT_CACHE.put(gatewayUuid, client);
-                log.info("new client cached: {}", gatewayUuid);
-            });
+        try {
+            return sessionCache.getUnchecked(gatewayUuid).getClient();
+        } catch (UncheckedExecutionException e) {
+            log.error("gateway={} | client not found", gatewayUuid, e.getCause());
+            return null;
         }
-        return CLIENT_CACHE.get(gatewayUuid);
+    }
+
+    /*
+     * The session lookup can block on the database: never on the caller thread, usually the main thread.
+     */
+    @Override
+    public Observable<OpenSession> send(String gatewayUuid, OpenMessage request) {
+        return findSession(gatewayUuid)
+            .flatMap(session -> session.send(request))
+            .subscribeOn(Schedulers.io());
+    }
+
+    @Override
+    public Observable<List<OpenSession>> send(String gatewayUuid, List<OpenMessage> requests) {
+        return findSession(gatewayUuid)
+            .flatMap(session -> session.send(requests))
+            .subscribeOn(Schedulers.io());
+    }
+
+    // a gateway that doesn't exist is an error of the request, failed loads are not cached
+    private Observable<GatewaySession> findSession(String gatewayUuid) {
+        return Observable.defer(() -> {
+            try {
+                return Observable.just(sessionCache.getUnchecked(gatewayUuid));
+            } catch (UncheckedExecutionException e) {
+                log.error("gateway={} | session not found", gatewayUuid, e.getCause());
+                return Observable.error(e.getCause());
+            }
+        });
+    }
+
+    /*
+     * Returns null if the gateway has no open session: never opens one.
+     */
+    @Override
+    public GatewayStats getGatewayStats(String gatewayUuid) {
+        GatewaySession session = sessionCache.getIfPresent(gatewayUuid);
+        return session == null ? null : session.getStats();
+    }
+
+    @Override
+    public void invalidateClient(String gatewayUuid) {
+        sessionCache.invalidate(gatewayUuid);
+        monitorService.reload();
+    }
+
+    @Override
+    public void invalidateClients() {
+        sessionCache.invalidateAll();
+        monitorService.reload();
     }
 
     @Override
@@ -22,7 +22,6 @@ import rx.Observable;
 import rx.Statement;
 import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Func1;
-import rx.schedulers.Schedulers;
 
 import static com.github.openwebnet.model.DeviceModel.Status.FAIL;
 import static com.github.openwebnet.model.DeviceModel.Status.SUCCESS;
@@ -41,7 +40,6 @@ public class DeviceServiceImpl implements DeviceService {
         Injector.getApplicationComponent().inject(this);
     }
 
-
     @Override
     public Observable<String> add(DeviceModel device) {
         return deviceRepository.add(device);
@@ -76,32 +74,36 @@ public class DeviceServiceImpl implements DeviceService {
     public Observable<List<DeviceModel>> requestByEnvironment(Integer id) {
         return findByEnvironment(id)
             .flatMapIterable(deviceModels -> deviceModels)
-            .flatMap(requestOnLoad())
+            .flatMap(this::requestStatus)
             .collect(() -> new ArrayList<>(),
                 (deviceModels, deviceModel) -> deviceModels.add(deviceModel));
     }
 
-    private Func1<DeviceModel, Observable<DeviceModel>> requestOnLoad() {
-        return device -> Statement.ifThen(() -> device.isRunOnLoad(),
-            sendRequest(device), Observable.just(device));
-    }
-
     @Override
     public Observable<List<DeviceModel>> requestFavourites() {
         return findFavourites()
             .flatMapIterable(deviceModels -> deviceModels)
-            .flatMap(requestOnLoad())
+            .flatMap(this::requestStatus)
             .collect(() -> new ArrayList<>(),
                 (deviceModels, deviceModel) -> deviceModels.add(deviceModel));
     }
 
+    @Override
+    public Observable<DeviceModel> requestStatus(DeviceModel device) {
+        return requestOnLoad().call(device);
+    }
+
+    private Func1<DeviceModel, Observable<DeviceModel>> requestOnLoad() {
+        return device -> Statement.ifThen(() -> device.isRunOnLoad(),
+            sendRequest(device), Observable.just(device));
+    }
+
     @Override
     public Observable<DeviceModel> sendRequest(DeviceModel device) {
         device.setInstantRequestDebug(Instant.now());
 
-        return commonService.findClient(device.getGatewayUuid())
-            .send(() -> device.getRequest())
-            .subscribeOn(Schedulers.io())
+        return commonService
+            .send(device.getGatewayUuid(), () -> device.getRequest())
             .observeOn(AndroidSchedulers.mainThread())
             .map(openSession -> Joiner.on("")
                 .join(Stream.of(openSession.getResponse())
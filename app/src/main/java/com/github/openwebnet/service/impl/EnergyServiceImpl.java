@@ -9,6 +9,7 @@ import com.github.openwebnet.repository.EnergyRepository;
 import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.EnergyService;
 import com.github.openwebnet.service.PreferenceService;
+import com.github.openwebnet.service.StateService;
 import com.github.openwebnet.service.UtilityService;
 
 import org.slf4j.Logger;
@@ -23,7 +24,6 @@ import rx.Observable;
 import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Func1;
 import rx.functions.Func2;
-import rx.schedulers.Schedulers;
 
 import static java.util.Arrays.asList;
 
@@ -37,6 +37,9 @@ public class EnergyServiceImpl implements EnergyService {
     @Inject
     CommonService commonService;
 
+    @Inject
+    StateService stateService;
+
     @Inject
     PreferenceService preferenceService;
 
@@ -81,7 +84,7 @@ public class EnergyServiceImpl implements EnergyService {
     public Observable<List<EnergyModel>> requestByEnvironment(Integer id) {
         return findByEnvironment(id)
             .flatMapIterable(energyModels -> energyModels)
-            .flatMap(requestPowerConsumption())
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
@@ -89,10 +92,15 @@ public class EnergyServiceImpl implements EnergyService {
     public Observable<List<EnergyModel>> requestFavourites() {
         return findFavourites()
             .flatMapIterable(energyModels -> energyModels)
-            .flatMap(requestPowerConsumption())
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
+    @Override
+    public Observable<EnergyModel> requestStatus(EnergyModel energy) {
+        return stateService.cached(requestPowerConsumption()).call(energy);
+    }
+
     private Func1<EnergyModel, Observable<EnergyModel>> requestPowerConsumption() {
 
         final Func1<EnergyModel, List<OpenMessage>> requests = energy ->
@@ -114,11 +122,11 @@ public class EnergyServiceImpl implements EnergyService {
             return energy;
         };
 
-        return energy -> commonService.findClient(energy.getGatewayUuid())
-            .send(requests.call(energy))
-            .subscribeOn(Schedulers.io())
+        return energy -> commonService
+            .send(energy.getGatewayUuid(), requests.call(energy))
             .observeOn(AndroidSchedulers.mainThread())
             .map(openSessions -> handler.call(openSessions, energy))
+            .doOnNext(stateService::put)
             .onErrorReturn(throwable -> {
                 log.warn("energy={} | failing requests={}", energy.getUuid(), requests);
                 // unreadable energy
@@ -0,0 +1,210 @@
+package com.github.openwebnet.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.regex.Pattern;
+
+import rx.Observable;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Persistent event session (monitor) of a gateway.
+ *
+ * The client library only opens command sessions, this one stays connected
+ * and streams every frame that goes through the bus.
+ * Only gateways without password or with the numeric OPEN password are supported:
+ * an HMAC handshake fails with UnsupportedOperationException.
+ */
+class EventSession {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSession.class);
+
+    private static final Charset CHARSET = Charset.forName("US-ASCII");
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private static final String ACK = "*#*1##";
+    private static final String EVENT_SESSION = "*99*1##";
+    private static final Pattern NONCE = Pattern.compile("^\\*#(\\d+)##$");
+    private static final String HMAC = "*98*";
+
+    private EventSession() {
+    }
+
+    /*
+     * Blocking on subscribe, the socket is closed on unsubscribe.
+     * Completes with EOFException when the gateway closes the session.
+     */
+    static Observable<String> frames(String host, int port, String password) {
+        return Observable.create(subscriber -> {
+            Socket socket = new Socket();
+            subscriber.add(Subscriptions.create(() -> closeQuietly(socket)));
+            try {
+                socket.setKeepAlive(true);
+                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+                InputStream input = new BufferedInputStream(socket.getInputStream());
+                OutputStream output = socket.getOutputStream();
+
+                expectAck(readFrame(input));
+                write(output, EVENT_SESSION);
+                handshake(input, output, password);
+                log.info("event session opened: {}:{}", host, port);
+
+                String frame;
+                while (!subscriber.isUnsubscribed() && (frame = readFrame(input)) != null) {
+                    subscriber.onNext(frame);
+                }
+                if (!subscriber.isUnsubscribed()) {
+                    subscriber.onError(new EOFException("event session closed"));
+                }
+            } catch (Exception e) {
+                // expected when the socket is closed on unsubscribe
+                if (!subscriber.isUnsubscribed()) {
+                    subscriber.onError(e);
+                }
+            }
+        });
+    }
+
+    private static void handshake(InputStream input, OutputStream output, String password) throws IOException {
+        String frame = readFrame(input);
+        if (frame != null && frame.startsWith(HMAC)) {
+            throw new UnsupportedOperationException("HMAC authentication not supported");
+        }
+        if (frame != null && NONCE.matcher(frame).matches()) {
+            if (password == null) {
+                throw new IllegalStateException("password required");
+            }
+            String nonce = frame.substring(2, frame.length() - 2);
+            write(output, "*#" + calculatePassword(password, nonce) + "##");
+            frame = readFrame(input);
+        }
+        expectAck(frame);
+    }
+
+    private static void expectAck(String frame) throws IOException {
+        if (!ACK.equals(frame)) {
+            throw new IOException("unexpected frame: " + frame);
+        }
+    }
+
+    private static void write(OutputStream output, String frame) throws IOException {
+        output.write(frame.getBytes(CHARSET));
+        output.flush();
+    }
+
+    /*
+     * Returns null if the stream is closed between two frames.
+     */
+    private static String readFrame(InputStream input) throws IOException {
+        StringBuilder frame = new StringBuilder();
+        int value;
+        while ((value = input.read()) != -1) {
+            frame.append((char) value);
+            int length = frame.length();
+            if (length > 1 && frame.charAt(length - 1) == '#' && frame.charAt(length - 2) == '#') {
+                return frame.toString();
+            }
+        }
+        if (frame.length() == 0) {
+            return null;
+        }
+        throw new EOFException("truncated frame: " + frame);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.warn("unable to close event session", e);
+        }
+    }
+
+    /*
+     * OPEN password algorithm: the numeric password is scrambled by each digit of the nonce.
+     */
+    static String calculatePassword(String password, String nonce) {
+        long value;
+        try {
+            value = Long.parseLong(password);
+        } catch (NumberFormatException e) {
+            throw new UnsupportedOperationException("password must be numeric");
+        }
+
+        long num1 = 0L;
+        long num2 = 0L;
+        boolean start = true;
+        for (char c : nonce.toCharArray()) {
+            num1 &= 0xFFFFFFFFL;
+            num2 &= 0xFFFFFFFFL;
+            if (c != '0' && start) {
+                num2 = value;
+                start = false;
+            }
+            switch (c) {
+                case '1':
+                    num1 = (num2 & 0xFFFFFF80L) >>> 7;
+                    num2 = num2 << 25;
+                    num1 = num1 + num2;
+                    break;
+                case '2':
+                    num1 = (num2 & 0xFFFFFFF0L) >>> 4;
+                    num2 = num2 << 28;
+                    num1 = num1 + num2;
+                    break;
+                case '3':
+                    num1 = (num2 & 0xFFFFFFF8L) >>> 3;
+                    num2 = num2 << 29;
+                    num1 = num1 + num2;
+                    break;
+                case '4':
+                    num1 = num2 << 1;
+                    num2 = num2 >>> 31;
+                    num1 = num1 + num2;
+                    break;
+                case '5':
+                    num1 = num2 << 5;
+                    num2 = num2 >>> 27;
+                    num1 = num1 + num2;
+                    break;
+                case '6':
+                    num1 = num2 << 12;
+                    num2 = num2 >>> 20;
+                    num1 = num1 + num2;
+                    break;
+                case '7':
+                    num1 = num2 & 0x0000FF00L;
+                    num1 = num1 + ((num2 & 0x000000FFL) << 24);
+                    num1 = num1 + ((num2 & 0x00FF0000L) >>> 16);
+                    num2 = (num2 & 0xFF000000L) >>> 8;
+                    num1 = num1 + num2;
+                    break;
+                case '8':
+                    num1 = (num2 & 0x0000FFFFL) << 16;
+                    num1 = num1 + (num2 >>> 24);
+                    num2 = (num2 & 0x00FF0000L) >>> 8;
+                    num1 = num1 + num2;
+                    break;
+                case '9':
+                    num1 = ~num2;
+                    break;
+                case '0':
+                    num1 = num2;
+                    break;
+                default:
+                    throw new IllegalArgumentException("invalid nonce");
+            }
+            num2 = num1;
+        }
+        return Long.toString(num1 & 0xFFFFFFFFL);
+    }
+
+}
@@ -9,6 +9,7 @@ import com.github.openwebnet.component.Injector;
 import com.github.openwebnet.model.firestore.UserModel;
 import com.github.openwebnet.model.firestore.UserProfileModel;
 import com.github.openwebnet.repository.FirestoreRepository;
+import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.EnvironmentService;
 import com.github.openwebnet.service.FirebaseService;
 import com.github.openwebnet.service.UtilityService;
@@ -34,6 +35,9 @@ public class FirebaseServiceImpl implements FirebaseService {
     @Inject
     EnvironmentService environmentService;
 
+    @Inject
+    CommonService commonService;
+
     @Inject
     UtilityService utilityService;
 
@@ -69,6 +73,11 @@ public class FirebaseServiceImpl implements FirebaseService {
         return getUser().getPhotoUrl();
     }
 
+    @Override
+    public void setOnline(boolean online) {
+        firestoreRepository.setOnline(online);
+    }
+
     @Override
     public Observable<Void> updateUser() {
         return firestoreRepository.updateUser(getUser());
@@ -79,18 +88,23 @@ public class FirebaseServiceImpl implements FirebaseService {
         return updateUser().flatMap(aVoid -> firestoreRepository.addProfile(getUser(), name));
     }
 
+    @Override
+    public Observable<Integer> updateProfile(DocumentReference profileRef) {
+        return firestoreRepository.updateProfile(getUser().getUserId(), profileRef);
+    }
+
     @Override
     public Observable<List<UserProfileModel>> getProfiles() {
         return firestoreRepository.getProfiles(getUser().getUserId());
     }
 
     @Override
-    public Observable<Void> switchProfile(DocumentReference profileRef) {
+    public Observable<Integer> switchProfile(DocumentReference profileRef) {
         return safeDeleteLocalProfile()
             .flatMap(aVoid -> firestoreRepository.getProfile(profileRef))
             .single()
             .flatMap(profileModel -> firestoreRepository.applyProfile(profileModel))
-            .map(counts -> null);
+            .doOnCompleted(() -> commonService.invalidateClients());
     }
 
     @Override
@@ -140,7 +154,9 @@ public class FirebaseServiceImpl implements FirebaseService {
         return addDefaultEnvironment()
             .flatMap(aVoid -> firestoreRepository.deleteLocalProfile())
             // make sure to consume only once
-            .last();
+            .last()
+            // the sessions of the deleted gateways, even if the new profile is never applied
+            .doOnNext(aVoid -> commonService.invalidateClients());
     }
 
 }
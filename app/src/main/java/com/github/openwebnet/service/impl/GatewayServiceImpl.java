@@ -3,12 +3,14 @@ package com.github.openwebnet.service.impl;
 import com.github.openwebnet.component.Injector;
 import com.github.openwebnet.model.GatewayModel;
 import com.github.openwebnet.repository.GatewayRepository;
+import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.GatewayService;
 
 import java.util.List;
 
 import javax.inject.Inject;
 
+import dagger.Lazy;
 import rx.Observable;
 
 public class GatewayServiceImpl implements GatewayService {
@@ -16,13 +18,18 @@ public class GatewayServiceImpl implements GatewayService {
     @Inject
     GatewayRepository gatewayRepository;
 
+    // lazy: CommonService depends on GatewayService
+    @Inject
+    Lazy<CommonService> commonService;
+
     public GatewayServiceImpl() {
         Injector.getApplicationComponent().inject(this);
     }
 
     @Override
     public Observable<String> add(GatewayModel gateway) {
-        return gatewayRepository.add(gateway);
+        return gatewayRepository.add(gateway)
+            .doOnNext(uuid -> commonService.get().invalidateClient(uuid));
     }
 
     @Override
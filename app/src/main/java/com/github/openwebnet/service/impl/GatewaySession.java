@@ -0,0 +1,288 @@
+package com.github.openwebnet.service.impl;
+
+import com.annimon.stream.Stream;
+import com.github.niqdev.openwebnet.OpenSession;
+import com.github.niqdev.openwebnet.OpenWebNet;
+import com.github.niqdev.openwebnet.message.OpenMessage;
+import com.github.openwebnet.service.GatewayStats;
+import com.google.common.base.Throwables;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Completable;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.schedulers.Schedulers;
+import rx.subjects.AsyncSubject;
+
+/**
+ * Multiplexes all the frames of a gateway on a bounded number of command sessions.
+ *
+ * Frames are queued and sent as a pipelined burst on the same connection,
+ * so the TCP and password handshakes are paid once per burst instead of once per frame.
+ * At most maxRequests bursts are in flight at the same time: the other frames wait
+ * in a single FIFO queue, whatever device type they belong to, and leave with the next burst.
+ *
+ * A burst waits BURST_WINDOW_MILLIS before leaving, so that all the status requests
+ * of a refresh, i.e. every device type of the environment bound to this gateway,
+ * are collected and sent together in one round trip.
+ */
+class GatewaySession {
+
+    private static final Logger log = LoggerFactory.getLogger(GatewaySession.class);
+
+    // upper bound of frames pipelined on the same connection
+    private static final int MAX_FRAMES_PER_BURST = 64;
+    // time to collect the frames of the same refresh
+    private static final long BURST_WINDOW_MILLIS = 20;
+    // a socket that never completes must not hold the session forever
+    private static final long BURST_TIMEOUT_SECONDS = 10;
+    private static final long FRAME_TIMEOUT_SECONDS = 5;
+
+    private final String gatewayUuid;
+    private final OpenWebNet client;
+    // read on each burst: changes in settings are applied immediately
+    private final Func0<Integer> maxRequests;
+
+    private final Queue<PendingFrame> pendingFrames = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    // a burst is collecting frames
+    private final AtomicBoolean collecting = new AtomicBoolean(false);
+
+    // metrics
+    private final AtomicInteger queueDepth = new AtomicInteger(0);
+    private final AtomicInteger maxQueueDepth = new AtomicInteger(0);
+
+    GatewaySession(String gatewayUuid, OpenWebNet client, Func0<Integer> maxRequests) {
+        this.gatewayUuid = gatewayUuid;
+        this.client = client;
+        this.maxRequests = maxRequests;
+    }
+
+    OpenWebNet getClient() {
+        return client;
+    }
+
+    int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    GatewayStats getStats() {
+        return new GatewayStats(gatewayUuid, getInFlight(), getQueueDepth(), getMaxQueueDepth());
+    }
+
+    Observable<OpenSession> send(OpenMessage request) {
+        return Observable.defer(() -> {
+            Observable<OpenSession> response = enqueue(request);
+            scheduleBurst();
+            return response;
+        });
+    }
+
+    Observable<List<OpenSession>> send(List<OpenMessage> requests) {
+        return Observable.defer(() -> {
+            // enqueue all the frames before sending to keep them in the same burst
+            List<Observable<OpenSession>> responses = Stream.of(requests).map(this::enqueue).toList();
+            scheduleBurst();
+            return Observable.zip(responses, sessions -> {
+                List<OpenSession> results = new ArrayList<>();
+                for (Object session : sessions) {
+                    results.add((OpenSession) session);
+                }
+                return results;
+            });
+        });
+    }
+
+    private Observable<OpenSession> enqueue(OpenMessage request) {
+        AsyncSubject<OpenSession> response = AsyncSubject.create();
+        pendingFrames.offer(new PendingFrame(request, response));
+        updateMaxQueueDepth(queueDepth.incrementAndGet());
+        return response;
+    }
+
+    private void updateMaxQueueDepth(int depth) {
+        int max;
+        do {
+            max = maxQueueDepth.get();
+        } while (depth > max && !maxQueueDepth.compareAndSet(max, depth));
+    }
+
+    private void scheduleBurst() {
+        while (!pendingFrames.isEmpty() && !collecting.get()) {
+            int current = inFlight.get();
+            if (current >= Math.max(1, maxRequests.call())) {
+                return;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (!collecting.compareAndSet(false, true)) {
+                    // another burst is already collecting the pending frames
+                    inFlight.decrementAndGet();
+                    return;
+                }
+                Completable.timer(BURST_WINDOW_MILLIS, TimeUnit.MILLISECONDS, Schedulers.io())
+                    .andThen(Completable.fromAction(this::sendBurst))
+                    .subscribe(() -> {}, throwable -> log.error("gateway={} | burst failed", gatewayUuid, throwable));
+                return;
+            }
+        }
+    }
+
+    private void sendBurst() {
+        List<PendingFrame> burst = new ArrayList<>();
+        PendingFrame frame;
+        while (burst.size() < MAX_FRAMES_PER_BURST && (frame = pendingFrames.poll()) != null) {
+            burst.add(frame);
+        }
+        queueDepth.addAndGet(-burst.size());
+        collecting.set(false);
+        // frames exceeding this burst can leave with a free session
+        scheduleBurst();
+
+        if (burst.isEmpty()) {
+            release();
+            return;
+        }
+
+        log.debug("sending burst of {} frames: {}", burst.size(), getStats());
+
+        // terminated and unsubscribed might both happen
+        AtomicBoolean released = new AtomicBoolean(false);
+        Action0 releaseOnce = () -> {
+            if (released.compareAndSet(false, true)) {
+                release();
+            }
+        };
+
+        try {
+            sendPipelined(burst)
+                .onErrorResumeNext(throwable -> {
+                    List<PendingFrame> unanswered = getUnanswered(burst);
+                    if (unanswered.size() <= 1 || isConnectionError(throwable)) {
+                        failAll(unanswered, throwable);
+                        return Completable.complete();
+                    }
+                    // a single invalid frame must not fail the others
+                    log.warn("gateway={} | burst failed, sending {} frames one by one", gatewayUuid, unanswered.size());
+                    return sendOneByOne(unanswered);
+                })
+                .doOnCompleted(() -> failAll(getUnanswered(burst), new IllegalStateException("missing response")))
+                .doOnTerminate(releaseOnce)
+                .doOnUnsubscribe(releaseOnce)
+                .subscribe(() -> {}, throwable -> {
+                    log.error("gateway={} | burst failed", gatewayUuid, throwable);
+                    failAll(getUnanswered(burst), throwable);
+                });
+        } catch (RuntimeException e) {
+            // the slot is never held by a burst that was not sent
+            log.error("gateway={} | burst not sent", gatewayUuid, e);
+            failAll(getUnanswered(burst), e);
+            releaseOnce.call();
+        }
+    }
+
+    // defer: a synchronous failure of the client is delivered as an error
+    private Completable sendPipelined(List<PendingFrame> burst) {
+        return Observable.defer(() -> client.send(Stream.of(burst).map(PendingFrame::getRequest).toList()))
+            .timeout(BURST_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .doOnNext(sessions -> {
+                // one session for each request, in the same order
+                for (int i = 0; i < Math.min(burst.size(), sessions.size()); i++) {
+                    burst.get(i).onResponse(sessions.get(i));
+                }
+            })
+            .toCompletable();
+    }
+
+    // sequential on the same slot: maxRequests is still respected
+    private Completable sendOneByOne(List<PendingFrame> frames) {
+        return Observable.from(frames)
+            .concatMap(pendingFrame -> Observable.defer(() -> client.send(pendingFrame.getRequest()))
+                .timeout(FRAME_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .doOnNext(pendingFrame::onResponse)
+                .doOnError(pendingFrame::onError)
+                // the remaining frames are failed by the burst
+                .onErrorResumeNext(throwable -> isConnectionError(throwable) ?
+                    Observable.error(throwable) : Observable.empty()))
+            .toCompletable();
+    }
+
+    /*
+     * Only a rejected frame is worth sending again on its own: a gateway that is unreachable
+     * or doesn't answer would hold the slot for FRAME_TIMEOUT_SECONDS on each frame.
+     */
+    private boolean isConnectionError(Throwable throwable) {
+        return Stream.of(Throwables.getCausalChain(throwable))
+            .anyMatch(cause -> cause instanceof TimeoutException || cause instanceof IOException);
+    }
+
+    private List<PendingFrame> getUnanswered(List<PendingFrame> burst) {
+        return Stream.of(burst)
+            .filter(pendingFrame -> !pendingFrame.isCompleted())
+            .toList();
+    }
+
+    private void failAll(List<PendingFrame> frames, Throwable throwable) {
+        if (!frames.isEmpty()) {
+            log.warn("gateway={} | failing {} frames", gatewayUuid, frames.size());
+        }
+        Stream.of(frames).forEach(pendingFrame -> pendingFrame.onError(throwable));
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        scheduleBurst();
+    }
+
+    /**
+     *
+     */
+    private static class PendingFrame {
+
+        private final OpenMessage request;
+        private final AsyncSubject<OpenSession> response;
+
+        private PendingFrame(OpenMessage request, AsyncSubject<OpenSession> response) {
+            this.request = request;
+            this.response = response;
+        }
+
+        private OpenMessage getRequest() {
+            return request;
+        }
+
+        private void onResponse(OpenSession session) {
+            response.onNext(session);
+            response.onCompleted();
+        }
+
+        private void onError(Throwable throwable) {
+            response.onError(throwable);
+        }
+
+        private boolean isCompleted() {
+            return response.hasCompleted() || response.hasThrowable();
+        }
+    }
+
+}
@@ -7,6 +7,7 @@ import com.github.openwebnet.model.LightModel;
 import com.github.openwebnet.repository.LightRepository;
 import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.LightService;
+import com.github.openwebnet.service.StateService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +22,6 @@ import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Func1;
 import rx.functions.Func2;
 import rx.functions.Func3;
-import rx.schedulers.Schedulers;
 
 import static com.github.openwebnet.model.LightModel.Status.OFF;
 import static com.github.openwebnet.model.LightModel.Status.ON;
@@ -36,6 +36,9 @@ public class LightServiceImpl implements LightService {
     @Inject
     CommonService commonService;
 
+    @Inject
+    StateService stateService;
+
     public LightServiceImpl() {
         Injector.getApplicationComponent().inject(this);
     }
@@ -79,7 +82,7 @@ public class LightServiceImpl implements LightService {
     public Observable<List<LightModel>> requestByEnvironment(Integer id) {
         return findByEnvironment(id)
             .flatMapIterable(lightModels -> lightModels)
-            .flatMap(requestLight(Lighting::requestStatus, handleStatus))
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
@@ -87,10 +90,15 @@ public class LightServiceImpl implements LightService {
     public Observable<List<LightModel>> requestFavourites() {
         return findFavourites()
             .flatMapIterable(lightModels -> lightModels)
-            .flatMap(requestLight(Lighting::requestStatus, handleStatus))
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
+    @Override
+    public Observable<LightModel> requestStatus(LightModel light) {
+        return stateService.cached(requestLight(Lighting::requestStatus, handleStatus)).call(light);
+    }
+
     private Func2<OpenSession, LightModel, LightModel> handleResponse(LightModel.Status status) {
         return (openSession, light) -> {
             Lighting.handleResponse(() ->
@@ -113,11 +121,11 @@ public class LightServiceImpl implements LightService {
     private Func1<LightModel, Observable<LightModel>> requestLight(
         Func3<String, Lighting.Type, String, Lighting> request, Func2<OpenSession, LightModel, LightModel> handler) {
 
-        return light -> commonService.findClient(light.getGatewayUuid())
-            .send(request.call(light.getWhere(), light.getLightingType(), light.getBus()))
-            .subscribeOn(Schedulers.io())
+        return light -> commonService
+            .send(light.getGatewayUuid(), request.call(light.getWhere(), light.getLightingType(), light.getBus()))
             .observeOn(AndroidSchedulers.mainThread())
             .map(openSession -> handler.call(openSession, light))
+            .doOnNext(stateService::put)
             .onErrorReturn(throwable -> {
                 log.warn("light={} | failing request={}", light.getUuid(),
                     request.call(light.getWhere(), light.getLightingType(), light.getBus()).getValue());
@@ -0,0 +1,116 @@
+package com.github.openwebnet.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Frame received on the event session.
+ *
+ * Command frames *WHO*WHAT*WHERE## carry the new status of a device,
+ * dimension frames *#WHO*WHERE*DIMENSION*VALUE1*...## carry a measure.
+ */
+class MonitorFrame {
+
+    private static final Pattern COMMAND = Pattern.compile("^\\*(\\d+)\\*([\\d#]+)\\*([\\d#]*)##$");
+    private static final Pattern DIMENSION = Pattern.compile("^\\*#(\\d+)\\*([\\d#]*)\\*(\\d+)((\\*[\\d#]*)*)##$");
+
+    private final String who;
+    private final String what;
+    private final String where;
+    private final String dimension;
+    private final List<String> values;
+
+    private MonitorFrame(String who, String what, String where, String dimension, List<String> values) {
+        this.who = who;
+        this.what = what;
+        this.where = where;
+        this.dimension = dimension;
+        this.values = values;
+    }
+
+    /*
+     * Returns null if the frame is not a command or a dimension, e.g. ACK and NACK.
+     */
+    static MonitorFrame parse(String frame) {
+        if (frame == null) {
+            return null;
+        }
+        Matcher command = COMMAND.matcher(frame);
+        if (command.matches()) {
+            // ignore the parameters of WHAT e.g. *1*1000#1*21##
+            String what = command.group(2).split("#")[0];
+            return new MonitorFrame(command.group(1), what, command.group(3), null,
+                Collections.emptyList());
+        }
+        Matcher dimension = DIMENSION.matcher(frame);
+        if (dimension.matches()) {
+            List<String> values = new ArrayList<>();
+            if (dimension.group(4).length() > 1) {
+                values.addAll(Arrays.asList(dimension.group(4).substring(1).split("\\*")));
+            }
+            return new MonitorFrame(dimension.group(1), null, dimension.group(2), dimension.group(3),
+                Collections.unmodifiableList(values));
+        }
+        return null;
+    }
+
+    String getWho() {
+        return who;
+    }
+
+    String getWhat() {
+        return what;
+    }
+
+    String getWhere() {
+        return where;
+    }
+
+    String getDimension() {
+        return dimension;
+    }
+
+    List<String> getValues() {
+        return values;
+    }
+
+    boolean isDimension() {
+        return dimension != null;
+    }
+
+    /*
+     * Frames with the same key overwrite each other.
+     */
+    String getKey() {
+        return who + "*" + where + (isDimension() ? "*" + dimension : "");
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof MonitorFrame)) {
+            return false;
+        }
+        MonitorFrame frame = (MonitorFrame) object;
+        return getKey().equals(frame.getKey())
+            && (what == null ? frame.what == null : what.equals(frame.what))
+            && values.equals(frame.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return getKey().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return isDimension() ? getKey() + values : getKey() + "=" + what;
+    }
+
+}
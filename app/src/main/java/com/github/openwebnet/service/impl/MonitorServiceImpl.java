@@ -0,0 +1,265 @@
+package com.github.openwebnet.service.impl;
+
+import com.github.niqdev.openwebnet.message.Heating;
+import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.model.AutomationModel;
+import com.github.openwebnet.model.DomoticModel;
+import com.github.openwebnet.model.EnergyModel;
+import com.github.openwebnet.model.GatewayModel;
+import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.SoundModel;
+import com.github.openwebnet.model.TemperatureModel;
+import com.github.openwebnet.service.GatewayService;
+import com.github.openwebnet.service.MonitorService;
+import com.github.openwebnet.service.PreferenceService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+import rx.subjects.SerializedSubject;
+import rx.subjects.Subject;
+
+public class MonitorServiceImpl implements MonitorService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorService.class);
+
+    private static final long RECONNECT_DELAY_SECONDS = 30;
+
+    static final String WHO_LIGHTING = "1";
+    static final String WHO_AUTOMATION = "2";
+    static final String WHO_HEATING = "4";
+    static final String WHO_SOUND_SYSTEM = "16";
+    static final String WHO_ENERGY_MANAGEMENT = "18";
+
+    static final String DIMENSION_TEMPERATURE = "0";
+    static final String DIMENSION_INSTANTANEOUS_POWER = "113";
+
+    @Inject
+    GatewayService gatewayService;
+
+    @Inject
+    PreferenceService preferenceService;
+
+    // last state of each device, by gateway and frame key
+    private final Map<String, MonitorFrame> states = new ConcurrentHashMap<>();
+
+    // the gateways are read again and the sessions reopened
+    private final Subject<Void, Void> reloads = new SerializedSubject<>(PublishSubject.create());
+
+    // one event session for each gateway, shared by all the observers
+    private final Observable<String> events;
+
+    public MonitorServiceImpl() {
+        Injector.getApplicationComponent().inject(this);
+
+        this.events = reloads
+            .startWith((Void) null)
+            // the sessions of the previous gateways are closed
+            .switchMap(reload -> Observable.defer(() -> gatewayService.findAll())
+                .subscribeOn(Schedulers.io())
+                .flatMapIterable(gateways -> gateways)
+                .flatMap(this::monitor))
+            .share();
+    }
+
+    private Observable<String> monitor(GatewayModel gateway) {
+        final String gatewayUuid = gateway.getUuid();
+        final String host = gateway.getHost();
+        final Integer port = gateway.getPort();
+        final String password = gateway.getPasswordNullable();
+
+        return EventSession.frames(host, port, password)
+            // blocking read loop
+            .subscribeOn(Schedulers.io())
+            .retryWhen(errors -> errors.flatMap(throwable -> {
+                if (throwable instanceof IOException) {
+                    log.warn("gateway={} | event session lost: {}", gatewayUuid, throwable.getMessage());
+                    return Observable.timer(RECONNECT_DELAY_SECONDS, TimeUnit.SECONDS);
+                }
+                return Observable.error(throwable);
+            }))
+            .onErrorResumeNext(throwable -> {
+                log.error("gateway={} | event session disabled", gatewayUuid, throwable);
+                return Observable.empty();
+            })
+            .map(MonitorFrame::parse)
+            .filter(frame -> frame != null && isSupported(frame))
+            .filter(frame -> !frame.equals(states.put(key(gatewayUuid, frame), frame)))
+            .doOnNext(frame -> log.debug("gateway={} | state changed: {}", gatewayUuid, frame))
+            .map(frame -> gatewayUuid);
+    }
+
+    private boolean isSupported(MonitorFrame frame) {
+        switch (frame.getWho()) {
+            case WHO_LIGHTING:
+            case WHO_AUTOMATION:
+            case WHO_SOUND_SYSTEM:
+                return !frame.isDimension();
+            case WHO_HEATING:
+                return DIMENSION_TEMPERATURE.equals(frame.getDimension()) && !frame.getValues().isEmpty();
+            case WHO_ENERGY_MANAGEMENT:
+                return DIMENSION_INSTANTANEOUS_POWER.equals(frame.getDimension()) && !frame.getValues().isEmpty();
+            default:
+                return false;
+        }
+    }
+
+    private String key(String gatewayUuid, MonitorFrame frame) {
+        return gatewayUuid + "|" + frame.getKey();
+    }
+
+    private MonitorFrame findState(DomoticModel model, String who, String where, String dimension) {
+        if (model.getGatewayUuid() == null || where == null) {
+            return null;
+        }
+        return states.get(model.getGatewayUuid() + "|" + who + "*" + where + (dimension != null ? "*" + dimension : ""));
+    }
+
+    @Override
+    public Observable<String> observe() {
+        return events;
+    }
+
+    @Override
+    public void reload() {
+        log.info("reloading event sessions");
+        // the old sessions are closed before
+        reloads.onNext(null);
+        states.clear();
+    }
+
+    @Override
+    public boolean update(DomoticModel model) {
+        if (model instanceof LightModel) {
+            return updateLight((LightModel) model);
+        }
+        if (model instanceof AutomationModel) {
+            return updateAutomation((AutomationModel) model);
+        }
+        if (model instanceof SoundModel) {
+            return updateSound((SoundModel) model);
+        }
+        if (model instanceof TemperatureModel) {
+            return updateTemperature((TemperatureModel) model);
+        }
+        if (model instanceof EnergyModel) {
+            return updateEnergy((EnergyModel) model);
+        }
+        return false;
+    }
+
+    private boolean updateLight(LightModel light) {
+        MonitorFrame frame = findState(light, WHO_LIGHTING, light.getWhere(), null);
+        if (frame == null) {
+            return false;
+        }
+        // 2-10 are the dimmer levels, ignore the other commands e.g. temporized
+        if (!frame.getWhat().matches("^(\\d|10)$")) {
+            return false;
+        }
+        LightModel.Status status = "0".equals(frame.getWhat()) ? LightModel.Status.OFF : LightModel.Status.ON;
+        if (status == light.getStatus()) {
+            return false;
+        }
+        light.setStatus(status);
+        return true;
+    }
+
+    private boolean updateAutomation(AutomationModel automation) {
+        MonitorFrame frame = findState(automation, WHO_AUTOMATION, automation.getWhere(), null);
+        if (frame == null) {
+            return false;
+        }
+        AutomationModel.Status status;
+        switch (frame.getWhat()) {
+            case "0": status = AutomationModel.Status.STOP; break;
+            case "1": status = AutomationModel.Status.UP; break;
+            case "2": status = AutomationModel.Status.DOWN; break;
+            default: return false;
+        }
+        if (status == automation.getStatus()) {
+            return false;
+        }
+        automation.setStatus(status);
+        return true;
+    }
+
+    private boolean updateSound(SoundModel sound) {
+        MonitorFrame frame = findState(sound, WHO_SOUND_SYSTEM, sound.getWhere(), null);
+        if (frame == null) {
+            return false;
+        }
+        SoundModel.Status status;
+        switch (frame.getWhat()) {
+            case "0": status = SoundModel.Status.ON; break;
+            case "10": status = SoundModel.Status.OFF; break;
+            default: return false;
+        }
+        if (status == sound.getStatus()) {
+            return false;
+        }
+        sound.setStatus(status);
+        return true;
+    }
+
+    private boolean updateTemperature(TemperatureModel temperature) {
+        MonitorFrame frame = findState(temperature, WHO_HEATING, temperature.getWhere(), DIMENSION_TEMPERATURE);
+        if (frame == null) {
+            return false;
+        }
+        String value = formatTemperature(frame.getValues().get(0), preferenceService.getDefaultTemperatureScale());
+        if (value == null || value.equals(temperature.getValue())) {
+            return false;
+        }
+        temperature.setValue(value);
+        return true;
+    }
+
+    private boolean updateEnergy(EnergyModel energy) {
+        // the same meter is addressed as 5N (F520) or 7N#0 (F523)
+        MonitorFrame frame = findState(energy, WHO_ENERGY_MANAGEMENT, "5" + energy.getWhere(), DIMENSION_INSTANTANEOUS_POWER);
+        if (frame == null) {
+            frame = findState(energy, WHO_ENERGY_MANAGEMENT, "7" + energy.getWhere() + "#0", DIMENSION_INSTANTANEOUS_POWER);
+        }
+        if (frame == null) {
+            return false;
+        }
+        String value = frame.getValues().get(0);
+        if (value.equals(energy.getInstantaneousPower())) {
+            return false;
+        }
+        energy.setInstantaneousPower(value);
+        return true;
+    }
+
+    /*
+     * The probe always sends celsius as sign digit and tenths e.g. 0215 is 21.5, 1025 is -2.5
+     */
+    static String formatTemperature(String value, Heating.TemperatureScale scale) {
+        if (value == null || !value.matches("^[01]\\d{3}$")) {
+            return null;
+        }
+        double celsius = Integer.parseInt(value.substring(1)) / 10d;
+        if (value.charAt(0) == '1') {
+            celsius = -celsius;
+        }
+        double converted;
+        switch (scale) {
+            case FAHRENHEIT: converted = celsius * 9 / 5 + 32; break;
+            case KELVIN: converted = celsius + 273.15; break;
+            default: converted = celsius; break;
+        }
+        return String.valueOf(Math.round(converted * 100) / 100d);
+    }
+
+}
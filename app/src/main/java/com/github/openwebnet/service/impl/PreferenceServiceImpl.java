@@ -14,6 +14,8 @@ import javax.inject.Inject;
 import static com.github.niqdev.openwebnet.message.Heating.TemperatureScale.CELSIUS;
 import static com.github.openwebnet.view.settings.GatewayListPreference.PREF_DEFAULT_GATEWAY_KEY;
 import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_DEBUG_DEVICE;
+import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_GATEWAY_MAX_REQUESTS;
+import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_GATEWAY_STATE_CACHE;
 import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_TEMPERATURE;
 
 public class PreferenceServiceImpl implements PreferenceService {
@@ -24,6 +26,8 @@ public class PreferenceServiceImpl implements PreferenceService {
     public static final String KEY_FIRST_LOGIN = "com.github.openwebnet.MAIN.FIRST_LOGIN";
     public static final String KEY_APP_VERSION = "com.github.openwebnet.MAIN.APP_VERSION";
     public static final String KEY_INSECURE_REALM_KEY = "com.github.openwebnet.MAIN.INSECURE_REALM_KEY";
+    public static final int DEFAULT_GATEWAY_MAX_REQUESTS = 2;
+    public static final int DEFAULT_GATEWAY_STATE_CACHE_SECONDS = 30;
 
     private static final String PREFERENCE_SECURE = "com.github.openwebnet.secure_preferences";
     private static final String PREFERENCE_SECURE_PWD = "NO_PWD";
@@ -72,6 +76,22 @@ public class PreferenceServiceImpl implements PreferenceService {
         return getDefaultSharedPreferences().getString(PREF_DEFAULT_GATEWAY_KEY, null);
     }
 
+    @Override
+    public int getGatewayMaxRequests() {
+        // ListPreference stores values as String
+        String maxRequests = getDefaultSharedPreferences()
+            .getString(PREF_KEY_GATEWAY_MAX_REQUESTS, String.valueOf(DEFAULT_GATEWAY_MAX_REQUESTS));
+        return Integer.parseInt(maxRequests);
+    }
+
+    @Override
+    public int getGatewayStateCacheSeconds() {
+        // ListPreference stores values as String
+        String seconds = getDefaultSharedPreferences()
+            .getString(PREF_KEY_GATEWAY_STATE_CACHE, String.valueOf(DEFAULT_GATEWAY_STATE_CACHE_SECONDS));
+        return Integer.parseInt(seconds);
+    }
+
     @Override
     public TemperatureScale getDefaultTemperatureScale() {
         String temperatureScale = getDefaultSharedPreferences().getString(PREF_KEY_TEMPERATURE, CELSIUS.name());
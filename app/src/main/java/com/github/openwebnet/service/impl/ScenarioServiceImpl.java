@@ -7,6 +7,7 @@ import com.github.openwebnet.model.ScenarioModel;
 import com.github.openwebnet.repository.ScenarioRepository;
 import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.ScenarioService;
+import com.github.openwebnet.service.StateService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +21,6 @@ import rx.Observable;
 import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Func1;
 import rx.functions.Func2;
-import rx.schedulers.Schedulers;
 
 import static com.github.openwebnet.model.ScenarioModel.Status;
 import static com.github.openwebnet.model.ScenarioModel.Status.START;
@@ -36,6 +36,9 @@ public class ScenarioServiceImpl implements ScenarioService {
     @Inject
     CommonService commonService;
 
+    @Inject
+    StateService stateService;
+
     public ScenarioServiceImpl() {
         Injector.getApplicationComponent().inject(this);
     }
@@ -86,7 +89,7 @@ public class ScenarioServiceImpl implements ScenarioService {
     public Observable<List<ScenarioModel>> requestByEnvironment(Integer id) {
         return findByEnvironment(id)
             .flatMapIterable(lightModels -> lightModels)
-            .flatMap(requestScenario(requestStatus, handleStatus))
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
@@ -94,10 +97,15 @@ public class ScenarioServiceImpl implements ScenarioService {
     public Observable<List<ScenarioModel>> requestFavourites() {
         return findFavourites()
             .flatMapIterable(scenarioModels -> scenarioModels)
-            .flatMap(requestScenario(requestStatus, handleStatus))
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
+    @Override
+    public Observable<ScenarioModel> requestStatus(ScenarioModel scenario) {
+        return stateService.cached(requestScenario(requestStatus, handleStatus)).call(scenario);
+    }
+
     private Func2<OpenSession, ScenarioModel, ScenarioModel> handleResponse(Status status) {
         return (openSession, scenario) -> {
             Scenario.handleResponse(() -> scenario.setStatus(status), () -> scenario.setStatus(null))
@@ -119,11 +127,11 @@ public class ScenarioServiceImpl implements ScenarioService {
     private Func1<ScenarioModel, Observable<ScenarioModel>> requestScenario(
         Func1<String, Scenario> request, Func2<OpenSession, ScenarioModel, ScenarioModel> handler) {
 
-        return scenario -> commonService.findClient(scenario.getGatewayUuid())
-            .send(request.call(scenario.getWhere()))
-            .subscribeOn(Schedulers.io())
+        return scenario -> commonService
+            .send(scenario.getGatewayUuid(), request.call(scenario.getWhere()))
             .observeOn(AndroidSchedulers.mainThread())
             .map(openSession -> handler.call(openSession, scenario))
+            .doOnNext(stateService::put)
             .onErrorReturn(throwable -> {
                 log.warn("scenario={} | failing request={}", scenario.getUuid(), request.call(scenario.getWhere()).getValue());
                 // unreadable status
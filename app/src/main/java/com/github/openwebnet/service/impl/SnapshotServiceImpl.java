@@ -0,0 +1,68 @@
+package com.github.openwebnet.service.impl;
+
+import android.content.Context;
+import android.net.Uri;
+
+import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.repository.SnapshotRepository;
+import com.github.openwebnet.service.CommonService;
+import com.github.openwebnet.service.SnapshotService;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.inject.Inject;
+
+import rx.Observable;
+
+public class SnapshotServiceImpl implements SnapshotService {
+
+    @Inject
+    Context context;
+
+    @Inject
+    SnapshotRepository snapshotRepository;
+
+    @Inject
+    CommonService commonService;
+
+    public SnapshotServiceImpl() {
+        Injector.getApplicationComponent().inject(this);
+    }
+
+    @Override
+    public Observable<Integer> exportSnapshot(Uri uri) {
+        return Observable.defer(() -> {
+            try {
+                OutputStream outputStream = context.getContentResolver().openOutputStream(uri);
+                if (outputStream == null) {
+                    // the provider crashed
+                    return Observable.error(new FileNotFoundException("unable to write " + uri));
+                }
+                return snapshotRepository.exportSnapshot(outputStream);
+            } catch (FileNotFoundException e) {
+                return Observable.error(e);
+            }
+        });
+    }
+
+    @Override
+    public Observable<Integer> importSnapshot(Uri uri) {
+        return Observable.defer(() -> {
+            try {
+                InputStream inputStream = context.getContentResolver().openInputStream(uri);
+                if (inputStream == null) {
+                    // the provider crashed
+                    return Observable.error(new FileNotFoundException("unable to read " + uri));
+                }
+                return snapshotRepository.importSnapshot(inputStream);
+            } catch (FileNotFoundException e) {
+                return Observable.error(e);
+            }
+        })
+            // the gateways might be changed
+            .doOnCompleted(commonService::invalidateClients);
+    }
+
+}
@@ -7,6 +7,7 @@ import com.github.openwebnet.model.SoundModel;
 import com.github.openwebnet.repository.SoundRepository;
 import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.SoundService;
+import com.github.openwebnet.service.StateService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +22,6 @@ import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Func1;
 import rx.functions.Func2;
 import rx.functions.Func3;
-import rx.schedulers.Schedulers;
 
 import static com.github.openwebnet.model.SoundModel.Status.OFF;
 import static com.github.openwebnet.model.SoundModel.Status.ON;
@@ -36,6 +36,9 @@ public class SoundServiceImpl implements SoundService {
     @Inject
     CommonService commonService;
 
+    @Inject
+    StateService stateService;
+
     public SoundServiceImpl() {
         Injector.getApplicationComponent().inject(this);
     }
@@ -74,7 +77,7 @@ public class SoundServiceImpl implements SoundService {
     public Observable<List<SoundModel>> requestByEnvironment(Integer id) {
         return findByEnvironment(id)
             .flatMapIterable(soundModels -> soundModels)
-            .flatMap(requestSound(SoundSystem::requestStatus, handleStatus))
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
@@ -82,10 +85,15 @@ public class SoundServiceImpl implements SoundService {
     public Observable<List<SoundModel>> requestFavourites() {
         return findFavourites()
             .flatMapIterable(soundModels -> soundModels)
-            .flatMap(requestSound(SoundSystem::requestStatus, handleStatus))
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
+    @Override
+    public Observable<SoundModel> requestStatus(SoundModel sound) {
+        return stateService.cached(requestSound(SoundSystem::requestStatus, handleStatus)).call(sound);
+    }
+
     @Override
     public Observable<SoundModel> turnOn(SoundModel sound) {
         return Observable.just(sound).flatMap(requestSound(SoundSystem::requestTurnOn, handleResponse(ON)));
@@ -139,11 +147,11 @@ public class SoundServiceImpl implements SoundService {
     private Func1<SoundModel, Observable<SoundModel>> requestSound(
         Func2<String, SoundSystem.Type, SoundSystem> request, Func2<OpenSession, SoundModel, SoundModel> handler) {
 
-        return sound -> commonService.findClient(sound.getGatewayUuid())
-            .send(request.call(sound.getWhere(), sound.getSoundSystemType()))
-            .subscribeOn(Schedulers.io())
+        return sound -> commonService
+            .send(sound.getGatewayUuid(), request.call(sound.getWhere(), sound.getSoundSystemType()))
             .observeOn(AndroidSchedulers.mainThread())
             .map(openSession -> handler.call(openSession, sound))
+            .doOnNext(stateService::put)
             .onErrorReturn(throwable -> {
                 log.warn("sound={} | failing request={}", sound.getUuid(),
                     request.call(sound.getWhere(), sound.getSoundSystemType()).getValue());
@@ -157,11 +165,11 @@ public class SoundServiceImpl implements SoundService {
         Func3<String, SoundSystem.Type, SoundSystem.Source, SoundSystem> request,
         Func2<OpenSession, SoundModel, SoundModel> handler) {
 
-        return sound -> commonService.findClient(sound.getGatewayUuid())
-            .send(request.call(sound.getWhere(), sound.getSoundSystemType(), sound.getSoundSystemSource()))
-            .subscribeOn(Schedulers.io())
+        return sound -> commonService
+            .send(sound.getGatewayUuid(), request.call(sound.getWhere(), sound.getSoundSystemType(), sound.getSoundSystemSource()))
             .observeOn(AndroidSchedulers.mainThread())
             .map(openSession -> handler.call(openSession, sound))
+            .doOnNext(stateService::put)
             .onErrorReturn(throwable -> {
                 log.warn("sound={} | failing request={}", sound.getUuid(),
                     request.call(sound.getWhere(), sound.getSoundSystemType(), sound.getSoundSystemSource()).getValue());
@@ -0,0 +1,177 @@
+package com.github.openwebnet.service.impl;
+
+import android.os.SystemClock;
+
+import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.model.AutomationModel;
+import com.github.openwebnet.model.DomoticModel;
+import com.github.openwebnet.model.EnergyModel;
+import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.RealmModel;
+import com.github.openwebnet.model.ScenarioModel;
+import com.github.openwebnet.model.SoundModel;
+import com.github.openwebnet.model.TemperatureModel;
+import com.github.openwebnet.service.PreferenceService;
+import com.github.openwebnet.service.StateService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Inject;
+
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.subjects.PublishSubject;
+import rx.subjects.SerializedSubject;
+import rx.subjects.Subject;
+
+/**
+ * Status of the devices by uuid, so that a screen switch doesn't query the bus again.
+ *
+ * A state is fresh for the configured ttl, then it is stale for at most MAX_STALE_MINUTES:
+ * a stale state is still rendered but the device is requested again in background.
+ * Older states are ignored and the request waits for the gateway.
+ */
+public class StateServiceImpl implements StateService {
+
+    private static final Logger log = LoggerFactory.getLogger(StateService.class);
+
+    private static final long MAX_STALE_MINUTES = 10;
+
+    @Inject
+    PreferenceService preferenceService;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private final Subject<String, String> revalidated = new SerializedSubject<>(PublishSubject.create());
+
+    public StateServiceImpl() {
+        Injector.getApplicationComponent().inject(this);
+    }
+
+    @Override
+    public <M extends DomoticModel> Func1<M, Observable<M>> cached(Func1<M, Observable<M>> request) {
+        return model -> {
+            long ttl = TimeUnit.SECONDS.toMillis(preferenceService.getGatewayStateCacheSeconds());
+            String uuid = ((RealmModel) model).getUuid();
+            String key = key(model);
+            State state = states.get(key);
+            if (ttl <= 0 || state == null || state.age() > ttl + TimeUnit.MINUTES.toMillis(MAX_STALE_MINUTES)) {
+                return request.call(model);
+            }
+
+            state.restore.call(model);
+            if (state.age() > ttl && state.revalidating.compareAndSet(false, true)) {
+                log.debug("device={} | revalidating stale state", uuid);
+                request.call(model)
+                    // services return the model on error: a failure completes too
+                    .doOnTerminate(() -> state.revalidating.set(false))
+                    .subscribe(
+                        revalidatedModel -> {
+                            // the request stored a newer state only if it succeeded
+                            State current = states.get(key);
+                            if (current != null && current != state) {
+                                revalidated.onNext(uuid);
+                            }
+                        },
+                        throwable -> log.error("device={} | revalidation failed", uuid, throwable));
+            }
+            return Observable.just(model);
+        };
+    }
+
+    @Override
+    public void put(DomoticModel model) {
+        Action1<DomoticModel> restore = snapshot(model);
+        if (restore == null) {
+            states.remove(key(model));
+        } else {
+            states.put(key(model), new State(restore));
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        states.clear();
+    }
+
+    @Override
+    public Observable<String> revalidated() {
+        return revalidated.asObservable();
+    }
+
+    private String key(DomoticModel model) {
+        if (model instanceof TemperatureModel) {
+            // the value depends on the scale
+            return ((RealmModel) model).getUuid() + "|" + preferenceService.getDefaultTemperatureScale();
+        }
+        return ((RealmModel) model).getUuid();
+    }
+
+    /*
+     * Returns null if the state is unknown.
+     */
+    private Action1<DomoticModel> snapshot(DomoticModel model) {
+        if (model instanceof LightModel) {
+            LightModel.Status status = ((LightModel) model).getStatus();
+            return status == null ? null : light -> ((LightModel) light).setStatus(status);
+        }
+        if (model instanceof AutomationModel) {
+            AutomationModel.Status status = ((AutomationModel) model).getStatus();
+            return status == null ? null : automation -> ((AutomationModel) automation).setStatus(status);
+        }
+        if (model instanceof ScenarioModel) {
+            ScenarioModel.Status status = ((ScenarioModel) model).getStatus();
+            boolean enable = ((ScenarioModel) model).isEnable();
+            return status == null ? null : scenario -> {
+                ((ScenarioModel) scenario).setStatus(status);
+                ((ScenarioModel) scenario).setEnable(enable);
+            };
+        }
+        if (model instanceof SoundModel) {
+            SoundModel.Status status = ((SoundModel) model).getStatus();
+            return status == null ? null : sound -> ((SoundModel) sound).setStatus(status);
+        }
+        if (model instanceof TemperatureModel) {
+            String value = ((TemperatureModel) model).getValue();
+            return value == null ? null : temperature -> ((TemperatureModel) temperature).setValue(value);
+        }
+        if (model instanceof EnergyModel) {
+            EnergyModel energy = (EnergyModel) model;
+            String instantaneousPower = energy.getInstantaneousPower();
+            String dailyPower = energy.getDailyPower();
+            String monthlyPower = energy.getMonthlyPower();
+            return instantaneousPower == null ? null : energyModel -> {
+                ((EnergyModel) energyModel).setInstantaneousPower(instantaneousPower);
+                ((EnergyModel) energyModel).setDailyPower(dailyPower);
+                ((EnergyModel) energyModel).setMonthlyPower(monthlyPower);
+            };
+        }
+        return null;
+    }
+
+    /**
+     *
+     */
+    private static class State {
+
+        private final long timestamp = SystemClock.elapsedRealtime();
+        private final Action1<DomoticModel> restore;
+        // only one background request for each stale state
+        private final AtomicBoolean revalidating = new AtomicBoolean(false);
+
+        private State(Action1<DomoticModel> restore) {
+            this.restore = restore;
+        }
+
+        private long age() {
+            return SystemClock.elapsedRealtime() - timestamp;
+        }
+    }
+
+}
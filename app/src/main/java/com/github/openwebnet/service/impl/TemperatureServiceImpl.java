@@ -7,6 +7,7 @@ import com.github.openwebnet.model.TemperatureModel;
 import com.github.openwebnet.repository.TemperatureRepository;
 import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.PreferenceService;
+import com.github.openwebnet.service.StateService;
 import com.github.openwebnet.service.TemperatureService;
 import com.github.openwebnet.service.UtilityService;
 
@@ -22,7 +23,6 @@ import rx.Observable;
 import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Func1;
 import rx.functions.Func2;
-import rx.schedulers.Schedulers;
 
 public class TemperatureServiceImpl implements TemperatureService {
 
@@ -34,6 +34,9 @@ public class TemperatureServiceImpl implements TemperatureService {
     @Inject
     CommonService commonService;
 
+    @Inject
+    StateService stateService;
+
     @Inject
     PreferenceService preferenceService;
 
@@ -79,7 +82,7 @@ public class TemperatureServiceImpl implements TemperatureService {
     public Observable<List<TemperatureModel>> requestByEnvironment(Integer id) {
         return findByEnvironment(id)
             .flatMapIterable(temperatureModels -> temperatureModels)
-            .flatMap(requestTemperature())
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
@@ -87,10 +90,15 @@ public class TemperatureServiceImpl implements TemperatureService {
     public Observable<List<TemperatureModel>> requestFavourites() {
         return findFavourites()
             .flatMapIterable(temperatureModels -> temperatureModels)
-            .flatMap(requestTemperature())
+            .flatMap(this::requestStatus)
             .collect(ArrayList::new, List::add);
     }
 
+    @Override
+    public Observable<TemperatureModel> requestStatus(TemperatureModel temperature) {
+        return stateService.cached(requestTemperature()).call(temperature);
+    }
+
     private Func1<TemperatureModel, Observable<TemperatureModel>> requestTemperature() {
 
         final Func2<String, Heating.TemperatureScale, Heating> request = Heating::requestTemperature;
@@ -103,11 +111,11 @@ public class TemperatureServiceImpl implements TemperatureService {
             return temperature;
         };
 
-        return temperature -> commonService.findClient(temperature.getGatewayUuid())
-            .send(request.call(temperature.getWhere(), preferenceService.getDefaultTemperatureScale()))
-            .subscribeOn(Schedulers.io())
+        return temperature -> commonService
+            .send(temperature.getGatewayUuid(), request.call(temperature.getWhere(), preferenceService.getDefaultTemperatureScale()))
             .observeOn(AndroidSchedulers.mainThread())
             .map(openSession -> handler.call(openSession, temperature))
+            .doOnNext(stateService::put)
             .onErrorReturn(throwable -> {
                 log.warn("temperature={} | failing request={}", temperature.getUuid(), Heating.requestTemperature(temperature.getWhere()));
                 // unreadable temperature
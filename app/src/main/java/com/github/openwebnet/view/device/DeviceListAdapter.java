@@ -40,9 +40,11 @@ import com.github.openwebnet.service.DomoticService;
 import com.github.openwebnet.service.EnergyService;
 import com.github.openwebnet.service.IpcamService;
 import com.github.openwebnet.service.LightService;
+import com.github.openwebnet.service.MonitorService;
 import com.github.openwebnet.service.PreferenceService;
 import com.github.openwebnet.service.ScenarioService;
 import com.github.openwebnet.service.SoundService;
+import com.github.openwebnet.service.StateService;
 import com.github.openwebnet.service.TemperatureService;
 import com.github.openwebnet.service.UtilityService;
 import com.github.openwebnet.view.custom.TextViewCustom;
@@ -52,7 +54,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.threeten.bp.temporal.ChronoUnit;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import javax.inject.Inject;
 
@@ -61,9 +66,11 @@ import butterknife.BindDrawable;
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import rx.Observable;
+import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Action0;
 import rx.functions.Action2;
 import rx.functions.Func1;
+import rx.subscriptions.CompositeSubscription;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -104,11 +111,20 @@ public class DeviceListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     @Inject
     UtilityService utilityService;
 
+    @Inject
+    MonitorService monitorService;
+
+    @Inject
+    StateService stateService;
+
     // NO @Inject: need activity to show AppCompactDialog
     Context mContext;
 
     private final Integer mEnvironmentId;
     private List<DomoticModel> mItems;
+    private CompositeSubscription subscriptions;
+    // items waiting for their status: not rendered as unreadable
+    private final Set<DomoticModel> pendingItems = Collections.newSetFromMap(new IdentityHashMap<>());
 
     public DeviceListAdapter(Context context, Integer environmentId, List<DomoticModel> items) {
         Injector.getApplicationComponent().inject(this);
@@ -514,6 +530,22 @@ public class DeviceListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             default:
                 throw new IllegalStateException("invalid item position");
         }
+        if (holder instanceof CommonViewHolder && pendingItems.contains(mItems.get(position))) {
+            ((CommonViewHolder) holder).imageViewCardAlert.setVisibility(View.INVISIBLE);
+        }
+    }
+
+    public void setPendingItems(List<DomoticModel> items) {
+        pendingItems.clear();
+        pendingItems.addAll(items);
+    }
+
+    public void removePendingItem(DomoticModel item) {
+        pendingItems.remove(item);
+    }
+
+    public boolean isPendingItem(DomoticModel item) {
+        return pendingItems.contains(item);
     }
 
     @Override
@@ -521,6 +553,52 @@ public class DeviceListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
         return mItems.size() > 0 ? mItems.size() : 1;
     }
 
+    /*
+     * The event sessions stay open while the list is visible.
+     */
+    @Override
+    public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        subscriptions = new CompositeSubscription();
+        subscriptions.add(monitorService.observe()
+            .onBackpressureBuffer()
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(this::onMonitorEvent, throwable -> log.error("monitor", throwable)));
+        subscriptions.add(stateService.revalidated()
+            .onBackpressureBuffer()
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(this::onRevalidated, throwable -> log.error("revalidated", throwable)));
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        if (subscriptions != null) {
+            subscriptions.unsubscribe();
+            subscriptions = null;
+        }
+        super.onDetachedFromRecyclerView(recyclerView);
+    }
+
+    // the stale item has been updated in background
+    private void onRevalidated(String uuid) {
+        for (int i = 0; i < mItems.size(); i++) {
+            if (uuid.equals(((RealmModel) mItems.get(i)).getUuid())) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+
+    // the cached state is replaced too: the list restores it when it's loaded again within the ttl
+    private void onMonitorEvent(String gatewayUuid) {
+        for (int i = 0; i < mItems.size(); i++) {
+            DomoticModel item = mItems.get(i);
+            if (gatewayUuid.equals(item.getGatewayUuid()) && monitorService.update(item)) {
+                stateService.put(item);
+                notifyItemChanged(i);
+            }
+        }
+    }
+
     /* Device */
 
     private void initCardDevice(DeviceViewHolder holder, DeviceModel device) {
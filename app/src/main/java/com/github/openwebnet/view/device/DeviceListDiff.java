@@ -0,0 +1,165 @@
+package com.github.openwebnet.view.device;
+
+import android.support.v7.util.DiffUtil;
+import android.support.v7.widget.RecyclerView;
+
+import com.github.openwebnet.model.AutomationModel;
+import com.github.openwebnet.model.DeviceModel;
+import com.github.openwebnet.model.DomoticModel;
+import com.github.openwebnet.model.EnergyModel;
+import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.RealmModel;
+import com.github.openwebnet.model.ScenarioModel;
+import com.github.openwebnet.model.SoundModel;
+import com.github.openwebnet.model.TemperatureModel;
+import com.github.openwebnet.model.firestore.FirestoreModel;
+import com.google.common.base.Objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Minimal changes between the rendered cards and the ones just loaded, keyed by uuid.
+ *
+ * A card whose configuration has not changed keeps the rendered instance with its state,
+ * the other cards are new instances waiting for their status.
+ * Keys and contents are read on the main thread, where the models are updated,
+ * so that only the diff runs in background.
+ */
+class DeviceListDiff {
+
+    private final List<DomoticModel> items = new ArrayList<>();
+    private final List<DomoticModel> pendingItems = new ArrayList<>();
+
+    private final List<String> oldKeys = new ArrayList<>();
+    private final List<Object> oldContents = new ArrayList<>();
+    private final List<String> newKeys = new ArrayList<>();
+    private final List<Object> newContents = new ArrayList<>();
+
+    private DiffUtil.DiffResult result;
+
+    DeviceListDiff(List<DomoticModel> oldItems, List<DomoticModel> loadedItems) {
+        Map<String, DomoticModel> rendered = new HashMap<>();
+        for (DomoticModel item : oldItems) {
+            rendered.put(key(item), item);
+            oldKeys.add(key(item));
+            oldContents.add(content(item));
+        }
+
+        Set<DomoticModel> reused = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DomoticModel loadedItem : loadedItems) {
+            DomoticModel item = rendered.get(key(loadedItem));
+            if (item != null && !reused.contains(item) && configuration(item).equals(configuration(loadedItem))) {
+                reused.add(item);
+                items.add(item);
+            } else {
+                items.add(loadedItem);
+                pendingItems.add(loadedItem);
+            }
+        }
+
+        for (DomoticModel item : items) {
+            newKeys.add(key(item));
+            newContents.add(content(item));
+        }
+    }
+
+    /*
+     * Background thread.
+     */
+    DeviceListDiff calculate() {
+        this.result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+
+            @Override
+            public int getOldListSize() {
+                return oldKeys.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newKeys.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldKeys.get(oldItemPosition).equals(newKeys.get(newItemPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldContents.get(oldItemPosition).equals(newContents.get(newItemPosition));
+            }
+        });
+        return this;
+    }
+
+    List<DomoticModel> getItems() {
+        return items;
+    }
+
+    List<DomoticModel> getPendingItems() {
+        return pendingItems;
+    }
+
+    void dispatchUpdatesTo(RecyclerView.Adapter adapter) {
+        // the empty list is rendered as a single card
+        if (result == null || oldKeys.isEmpty() || newKeys.isEmpty()) {
+            adapter.notifyDataSetChanged();
+        } else {
+            result.dispatchUpdatesTo(adapter);
+        }
+    }
+
+    private static String key(DomoticModel item) {
+        return item.getClass().getSimpleName() + "|" + ((RealmModel) item).getUuid();
+    }
+
+    // persisted fields
+    private static Map<String, Object> configuration(DomoticModel item) {
+        return ((FirestoreModel<?>) item).toMap();
+    }
+
+    private static Object content(DomoticModel item) {
+        return Arrays.asList(configuration(item), state(item));
+    }
+
+    /*
+     * Fields read from the gateway.
+     */
+    static Object state(DomoticModel item) {
+        if (item instanceof LightModel) {
+            return ((LightModel) item).getStatus();
+        }
+        if (item instanceof AutomationModel) {
+            return ((AutomationModel) item).getStatus();
+        }
+        if (item instanceof ScenarioModel) {
+            return Arrays.asList(((ScenarioModel) item).getStatus(), ((ScenarioModel) item).isEnable());
+        }
+        if (item instanceof SoundModel) {
+            return ((SoundModel) item).getStatus();
+        }
+        if (item instanceof TemperatureModel) {
+            return ((TemperatureModel) item).getValue();
+        }
+        if (item instanceof EnergyModel) {
+            EnergyModel energy = (EnergyModel) item;
+            return Arrays.asList(energy.getInstantaneousPower(), energy.getDailyPower(), energy.getMonthlyPower());
+        }
+        if (item instanceof DeviceModel) {
+            return Arrays.asList(((DeviceModel) item).getStatus(), ((DeviceModel) item).getResponseDebug());
+        }
+        return null;
+    }
+
+    static boolean hasSameState(Object state, DomoticModel item) {
+        return Objects.equal(state, state(item));
+    }
+
+}
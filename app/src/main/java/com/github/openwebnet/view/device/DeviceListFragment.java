@@ -30,6 +30,7 @@ import com.github.openwebnet.service.IpcamService;
 import com.github.openwebnet.service.LightService;
 import com.github.openwebnet.service.ScenarioService;
 import com.github.openwebnet.service.SoundService;
+import com.github.openwebnet.service.StateService;
 import com.github.openwebnet.service.TemperatureService;
 import com.github.openwebnet.view.MainActivity;
 import com.google.common.collect.Iterables;
@@ -41,6 +42,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -49,6 +51,9 @@ import butterknife.BindView;
 import butterknife.ButterKnife;
 import butterknife.Unbinder;
 import rx.Observable;
+import rx.Subscription;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.schedulers.Schedulers;
 
 import static com.github.openwebnet.view.NavigationViewItemSelectedListener.MENU_FAVOURITE;
 
@@ -88,11 +93,15 @@ public class DeviceListFragment extends Fragment {
     @Inject
     SoundService soundService;
 
+    @Inject
+    StateService stateService;
+
     private Unbinder unbinder;
 
     private RecyclerView.LayoutManager mLayoutManager;
-    private RecyclerView.Adapter mAdapter;
+    private DeviceListAdapter mAdapter;
     private List<DomoticModel> domoticItems = new ArrayList<>();
+    private Subscription statusSubscription;
 
     @Nullable
     @Override
@@ -108,8 +117,11 @@ public class DeviceListFragment extends Fragment {
         mRecyclerView.setAdapter(mAdapter);
 
         swipeRefreshLayoutDeviceList.setColorSchemeResources(R.color.primary, R.color.yellow_a400, R.color.accent);
-        swipeRefreshLayoutDeviceList.setOnRefreshListener(() ->
-            EventBus.getDefault().post(new UpdateDeviceListEvent(getArguments().getInt(ARG_ENVIRONMENT))));
+        swipeRefreshLayoutDeviceList.setOnRefreshListener(() -> {
+            // explicit refresh: request every device
+            stateService.invalidate();
+            EventBus.getDefault().post(new UpdateDeviceListEvent(getArguments().getInt(ARG_ENVIRONMENT)));
+        });
 
         return view;
     }
@@ -146,6 +158,7 @@ public class DeviceListFragment extends Fragment {
 
     @Override
     public void onDestroyView() {
+        unsubscribeStatus();
         super.onDestroyView();
         unbinder.unbind();
     }
@@ -172,6 +185,10 @@ public class DeviceListFragment extends Fragment {
         initCards(event.getEnvironmentId());
     }
 
+    /*
+     * Cards are rendered as soon as they are loaded from the database,
+     * then each card is patched when the status of its device arrives.
+     */
     public void initCards(int environmentId) {
         final boolean isFavouriteMenu = environmentId == MENU_FAVOURITE;
         showLoader(true, isFavouriteMenu);
@@ -180,37 +197,116 @@ public class DeviceListFragment extends Fragment {
         Observable<List<IpcamModel>> findIpcams = isFavouriteMenu ? ipcamService.findFavourites() :
             ipcamService.findByEnvironment(environmentId);
 
-        Observable<List<TemperatureModel>> requestTemperatures = isFavouriteMenu ? temperatureService.requestFavourites() :
-            temperatureService.requestByEnvironment(environmentId);
+        Observable<List<TemperatureModel>> findTemperatures = isFavouriteMenu ? temperatureService.findFavourites() :
+            temperatureService.findByEnvironment(environmentId);
 
-        Observable<List<EnergyModel>> requestEnergies = isFavouriteMenu ? energyService.requestFavourites() :
-            energyService.requestByEnvironment(environmentId);
+        Observable<List<EnergyModel>> findEnergies = isFavouriteMenu ? energyService.findFavourites() :
+            energyService.findByEnvironment(environmentId);
 
-        Observable<List<LightModel>> requestLights = isFavouriteMenu ? lightService.requestFavourites() :
-            lightService.requestByEnvironment(environmentId);
+        Observable<List<LightModel>> findLights = isFavouriteMenu ? lightService.findFavourites() :
+            lightService.findByEnvironment(environmentId);
 
-        Observable<List<AutomationModel>> requestAutomations = isFavouriteMenu ? automationService.requestFavourites() :
-            automationService.requestByEnvironment(environmentId);
+        Observable<List<AutomationModel>> findAutomations = isFavouriteMenu ? automationService.findFavourites() :
+            automationService.findByEnvironment(environmentId);
 
-        Observable<List<ScenarioModel>> requestScenarios = isFavouriteMenu ? scenarioService.requestFavourites() :
-            scenarioService.requestByEnvironment(environmentId);
+        Observable<List<ScenarioModel>> findScenarios = isFavouriteMenu ? scenarioService.findFavourites() :
+            scenarioService.findByEnvironment(environmentId);
 
-        Observable<List<SoundModel>> requestSounds = isFavouriteMenu ? soundService.requestFavourites() :
-            soundService.requestByEnvironment(environmentId);
+        Observable<List<SoundModel>> findSounds = isFavouriteMenu ? soundService.findFavourites() :
+            soundService.findByEnvironment(environmentId);
 
-        Observable<List<DeviceModel>> requestDevices = isFavouriteMenu ? deviceService.requestFavourites() :
-            deviceService.requestByEnvironment(environmentId);
+        Observable<List<DeviceModel>> findDevices = isFavouriteMenu ? deviceService.findFavourites() :
+            deviceService.findByEnvironment(environmentId);
 
-        Observable.zip(findIpcams, requestTemperatures, requestEnergies, requestLights, requestAutomations, requestScenarios, requestSounds, requestDevices,
+        unsubscribeStatus();
+        statusSubscription = Observable.zip(findIpcams, findTemperatures, findEnergies, findLights, findAutomations, findScenarios, findSounds, findDevices,
             (ipcams, temperatures, energies, lights, automations, scenarios, sounds, devices) ->
                 Lists.<DomoticModel>newArrayList(Iterables.concat(ipcams, temperatures, energies, lights, automations, scenarios, sounds, devices)))
-            .doOnError(throwable -> log.error("ERROR initCards", throwable))
-            .subscribe(results -> {
-                showLoader(false, isFavouriteMenu);
+            .map(results -> new DeviceListDiff(domoticItems, results))
+            .observeOn(Schedulers.io())
+            .map(DeviceListDiff::calculate)
+            .observeOn(AndroidSchedulers.mainThread())
+            .doOnNext(diff -> {
+                showCards(isFavouriteMenu);
                 domoticItems.clear();
-                domoticItems.addAll(results);
-                mAdapter.notifyDataSetChanged();
-            });
+                domoticItems.addAll(diff.getItems());
+                mAdapter.setPendingItems(diff.getPendingItems());
+                diff.dispatchUpdatesTo(mAdapter);
+            })
+            .flatMapIterable(DeviceListDiff::getItems)
+            .flatMap(this::requestStatusChange)
+            .subscribe(
+                this::onStatus,
+                throwable -> {
+                    log.error("ERROR initCards", throwable);
+                    onStatusCompleted(isFavouriteMenu);
+                },
+                () -> onStatusCompleted(isFavouriteMenu));
+    }
+
+    // cards already rendered with the same state are not bound again
+    private Observable<? extends DomoticModel> requestStatusChange(DomoticModel item) {
+        final Object state = DeviceListDiff.state(item);
+        return requestStatus(item)
+            .filter(updated -> mAdapter.isPendingItem(updated) || !DeviceListDiff.hasSameState(state, updated));
+    }
+
+    private Observable<? extends DomoticModel> requestStatus(DomoticModel item) {
+        if (item instanceof TemperatureModel) {
+            return temperatureService.requestStatus((TemperatureModel) item);
+        }
+        if (item instanceof EnergyModel) {
+            return energyService.requestStatus((EnergyModel) item);
+        }
+        if (item instanceof LightModel) {
+            return lightService.requestStatus((LightModel) item);
+        }
+        if (item instanceof AutomationModel) {
+            return automationService.requestStatus((AutomationModel) item);
+        }
+        if (item instanceof ScenarioModel) {
+            return scenarioService.requestStatus((ScenarioModel) item);
+        }
+        if (item instanceof SoundModel) {
+            return soundService.requestStatus((SoundModel) item);
+        }
+        if (item instanceof DeviceModel) {
+            return deviceService.requestStatus((DeviceModel) item);
+        }
+        // ipcam
+        return Observable.empty();
+    }
+
+    // the item is updated in place
+    private void onStatus(DomoticModel item) {
+        // not found if the list has been reloaded in the meantime
+        int position = domoticItems.indexOf(item);
+        if (position >= 0) {
+            mAdapter.removePendingItem(item);
+            mAdapter.notifyItemChanged(position);
+        }
+    }
+
+    private void onStatusCompleted(boolean isFavouriteMenu) {
+        mAdapter.setPendingItems(Collections.emptyList());
+        showLoader(false, isFavouriteMenu);
+    }
+
+    private void unsubscribeStatus() {
+        if (statusSubscription != null) {
+            statusSubscription.unsubscribe();
+            statusSubscription = null;
+        }
+    }
+
+    private void showCards(boolean isFavouriteMenu) {
+        // mRecyclerView is null if user select another menu while is still loading
+        if (mRecyclerView != null) {
+            mRecyclerView.setVisibility(View.VISIBLE);
+            if (!isFavouriteMenu) {
+                EventBus.getDefault().post(new MainActivity.OnChangeFabVisibilityEvent(true));
+            }
+        }
     }
 
     private void showLoader(boolean refreshing, boolean isFavouriteMenu) {
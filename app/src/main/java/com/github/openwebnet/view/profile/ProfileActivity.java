@@ -1,5 +1,10 @@
 package com.github.openwebnet.view.profile;
 
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
 import android.os.Bundle;
 import android.support.design.widget.Snackbar;
 import android.support.v4.widget.SwipeRefreshLayout;
@@ -22,7 +27,6 @@ import com.github.openwebnet.service.FirebaseService;
 import com.github.openwebnet.service.PreferenceService;
 import com.github.openwebnet.service.UtilityService;
 import com.github.openwebnet.view.MainActivity;
-import com.google.common.collect.Lists;
 import com.google.firebase.firestore.DocumentReference;
 import com.leinardi.android.speeddial.SpeedDialActionItem;
 import com.leinardi.android.speeddial.SpeedDialView;
@@ -74,9 +78,19 @@ public class ProfileActivity extends AppCompatActivity {
     @Inject
     UtilityService utilityService;
 
+    // the firestore network is global: turned on again as soon as a connection is available
+    private final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onAvailable(Network network) {
+            log.info("network available: firestore online");
+            firebaseService.setOnline(true);
+        }
+    };
+
     private RecyclerView.Adapter mAdapter;
     private RecyclerView.LayoutManager mLayoutManager;
     private List<UserProfileModel> profileItems = new ArrayList<>();
+    private Snackbar progressSnackbar;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -148,6 +162,9 @@ public class ProfileActivity extends AppCompatActivity {
     public void onStart() {
         super.onStart();
         EventBus.getDefault().register(this);
+        getConnectivityManager().registerNetworkCallback(new NetworkRequest.Builder()
+            .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+            .build(), networkCallback);
     }
 
     @Override
@@ -159,10 +176,22 @@ public class ProfileActivity extends AppCompatActivity {
 
     @Override
     public void onStop() {
+        getConnectivityManager().unregisterNetworkCallback(networkCallback);
         EventBus.getDefault().unregister(this);
         super.onStop();
     }
 
+    @Override
+    protected void onDestroy() {
+        // never leave the other screens offline
+        firebaseService.setOnline(true);
+        super.onDestroy();
+    }
+
+    private ConnectivityManager getConnectivityManager() {
+        return (ConnectivityManager) getSystemService(Context.CONNECTIVITY_SERVICE);
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         switch (item.getItemId()) {
@@ -292,27 +321,26 @@ public class ProfileActivity extends AppCompatActivity {
     private <T> void requestAction(Func0<Observable<T>> observableAction, Action1<T> onSuccess) {
         hideActions();
 
-        if (utilityService.hasInternetAccess()) {
-            observableAction.call()
-                // better UX
-                .delay(1 , TimeUnit.SECONDS)
-                // max http timeout
-                .timeout(5, TimeUnit.SECONDS)
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(onSuccess, error -> {
-                    swipeRefreshLayoutProfile.setRefreshing(false);
-                    log.error("requestAction: request failed", error);
-                    showSnackbar(R.string.error_request);
-                });
-        } else {
-            // show empty list
-            updateProfiles(Lists.newArrayList());
-            // hide
-            speedDialProfile.hide();
-            log.warn("requestAction: connection unavailable");
-            showSnackbar(R.string.error_connection);
+        boolean online = utilityService.hasInternetAccess();
+        // offline the profiles in the local cache are used and the changes are sent when reconnected
+        firebaseService.setOnline(online);
+        if (!online) {
+            log.warn("requestAction: connection unavailable, offline mode");
+            showSnackbar(R.string.info_profile_offline);
         }
+
+        observableAction.call()
+            // better UX
+            .delay(1 , TimeUnit.SECONDS)
+            // max http timeout
+            .timeout(5, TimeUnit.SECONDS)
+            .subscribeOn(Schedulers.io())
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(onSuccess, error -> {
+                swipeRefreshLayoutProfile.setRefreshing(false);
+                log.error("requestAction: request failed", error);
+                showSnackbar(online ? R.string.error_request : R.string.error_connection);
+            });
     }
 
     private void testQuery() {
@@ -384,6 +412,17 @@ public class ProfileActivity extends AppCompatActivity {
         Snackbar.make(findViewById(android.R.id.content), utilityService.getString(stringId), Snackbar.LENGTH_LONG).show();
     }
 
+    private void showProgress(int progress) {
+        String text = getString(R.string.info_profile_apply_progress, progress);
+        // replaced by any other snackbar e.g. on error
+        if (progressSnackbar == null || !progressSnackbar.isShownOrQueued()) {
+            progressSnackbar = Snackbar.make(findViewById(android.R.id.content), text, Snackbar.LENGTH_INDEFINITE);
+            progressSnackbar.show();
+        } else {
+            progressSnackbar.setText(text);
+        }
+    }
+
     /**
      *
      */
@@ -456,6 +495,24 @@ public class ProfileActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     *
+     */
+    public static class OnShowProgressEvent {
+
+        private final int progress;
+
+        public OnShowProgressEvent(int progress) {
+            this.progress = progress;
+        }
+    }
+
+    // fired by ProfileAdapter
+    @Subscribe
+    public void onEvent(OnShowProgressEvent event) {
+        showProgress(event.progress);
+    }
+
     /**
      *
      */
@@ -170,6 +170,8 @@ public class ProfileAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
     private void showProfileCardMenu(View view, UserProfileModel profile) {
         PopupMenu popupMenu = new PopupMenu(mActivity, view);
         popupMenu.getMenuInflater().inflate(R.menu.menu_profile_card, popupMenu.getMenu());
+        // only the owner can write the profile
+        popupMenu.getMenu().findItem(R.id.action_profile_card_update).setVisible(!profile.isSharedFrom());
         popupMenu.show();
         popupMenu.setOnMenuItemClickListener(item -> {
             int id = item.getItemId();
@@ -181,6 +183,12 @@ public class ProfileAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
                         R.string.dialog_profile_switch_message,
                         () -> switchProfile(profile)));
                     break;
+                case R.id.action_profile_card_update:
+                    EventBus.getDefault().post(new ProfileActivity.OnShowConfirmationDialogEvent(
+                        R.string.dialog_profile_update_title,
+                        R.string.dialog_profile_update_message,
+                        () -> updateProfile(profile)));
+                    break;
                 case R.id.action_profile_card_rename:
                     EventBus.getDefault().post(new ProfileActivity.OnShowEditDialogEvent(profile,
                         ProfileActivity.OnShowEditDialogEvent.Type.RENAME));
@@ -202,13 +210,26 @@ public class ProfileAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
 
     private void switchProfile(UserProfileModel profile) {
         EventBus.getDefault().post(new ProfileActivity.OnRequestActionEvent<>(
-            () -> firebaseService.switchProfile(profile.getProfileRef()), aVoid -> {
+            () -> firebaseService.switchProfile(profile.getProfileRef()), progress -> {
+            if (progress < 100) {
+                EventBus.getDefault().post(new ProfileActivity.OnShowProgressEvent(progress));
+                return;
+            }
             log.info("switchProfile succeeded: terminating");
             mActivity.setResult(MainActivity.RESULT_CODE_PROFILE_RESET);
             mActivity.finish();
         }));
     }
 
+    private void updateProfile(UserProfileModel profile) {
+        EventBus.getDefault().post(new ProfileActivity.OnRequestActionEvent<>(
+            () -> firebaseService.updateProfile(profile.getProfileRef())
+                .flatMap(changes -> firebaseService.getProfiles()), profiles -> {
+            log.info("updateProfile succeeded: refreshing");
+            EventBus.getDefault().post(new ProfileActivity.OnUpdateProfilesEvent(profiles));
+        }));
+    }
+
     private void deleteProfile(UserProfileModel profile) {
         EventBus.getDefault().post(new ProfileActivity.OnRequestActionEvent<>(
             () -> firebaseService.deleteProfile(profile.getProfileRef())
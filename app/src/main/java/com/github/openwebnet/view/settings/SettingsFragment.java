@@ -1,5 +1,6 @@
 package com.github.openwebnet.view.settings;
 
+import android.app.Activity;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
@@ -7,37 +8,93 @@ import android.preference.ListPreference;
 import android.preference.Preference;
 import android.preference.PreferenceFragment;
 import android.preference.PreferenceGroup;
+import android.support.v7.app.AlertDialog;
 import android.text.TextUtils;
 
 import com.annimon.stream.Optional;
 import com.annimon.stream.Stream;
 import com.github.openwebnet.R;
+import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.database.DatabaseRealm;
+import com.github.openwebnet.service.SnapshotService;
 import com.github.openwebnet.view.MainActivity;
+import com.github.openwebnet.view.NavigationViewClickListener;
 
 import org.greenrobot.eventbus.EventBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.inject.Inject;
+
+import rx.Observable;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.functions.Func0;
+import rx.schedulers.Schedulers;
+import rx.subscriptions.CompositeSubscription;
 
 import static com.github.openwebnet.view.settings.GatewayListPreference.PREF_DEFAULT_GATEWAY_VALUE;
 
 public class SettingsFragment extends PreferenceFragment {
 
+    private static final Logger log = LoggerFactory.getLogger(SettingsFragment.class);
+
+    private static final int REQUEST_CODE_SNAPSHOT_EXPORT = 201;
+    private static final int REQUEST_CODE_SNAPSHOT_IMPORT = 202;
+    private static final String SNAPSHOT_MIME_TYPE = "application/octet-stream";
+    private static final String SNAPSHOT_FILE_NAME = "openwebnet-%s.snapshot";
+
+    public static final String PREF_KEY_GATEWAY_MAX_REQUESTS = "com.github.openwebnet_preferences.PREF_KEY_GATEWAY_MAX_REQUESTS";
+    public static final String PREF_KEY_GATEWAY_STATE_CACHE = "com.github.openwebnet_preferences.PREF_KEY_GATEWAY_STATE_CACHE";
     public static final String PREF_KEY_TEMPERATURE = "com.github.openwebnet_preferences.PREF_KEY_TEMPERATURE";
+    public static final String PREF_KEY_SNAPSHOT_EXPORT = "com.github.openwebnet_preferences.PREF_KEY_SNAPSHOT_EXPORT";
+    public static final String PREF_KEY_SNAPSHOT_IMPORT = "com.github.openwebnet_preferences.PREF_KEY_SNAPSHOT_IMPORT";
     public static final String PREF_KEY_DEBUG_DEVICE = "com.github.openwebnet_preferences.PREF_KEY_DEBUG_DEVICE";
+    public static final String PREF_KEY_DEBUG_DATABASE_BENCHMARK = "com.github.openwebnet_preferences.PREF_KEY_DEBUG_DATABASE_BENCHMARK";
+    public static final String PREF_KEY_DEBUG_DATABASE_FILE = "com.github.openwebnet_preferences.PREF_KEY_DEBUG_DATABASE_FILE";
+    public static final String PREF_KEY_DEBUG_DATABASE_COMPACTION = "com.github.openwebnet_preferences.PREF_KEY_DEBUG_DATABASE_COMPACTION";
+    public static final String PREF_KEY_DEBUG_CODEC_BENCHMARK = "com.github.openwebnet_preferences.PREF_KEY_DEBUG_CODEC_BENCHMARK";
     public static final String PREF_KEY_TERMS_CONDITIONS = "com.github.openwebnet_preferences.PREF_KEY_TERMS_CONDITIONS";
     public static final String PREF_KEY_PRIVACY_POLICY = "com.github.openwebnet_preferences.PREF_KEY_PRIVACY_POLICY";
 
+    @Inject
+    SnapshotService snapshotService;
+
+    @Inject
+    DatabaseRealm databaseRealm;
+
+    // the callbacks change the preferences: they are dropped when the fragment is destroyed
+    private final CompositeSubscription subscriptions = new CompositeSubscription();
+
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        Injector.getApplicationComponent().inject(this);
         addPreferencesFromResource(R.xml.settings);
+        // empty in release
+        addPreferencesFromResource(R.xml.settings_debug);
         updatePreferenceSummary(getPreferenceScreen());
+        initGatewayMaxRequestsChange();
+        initGatewayStateCacheChange();
         initTemperatureChange();
+        initSnapshot();
         initDebug();
         initInfoUrl();
     }
 
+    @Override
+    public void onDestroy() {
+        subscriptions.unsubscribe();
+        super.onDestroy();
+    }
+
     private void updatePreferenceSummary(Preference preference) {
         if (preference instanceof PreferenceGroup) {
             PreferenceGroup preferenceGroup = (PreferenceGroup) preference;
@@ -60,6 +117,23 @@ public class SettingsFragment extends PreferenceFragment {
         }
     }
 
+    private void initGatewayMaxRequestsChange() {
+        getPreferenceScreen().findPreference(PREF_KEY_GATEWAY_MAX_REQUESTS)
+            .setOnPreferenceChangeListener((preference, newValue) -> {
+                preference.setSummary((String) newValue);
+                return true;
+            });
+    }
+
+    private void initGatewayStateCacheChange() {
+        getPreferenceScreen().findPreference(PREF_KEY_GATEWAY_STATE_CACHE)
+            .setOnPreferenceChangeListener((preference, newValue) -> {
+                ListPreference listPreference = (ListPreference) preference;
+                preference.setSummary(listPreference.getEntries()[listPreference.findIndexOfValue((String) newValue)]);
+                return true;
+            });
+    }
+
     private void initTemperatureChange() {
         getPreferenceScreen().findPreference(PREF_KEY_TEMPERATURE)
             .setOnPreferenceChangeListener((preference, newValue) -> {
@@ -76,6 +150,70 @@ public class SettingsFragment extends PreferenceFragment {
             });
     }
 
+    private void initSnapshot() {
+        getPreferenceScreen().findPreference(PREF_KEY_SNAPSHOT_EXPORT)
+            .setOnPreferenceClickListener(preference -> {
+                String date = new SimpleDateFormat("yyyyMMdd-HHmm", Locale.US).format(new Date());
+                Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT)
+                    .addCategory(Intent.CATEGORY_OPENABLE)
+                    .setType(SNAPSHOT_MIME_TYPE)
+                    .putExtra(Intent.EXTRA_TITLE, String.format(SNAPSHOT_FILE_NAME, date));
+                startActivityForResult(intent, REQUEST_CODE_SNAPSHOT_EXPORT);
+                return true;
+            });
+
+        getPreferenceScreen().findPreference(PREF_KEY_SNAPSHOT_IMPORT)
+            .setOnPreferenceClickListener(preference -> {
+                new AlertDialog.Builder(getActivity())
+                    .setTitle(R.string.settings_snapshot_import_title)
+                    .setMessage(R.string.dialog_snapshot_import_message)
+                    .setNegativeButton(android.R.string.cancel, null)
+                    .setPositiveButton(android.R.string.ok, (dialog, which) -> {
+                        Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT)
+                            .addCategory(Intent.CATEGORY_OPENABLE)
+                            .setType("*/*");
+                        startActivityForResult(intent, REQUEST_CODE_SNAPSHOT_IMPORT);
+                    })
+                    .show();
+                return true;
+            });
+    }
+
+    @Override
+    public void onActivityResult(int requestCode, int resultCode, Intent data) {
+        if (resultCode != Activity.RESULT_OK || data == null || data.getData() == null) {
+            super.onActivityResult(requestCode, resultCode, data);
+            return;
+        }
+
+        if (requestCode == REQUEST_CODE_SNAPSHOT_EXPORT) {
+            runSnapshot(PREF_KEY_SNAPSHOT_EXPORT, R.string.settings_snapshot_export_summary,
+                R.string.settings_snapshot_export_done, snapshotService.exportSnapshot(data.getData()));
+        } else if (requestCode == REQUEST_CODE_SNAPSHOT_IMPORT) {
+            runSnapshot(PREF_KEY_SNAPSHOT_IMPORT, R.string.settings_snapshot_import_summary,
+                R.string.settings_snapshot_import_done, snapshotService.importSnapshot(data.getData())
+                    .doOnCompleted(() -> EventBus.getDefault().post(new NavigationViewClickListener.OnReloadDrawerEvent())));
+        } else {
+            super.onActivityResult(requestCode, resultCode, data);
+        }
+    }
+
+    // the number of entries replaces the summary
+    private void runSnapshot(String key, int summaryId, int doneId, Observable<Integer> snapshot) {
+        Preference preference = getPreferenceScreen().findPreference(key);
+        preference.setEnabled(false);
+        preference.setSummary(R.string.settings_snapshot_running);
+        // cache: the snapshot is completed even if the fragment is destroyed in the meantime
+        subscriptions.add(snapshot.cache().subscribe(entries -> {
+            preference.setEnabled(true);
+            preference.setSummary(getString(doneId, entries));
+        }, throwable -> {
+            log.error("snapshot failed: {}", key, throwable);
+            preference.setEnabled(true);
+            preference.setSummary(getString(summaryId) + "\n" + getString(R.string.settings_snapshot_failed));
+        }));
+    }
+
     private void initDebug() {
         getPreferenceScreen().findPreference(PREF_KEY_DEBUG_DEVICE)
             .setOnPreferenceChangeListener((preference, newValue) -> {
@@ -83,6 +221,40 @@ public class SettingsFragment extends PreferenceFragment {
                     .OnChangePreferenceDeviceDebugEvent((Boolean) newValue));
                 return true;
             });
+
+        initBenchmark(PREF_KEY_DEBUG_DATABASE_FILE, databaseRealm::getFileReport);
+
+        // explicit, the report never compacts
+        initAction(PREF_KEY_DEBUG_DATABASE_COMPACTION, databaseRealm::compact);
+
+        for (Map.Entry<String, Callable<String>> benchmark : DebugBenchmarks.getBenchmarks().entrySet()) {
+            initBenchmark(benchmark.getKey(), benchmark.getValue());
+        }
+    }
+
+    private void initBenchmark(String key, Callable<String> benchmark) {
+        initAction(key, () -> Observable.fromCallable(benchmark).subscribeOn(Schedulers.io()));
+    }
+
+    // the result replaces the summary
+    private void initAction(String key, Func0<Observable<String>> action) {
+        getPreferenceScreen().findPreference(key)
+            .setOnPreferenceClickListener(preference -> {
+                CharSequence summary = preference.getSummary();
+                preference.setEnabled(false);
+                preference.setSummary(R.string.settings_debug_benchmark_running);
+                subscriptions.add(action.call()
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribe(result -> {
+                        preference.setEnabled(true);
+                        preference.setSummary(result);
+                    }, throwable -> {
+                        log.error("debug action failed: {}", key, throwable);
+                        preference.setEnabled(true);
+                        preference.setSummary(summary);
+                    }));
+                return true;
+            });
     }
 
     private void initInfoUrl() {
@@ -0,0 +1,18 @@
+package com.github.openwebnet.view.settings;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * The benchmarks are not shipped, see src/debug
+ */
+class DebugBenchmarks {
+
+    private DebugBenchmarks() {}
+
+    static Map<String, Callable<String>> getBenchmarks() {
+        return Collections.emptyMap();
+    }
+
+}
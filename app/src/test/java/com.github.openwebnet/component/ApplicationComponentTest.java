@@ -8,6 +8,7 @@ import com.github.openwebnet.repository.CommonRealmRepositoryTest;
 import com.github.openwebnet.repository.DomoticRepositoryTest;
 import com.github.openwebnet.repository.EnvironmentRepositoryTest;
 import com.github.openwebnet.repository.SampleRepository;
+import com.github.openwebnet.repository.SnapshotRepositoryTest;
 import com.github.openwebnet.view.MainActivityTest;
 import com.github.openwebnet.view.MainBottomSheetDialogFragmentTest;
 import com.github.openwebnet.view.NavigationViewClickListenerTest;
@@ -38,5 +39,6 @@ public interface ApplicationComponentTest extends ApplicationComponent {
     void inject(CommonRealmRepositoryTest repository);
     void inject(EnvironmentRepositoryTest repository);
     void inject(DomoticRepositoryTest repository);
+    void inject(SnapshotRepositoryTest repository);
 
 }
@@ -5,10 +5,12 @@ import android.content.Context;
 import com.github.openwebnet.service.CommonService;
 import com.github.openwebnet.service.FirebaseService;
 import com.github.openwebnet.service.PreferenceService;
+import com.github.openwebnet.service.SnapshotService;
 import com.github.openwebnet.service.UtilityService;
 import com.github.openwebnet.service.impl.CommonServiceImpl;
 import com.github.openwebnet.service.impl.FirebaseServiceImpl;
 import com.github.openwebnet.service.impl.PreferenceServiceImpl;
+import com.github.openwebnet.service.impl.SnapshotServiceImpl;
 import com.github.openwebnet.service.impl.UtilityServiceImpl;
 
 import org.robolectric.RuntimeEnvironment;
@@ -53,4 +55,10 @@ public class ApplicationContextModuleTest {
         return mock(FirebaseServiceImpl.class);
     }
 
+    @Provides
+    @Singleton
+    SnapshotService provideSnapshotService() {
+        return mock(SnapshotServiceImpl.class);
+    }
+
 }
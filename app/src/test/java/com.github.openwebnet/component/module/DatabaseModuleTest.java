@@ -7,8 +7,10 @@ import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
+import rx.schedulers.Schedulers;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @Module
 public class DatabaseModuleTest {
@@ -16,7 +18,9 @@ public class DatabaseModuleTest {
     @Provides
     @Singleton
     public DatabaseRealm provideDatabaseRealm() {
-        return mock(DatabaseRealm.class);
+        DatabaseRealm databaseRealm = mock(DatabaseRealm.class);
+        when(databaseRealm.getWriteScheduler()).thenReturn(Schedulers.immediate());
+        return databaseRealm;
     }
 
     @Provides
@@ -7,8 +7,10 @@ import com.github.openwebnet.service.EnvironmentService;
 import com.github.openwebnet.service.GatewayService;
 import com.github.openwebnet.service.IpcamService;
 import com.github.openwebnet.service.LightService;
+import com.github.openwebnet.service.MonitorService;
 import com.github.openwebnet.service.ScenarioService;
 import com.github.openwebnet.service.SoundService;
+import com.github.openwebnet.service.StateService;
 import com.github.openwebnet.service.TemperatureService;
 import com.github.openwebnet.service.impl.AutomationServiceImpl;
 import com.github.openwebnet.service.impl.EnergyServiceImpl;
@@ -16,16 +18,20 @@ import com.github.openwebnet.service.impl.EnvironmentServiceImpl;
 import com.github.openwebnet.service.impl.GatewayServiceImpl;
 import com.github.openwebnet.service.impl.IpcamServiceImpl;
 import com.github.openwebnet.service.impl.LightServiceImpl;
+import com.github.openwebnet.service.impl.MonitorServiceImpl;
 import com.github.openwebnet.service.impl.ScenarioServiceImpl;
 import com.github.openwebnet.service.impl.SoundServiceImpl;
+import com.github.openwebnet.service.impl.StateServiceImpl;
 import com.github.openwebnet.service.impl.TemperatureServiceImpl;
 
 import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
+import rx.Observable;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @Module
 public class DomoticModuleTest {
@@ -90,4 +96,21 @@ public class DomoticModuleTest {
         return mock(SoundServiceImpl.class);
     }
 
+    @Provides
+    @Singleton
+    MonitorService provideMonitorService() {
+        // no event sessions in the views under test
+        MonitorService monitorService = mock(MonitorServiceImpl.class);
+        when(monitorService.observe()).thenReturn(Observable.never());
+        return monitorService;
+    }
+
+    @Provides
+    @Singleton
+    StateService provideStateService() {
+        StateService stateService = mock(StateServiceImpl.class);
+        when(stateService.revalidated()).thenReturn(Observable.never());
+        return stateService;
+    }
+
 }
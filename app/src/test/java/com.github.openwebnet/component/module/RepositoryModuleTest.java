@@ -10,6 +10,7 @@ import com.github.openwebnet.repository.IpcamRepository;
 import com.github.openwebnet.repository.LightRepository;
 import com.github.openwebnet.repository.SampleRepository;
 import com.github.openwebnet.repository.ScenarioRepository;
+import com.github.openwebnet.repository.SnapshotRepository;
 import com.github.openwebnet.repository.SoundRepository;
 import com.github.openwebnet.repository.TemperatureRepository;
 import com.github.openwebnet.repository.impl.AutomationRepositoryImpl;
@@ -21,6 +22,7 @@ import com.github.openwebnet.repository.impl.GatewayRepositoryImpl;
 import com.github.openwebnet.repository.impl.IpcamRepositoryImpl;
 import com.github.openwebnet.repository.impl.LightRepositoryImpl;
 import com.github.openwebnet.repository.impl.ScenarioRepositoryImpl;
+import com.github.openwebnet.repository.impl.SnapshotRepositoryImpl;
 import com.github.openwebnet.repository.impl.SoundRepositoryImpl;
 import com.github.openwebnet.repository.impl.TemperatureRepositoryImpl;
 
@@ -112,4 +114,10 @@ public class RepositoryModuleTest {
         return isMocked ? mock(FirestoreRepositoryImpl.class) : new FirestoreRepositoryImpl();
     }
 
+    @Provides
+    @Singleton
+    SnapshotRepository provideSnapshot() {
+        return isMocked ? mock(SnapshotRepositoryImpl.class) : new SnapshotRepositoryImpl();
+    }
+
 }
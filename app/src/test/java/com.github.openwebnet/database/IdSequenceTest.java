@@ -0,0 +1,68 @@
+package com.github.openwebnet.database;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class IdSequenceTest {
+
+    @Test
+    public void idSequence_reserveBlocks() {
+        List<Integer> allocations = new ArrayList<>();
+        IdSequence sequence = new IdSequence(blockSize -> {
+            int first = 100 + allocations.size() * blockSize;
+            allocations.add(first);
+            return first;
+        }, 3);
+
+        for (int i = 0; i < 7; i++) {
+            assertEquals("invalid id", 100 + i, sequence.next());
+        }
+        assertEquals("invalid allocations", 3, allocations.size());
+    }
+
+    @Test
+    public void idSequence_reset() {
+        AtomicInteger max = new AtomicInteger(100);
+        IdSequence sequence = new IdSequence(blockSize -> max.getAndAdd(blockSize), 10);
+
+        assertEquals("invalid id", 100, sequence.next());
+        max.set(200);
+        sequence.reset();
+        assertEquals("invalid id", 200, sequence.next());
+        assertEquals("invalid id", 201, sequence.next());
+    }
+
+    @Test
+    public void idSequence_concurrent() throws InterruptedException {
+        AtomicInteger max = new AtomicInteger(0);
+        IdSequence sequence = new IdSequence(blockSize -> max.getAndAdd(blockSize), 5);
+
+        Set<Integer> ids = Collections.synchronizedSet(new HashSet<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    ids.add(sequence.next());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals("duplicated ids", 4000, ids.size());
+        assertEquals("ids skipped", 4000, max.get());
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.github.openwebnet.database;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class QueryCacheTest {
+
+    @Test
+    public void queryCache_hit() {
+        QueryCache queryCache = new QueryCache();
+        List<String> items = Arrays.asList("a", "b");
+
+        assertNull("should miss", queryCache.get(String.class, "field", 1, "name"));
+        queryCache.put(String.class, "field", 1, "name", queryCache.version(String.class), items);
+
+        List<String> cached = queryCache.get(String.class, "field", 1, "name");
+        assertEquals("invalid items", items, cached);
+        assertNotSame("should be a new list", items, cached);
+        assertNull("invalid key", queryCache.get(String.class, "field", 2, "name"));
+
+        assertEquals("invalid hits", 1, queryCache.getHitCount());
+        assertEquals("invalid misses", 2, queryCache.getMissCount());
+    }
+
+    @Test
+    public void queryCache_invalidate() {
+        QueryCache queryCache = new QueryCache();
+        queryCache.put(String.class, "field", 1, null, queryCache.version(String.class), Arrays.asList("a"));
+        queryCache.put(Integer.class, "field", 1, null, queryCache.version(Integer.class), Arrays.asList(1));
+
+        queryCache.invalidate(String.class);
+
+        assertNull("should be invalidated", queryCache.get(String.class, "field", 1, null));
+        assertEquals("other classes should be cached", Arrays.asList(1), queryCache.get(Integer.class, "field", 1, null));
+    }
+
+    @Test
+    public void queryCache_writeDuringRead() {
+        QueryCache queryCache = new QueryCache();
+        // read started before the write
+        long version = queryCache.version(String.class);
+        queryCache.invalidate(String.class);
+        queryCache.put(String.class, "field", 1, null, version, Arrays.asList("old"));
+
+        assertNull("should be outdated", queryCache.get(String.class, "field", 1, null));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void queryCache_readOnly() {
+        QueryCache queryCache = new QueryCache();
+        List<String> items = new ArrayList<>(Arrays.asList("a", "b"));
+        List<String> cached = queryCache.put(String.class, "field", 1, null, queryCache.version(String.class), items);
+        // changed by the caller after the query
+        items.add("c");
+
+        assertEquals("should not be shared", Arrays.asList("a", "b"), queryCache.get(String.class, "field", 1, null));
+        assertSame("should be the cached list", cached, queryCache.get(String.class, "field", 1, null));
+        cached.add("d");
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.github.openwebnet.database;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QueryChangeSetTest {
+
+    @Test
+    public void queryChangeSet_initial() {
+        List<String> items = new ArrayList<>(Arrays.asList("old"));
+
+        QueryChangeSet<String> changeSet = QueryChangeSet.initial(Arrays.asList("a", "b"));
+        changeSet.applyTo(items);
+
+        assertTrue("should be initial", changeSet.isInitial());
+        assertEquals("invalid items", Arrays.asList("a", "b"), items);
+    }
+
+    @Test
+    public void queryChangeSet_update() {
+        List<String> items = new ArrayList<>(Arrays.asList("a", "b", "c", "d"));
+
+        // b and d removed, x inserted at the top, c renamed
+        QueryChangeSet<String> changeSet = QueryChangeSet.update(
+            Arrays.asList(1, 3),
+            ImmutableMap.of(0, "x"),
+            ImmutableMap.of(2, "c1"));
+        changeSet.applyTo(items);
+
+        assertFalse("should not be initial", changeSet.isInitial());
+        assertEquals("invalid deletions order", Arrays.asList(3, 1), changeSet.getDeletions());
+        assertEquals("invalid items", Arrays.asList("x", "a", "c1"), items);
+    }
+
+    @Test
+    public void queryChangeSet_empty() {
+        QueryChangeSet<String> changeSet = QueryChangeSet.update(
+            Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap());
+
+        assertTrue("should be empty", changeSet.isEmpty());
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.github.openwebnet.database;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RealmCompactionTest {
+
+    private static final long MIN_FILE_BYTES = 1000;
+
+    @Test
+    public void compaction_notOpened() {
+        RealmCompaction compaction = new RealmCompaction(MIN_FILE_BYTES, 0.5);
+        assertEquals("invalid size", -1, compaction.getLaunchFileBytes());
+        assertEquals("invalid size", -1, compaction.getLaunchDataBytes());
+        assertFalse("should not be compacted", compaction.isCompactedOnLaunch());
+    }
+
+    @Test
+    public void compaction_smallFile() {
+        RealmCompaction compaction = new RealmCompaction(MIN_FILE_BYTES, 0.5);
+        assertFalse("should not compact", compaction.shouldCompact(999, 1));
+        assertEquals("invalid size", 999, compaction.getLaunchFileBytes());
+        assertEquals("invalid size", 1, compaction.getLaunchDataBytes());
+        assertFalse("should not be compacted", compaction.isCompactedOnLaunch());
+    }
+
+    @Test
+    public void compaction_freeRatio() {
+        RealmCompaction compaction = new RealmCompaction(MIN_FILE_BYTES, 0.5);
+        assertFalse("should not compact", compaction.shouldCompact(2000, 1000));
+        assertTrue("should compact", compaction.shouldCompact(2000, 999));
+        assertTrue("should be compacted", compaction.isCompactedOnLaunch());
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.github.openwebnet.database;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RealmLeakDetectorTest {
+
+    @Test
+    public void leakDetector_referenceCount() {
+        RealmLeakDetector leakDetector = new RealmLeakDetector(true);
+        leakDetector.onOpen();
+        leakDetector.onOpen();
+        assertEquals("invalid count", 2, leakDetector.getOpenCount());
+
+        leakDetector.onClose();
+        leakDetector.onClose();
+        assertEquals("invalid count", 0, leakDetector.getOpenCount());
+        assertTrue("should not leak", leakDetector.findLeaks(-1).isEmpty());
+    }
+
+    @Test
+    public void leakDetector_closedTooManyTimes() {
+        RealmLeakDetector leakDetector = new RealmLeakDetector(false);
+        leakDetector.onClose();
+        assertEquals("invalid count", 0, leakDetector.getOpenCount());
+    }
+
+    @Test
+    public void leakDetector_findLeaks() throws InterruptedException {
+        RealmLeakDetector leakDetector = new RealmLeakDetector(true);
+        Thread thread = new Thread(leakDetector::onOpen, "leaking-thread");
+        thread.start();
+        thread.join();
+
+        leakDetector.onOpen();
+        leakDetector.onClose();
+
+        assertTrue("should be too recent", leakDetector.findLeaks(60000).isEmpty());
+        List<String> leaks = leakDetector.findLeaks(-1);
+        assertEquals("invalid leaks", 1, leaks.size());
+        assertEquals("invalid thread", "leaking-thread", leaks.get(0));
+        assertEquals("invalid count", 1, leakDetector.getOpenCount());
+    }
+
+}
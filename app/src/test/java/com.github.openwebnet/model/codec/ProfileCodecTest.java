@@ -0,0 +1,213 @@
+package com.github.openwebnet.model.codec;
+
+import com.github.niqdev.openwebnet.message.Automation;
+import com.github.niqdev.openwebnet.message.EnergyManagement;
+import com.github.niqdev.openwebnet.message.Lighting;
+import com.github.niqdev.openwebnet.message.SoundSystem;
+import com.github.openwebnet.model.AutomationModel;
+import com.github.openwebnet.model.EnergyModel;
+import com.github.openwebnet.model.EnvironmentModel;
+import com.github.openwebnet.model.GatewayModel;
+import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.SoundModel;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.realm.RealmObject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ProfileCodecTest {
+
+    @Test
+    public void profileCodec_roundTrip() throws IOException {
+        EnvironmentModel environment = new EnvironmentModel();
+        environment.setId(100);
+        environment.setName("kitchen");
+
+        // nullable password
+        GatewayModel gateway = GatewayModel.newGateway("10.0.0.1", 20000, null);
+
+        LightModel light = LightModel.addBuilder()
+            .environment(100)
+            .gateway(gateway.getUuid())
+            .name("ceiling")
+            .where("21")
+            .type(Lighting.Type.POINT_TO_POINT)
+            .bus(Lighting.NO_BUS)
+            .favourite(true)
+            .build();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ProfileCodec.Writer writer = ProfileCodec.newWriter(outputStream, 13)) {
+            writer.writeAll(EnvironmentModel.class, Collections.singletonList(environment), 1);
+            writer.writeAll(GatewayModel.class, Collections.singletonList(gateway), 1);
+            writer.writeAll(LightModel.class, Arrays.asList(light, light), 2);
+        }
+
+        try (ProfileCodec.Reader reader = ProfileCodec.newReader(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals("invalid format", ProfileCodec.FORMAT_VERSION, reader.getFormatVersion());
+            assertEquals("invalid version", 13, reader.getDatabaseRealmVersion());
+
+            assertTrue("missing section", reader.nextSection());
+            assertEquals("invalid section", EnvironmentModel.class, reader.getSectionClass());
+            EnvironmentModel environmentCopy = (EnvironmentModel) reader.next();
+            assertEquals("invalid id", environment.getId(), environmentCopy.getId());
+            assertEquals("invalid name", environment.getName(), environmentCopy.getName());
+
+            assertTrue("missing section", reader.nextSection());
+            GatewayModel gatewayCopy = (GatewayModel) reader.next();
+            assertEquals("invalid uuid", gateway.getUuid(), gatewayCopy.getUuid());
+            assertEquals("invalid host", gateway.getHost(), gatewayCopy.getHost());
+            assertEquals("invalid port", gateway.getPort(), gatewayCopy.getPort());
+            assertNull("invalid password", gatewayCopy.getPassword());
+
+            assertTrue("missing section", reader.nextSection());
+            assertEquals("invalid size", 2, reader.getSectionSize());
+            LightModel lightCopy = (LightModel) reader.next();
+            assertEquals("invalid uuid", light.getUuid(), lightCopy.getUuid());
+            assertEquals("invalid environment", light.getEnvironmentId(), lightCopy.getEnvironmentId());
+            assertEquals("invalid gateway", light.getGatewayUuid(), lightCopy.getGatewayUuid());
+            assertEquals("invalid name", light.getName(), lightCopy.getName());
+            assertEquals("invalid where", light.getWhere(), lightCopy.getWhere());
+            assertEquals("invalid type", light.getLightingType(), lightCopy.getLightingType());
+            assertEquals("invalid bus", light.getBus(), lightCopy.getBus());
+            assertTrue("invalid favourite", lightCopy.isFavourite());
+
+            // the remaining entry is skipped
+            assertFalse("should be the last section", reader.nextSection());
+        }
+    }
+
+    @Test
+    public void modelCodecs_automationRoundTrip() throws IOException {
+        AutomationModel automation = AutomationModel.addBuilder()
+            .environment(100)
+            .gateway("gatewayUuid")
+            .name("shutter")
+            .where("31")
+            .type(Automation.Type.POINT_TO_POINT)
+            .bus(Automation.NO_BUS)
+            .favourite(true)
+            .build();
+
+        AutomationModel automationCopy = roundTrip(ModelCodecs.AUTOMATION, automation);
+        assertEquals("invalid uuid", automation.getUuid(), automationCopy.getUuid());
+        assertEquals("invalid environment", automation.getEnvironmentId(), automationCopy.getEnvironmentId());
+        assertEquals("invalid gateway", automation.getGatewayUuid(), automationCopy.getGatewayUuid());
+        assertEquals("invalid name", automation.getName(), automationCopy.getName());
+        assertEquals("invalid where", automation.getWhere(), automationCopy.getWhere());
+        assertEquals("invalid type", Automation.Type.POINT_TO_POINT, automationCopy.getAutomationType());
+        assertEquals("invalid bus", automation.getBus(), automationCopy.getBus());
+        assertTrue("invalid favourite", automationCopy.isFavourite());
+
+        assertNull("invalid null type", roundTrip(ModelCodecs.AUTOMATION, new AutomationModel()).getAutomationType());
+    }
+
+    @Test
+    public void modelCodecs_energyRoundTrip() throws IOException {
+        EnergyModel energy = EnergyModel.addBuilder()
+            .environment(100)
+            .gateway("gatewayUuid")
+            .name("meter")
+            .where("51")
+            .version(EnergyManagement.Version.MODEL_F523)
+            .favourite(false)
+            .build();
+
+        EnergyModel energyCopy = roundTrip(ModelCodecs.ENERGY, energy);
+        assertEquals("invalid uuid", energy.getUuid(), energyCopy.getUuid());
+        assertEquals("invalid environment", energy.getEnvironmentId(), energyCopy.getEnvironmentId());
+        assertEquals("invalid gateway", energy.getGatewayUuid(), energyCopy.getGatewayUuid());
+        assertEquals("invalid name", energy.getName(), energyCopy.getName());
+        assertEquals("invalid where", energy.getWhere(), energyCopy.getWhere());
+        assertEquals("invalid version", EnergyManagement.Version.MODEL_F523, energyCopy.getEnergyManagementVersion());
+        assertFalse("invalid favourite", energyCopy.isFavourite());
+
+        assertNull("invalid null version", roundTrip(ModelCodecs.ENERGY, new EnergyModel()).getEnergyManagementVersion());
+    }
+
+    @Test
+    public void modelCodecs_lightRoundTrip() throws IOException {
+        LightModel light = LightModel.addBuilder()
+            .environment(100)
+            .gateway("gatewayUuid")
+            .name("ceiling")
+            .where("21")
+            .type(Lighting.Type.POINT_TO_POINT)
+            .bus(Lighting.NO_BUS)
+            .favourite(true)
+            .build();
+
+        LightModel lightCopy = roundTrip(ModelCodecs.LIGHT, light);
+        assertEquals("invalid uuid", light.getUuid(), lightCopy.getUuid());
+        assertEquals("invalid environment", light.getEnvironmentId(), lightCopy.getEnvironmentId());
+        assertEquals("invalid gateway", light.getGatewayUuid(), lightCopy.getGatewayUuid());
+        assertEquals("invalid name", light.getName(), lightCopy.getName());
+        assertEquals("invalid where", light.getWhere(), lightCopy.getWhere());
+        assertEquals("invalid type", Lighting.Type.POINT_TO_POINT, lightCopy.getLightingType());
+        assertEquals("invalid bus", light.getBus(), lightCopy.getBus());
+        assertTrue("invalid favourite", lightCopy.isFavourite());
+
+        assertNull("invalid null type", roundTrip(ModelCodecs.LIGHT, new LightModel()).getLightingType());
+    }
+
+    @Test
+    public void modelCodecs_soundRoundTrip() throws IOException {
+        SoundModel sound = SoundModel.addBuilder()
+            .environment(100)
+            .gateway("gatewayUuid")
+            .name("speaker")
+            .where("41")
+            .source(SoundSystem.Source.STEREO_CHANNEL)
+            .type(SoundSystem.Type.AMPLIFIER_P2P)
+            .favourite(true)
+            .build();
+
+        SoundModel soundCopy = roundTrip(ModelCodecs.SOUND, sound);
+        assertEquals("invalid uuid", sound.getUuid(), soundCopy.getUuid());
+        assertEquals("invalid environment", sound.getEnvironmentId(), soundCopy.getEnvironmentId());
+        assertEquals("invalid gateway", sound.getGatewayUuid(), soundCopy.getGatewayUuid());
+        assertEquals("invalid name", sound.getName(), soundCopy.getName());
+        assertEquals("invalid where", sound.getWhere(), soundCopy.getWhere());
+        assertEquals("invalid source", SoundSystem.Source.STEREO_CHANNEL, soundCopy.getSoundSystemSource());
+        assertEquals("invalid type", SoundSystem.Type.AMPLIFIER_P2P, soundCopy.getSoundSystemType());
+        assertTrue("invalid favourite", soundCopy.isFavourite());
+
+        SoundModel emptyCopy = roundTrip(ModelCodecs.SOUND, new SoundModel());
+        assertNull("invalid null source", emptyCopy.getSoundSystemSource());
+        assertNull("invalid null type", emptyCopy.getSoundSystemType());
+    }
+
+    @Test(expected = IOException.class)
+    public void profileCodec_invalidFormat() throws IOException {
+        ProfileCodec.newReader(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6}));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void profileCodec_incompleteSection() throws IOException {
+        List<LightModel> lights = Collections.emptyList();
+        ProfileCodec.newWriter(new ByteArrayOutputStream(), 13)
+            .writeAll(LightModel.class, lights, 1)
+            .close();
+    }
+
+    private <T extends RealmObject> T roundTrip(ModelCodec<T> codec, T model) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        codec.encode(model, new DataOutputStream(outputStream));
+        return codec.decode(new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.github.openwebnet.model.firestore;
+
+import com.github.openwebnet.model.EnvironmentModel;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProfileDeltaTest {
+
+    @Test
+    public void profileDelta_unchanged() {
+        ProfileModel previous = newProfile(newEnvironment(100, "kitchen"), newEnvironment(101, "garden"));
+        // as returned by Firestore
+        for (Map<String, Object> environment : previous.getEnvironments()) {
+            environment.put(EnvironmentModel.FIELD_ID, ((Integer) environment.get(EnvironmentModel.FIELD_ID)).longValue());
+        }
+        ProfileModel current = newProfile(newEnvironment(101, "garden"), newEnvironment(100, "kitchen"));
+
+        ProfileDelta delta = ProfileDelta.between(previous, current);
+
+        assertTrue("should be empty", delta.isEmpty());
+        assertEquals("invalid size", 0, delta.size());
+    }
+
+    @Test
+    public void profileDelta_changes() {
+        ProfileModel previous = newProfile(newEnvironment(100, "kitchen"), newEnvironment(101, "garden"));
+        ProfileModel current = newProfile(newEnvironment(100, "kitchen"), newEnvironment(101, "terrace"),
+            newEnvironment(102, "bedroom"));
+
+        ProfileDelta delta = ProfileDelta.between(previous, current);
+
+        assertFalse("should not be empty", delta.isEmpty());
+        assertEquals("invalid size", 3, delta.size());
+
+        List<Map<String, Object>> removed = delta.getRemoved().get(ProfileModel.FIELD_ENVIRONMENTS);
+        assertEquals("invalid removed", 1, removed.size());
+        assertEquals("invalid removed", "garden", removed.get(0).get(EnvironmentModel.FIELD_NAME));
+
+        List<Map<String, Object>> added = delta.getAdded().get(ProfileModel.FIELD_ENVIRONMENTS);
+        assertEquals("invalid added", 2, added.size());
+        assertEquals("invalid added", "terrace", added.get(0).get(EnvironmentModel.FIELD_NAME));
+        assertEquals("invalid added", "bedroom", added.get(1).get(EnvironmentModel.FIELD_NAME));
+
+        assertEquals("only changed collections", 1, delta.getAdded().size());
+    }
+
+    @Test
+    public void profileDelta_removed() {
+        ProfileModel previous = newProfile(newEnvironment(100, "kitchen"), newEnvironment(101, "garden"));
+        ProfileModel current = newProfile(newEnvironment(100, "kitchen"));
+
+        ProfileDelta delta = ProfileDelta.between(previous, current);
+
+        assertEquals("invalid size", 1, delta.size());
+        assertTrue("nothing added", delta.getAdded().isEmpty());
+        assertEquals("invalid removed", 101,
+            delta.getRemoved().get(ProfileModel.FIELD_ENVIRONMENTS).get(0).get(EnvironmentModel.FIELD_ID));
+    }
+
+    private ProfileModel newProfile(EnvironmentModel... environments) {
+        return ProfileModel.addBuilder()
+            .version(ProfileVersionModel.newInstance())
+            .environments(Arrays.asList(environments))
+            .build();
+    }
+
+    private EnvironmentModel newEnvironment(Integer id, String name) {
+        EnvironmentModel environment = new EnvironmentModel();
+        environment.setId(id);
+        environment.setName(name);
+        return environment;
+    }
+
+}
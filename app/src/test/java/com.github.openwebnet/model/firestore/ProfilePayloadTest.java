@@ -0,0 +1,98 @@
+package com.github.openwebnet.model.firestore;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ProfilePayloadTest {
+
+    private static final int GATEWAYS = 4;
+
+    @Test
+    public void profilePayload_roundTrip() throws IOException {
+        Map<String, Object> light = new HashMap<>();
+        light.put("uuid", "light-uuid");
+        light.put("environmentId", 100);
+        light.put("gatewayUuid", "gateway-uuid");
+        light.put("name", "kitchen");
+        light.put("bus", null);
+        light.put("favourite", true);
+        light.put("ratio", 0.5f);
+
+        Map<String, List<Map<String, Object>>> collections = new LinkedHashMap<>();
+        collections.put(ProfileModel.FIELD_LIGHTS, newList(light));
+        collections.put(ProfileModel.FIELD_SOUNDS, new ArrayList<>());
+
+        Map<String, List<Map<String, Object>>> decoded = ProfilePayload.decode(ProfilePayload.encode(collections));
+
+        assertEquals("invalid collections", 2, decoded.size());
+        assertTrue("invalid sounds", decoded.get(ProfileModel.FIELD_SOUNDS).isEmpty());
+
+        Map<String, Object> decodedLight = decoded.get(ProfileModel.FIELD_LIGHTS).get(0);
+        assertEquals("invalid fields", 7, decodedLight.size());
+        assertEquals("invalid uuid", "light-uuid", decodedLight.get("uuid"));
+        // same types returned by Firestore
+        assertEquals("invalid environmentId", 100L, decodedLight.get("environmentId"));
+        assertEquals("invalid gatewayUuid", "gateway-uuid", decodedLight.get("gatewayUuid"));
+        assertEquals("invalid name", "kitchen", decodedLight.get("name"));
+        assertNull("invalid bus", decodedLight.get("bus"));
+        assertTrue("invalid bus", decodedLight.containsKey("bus"));
+        assertEquals("invalid favourite", true, decodedLight.get("favourite"));
+        assertEquals("invalid ratio", 0.5, decodedLight.get("ratio"));
+    }
+
+    @Test
+    public void profilePayload_smallerThanMaps() throws IOException {
+        List<Map<String, Object>> lights = new ArrayList<>();
+        int plainSize = 0;
+        for (int i = 0; i < 800; i++) {
+            Map<String, Object> light = new HashMap<>();
+            light.put("uuid", "00000000-0000-0000-0000-" + String.format("%012d", i));
+            light.put("environmentId", 100 + i % 10);
+            light.put("gatewayUuid", "11111111-1111-1111-1111-" + String.format("%012d", i % GATEWAYS));
+            light.put("name", "light " + i);
+            light.put("where", String.valueOf(i));
+            light.put("favourite", false);
+            lights.add(light);
+            plainSize += light.toString().length();
+        }
+        Map<String, List<Map<String, Object>>> collections = new LinkedHashMap<>();
+        collections.put(ProfileModel.FIELD_LIGHTS, lights);
+
+        byte[] payload = ProfilePayload.encode(collections);
+
+        assertTrue("should be compressed", payload.length * 4 < plainSize);
+        assertEquals("invalid entries", 800, ProfilePayload.decode(payload).get(ProfileModel.FIELD_LIGHTS).size());
+    }
+
+    @Test(expected = IOException.class)
+    public void profilePayload_invalid() throws IOException {
+        ProfilePayload.decode(new byte[] {1, 2, 3});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void profilePayload_unsupportedValue() throws IOException {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("value", new Object());
+        Map<String, List<Map<String, Object>>> collections = new LinkedHashMap<>();
+        collections.put(ProfileModel.FIELD_LIGHTS, newList(entry));
+
+        ProfilePayload.encode(collections);
+    }
+
+    private List<Map<String, Object>> newList(Map<String, Object> entry) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        entries.add(entry);
+        return entries;
+    }
+
+}
@@ -31,8 +31,11 @@ import java.util.List;
 import javax.inject.Inject;
 
 import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -101,6 +104,65 @@ public class CommonRealmRepositoryTest {
         tester.assertNoErrors();
     }
 
+    @Test
+    public void commonRealmRepository_updateCoalesced() {
+        SampleModel model1 = new SampleModel();
+        model1.setUuid("modelUuid");
+        SampleModel model2 = new SampleModel();
+        model2.setUuid("modelUuid");
+
+        // writer busy
+        TestScheduler writeScheduler = new TestScheduler();
+        when(databaseRealm.getWriteScheduler()).thenReturn(writeScheduler);
+
+        TestSubscriber<Void> tester1 = new TestSubscriber<>();
+        TestSubscriber<Void> tester2 = new TestSubscriber<>();
+        sampleRepository.update(model1).subscribe(tester1);
+        sampleRepository.update(model2).subscribe(tester2);
+
+        verify(databaseRealm, never()).update(any(SampleModel.class));
+        tester1.assertNoTerminalEvent();
+        tester2.assertNoTerminalEvent();
+        writeScheduler.triggerActions();
+
+        verify(databaseRealm, never()).update(model1);
+        verify(databaseRealm).update(model2);
+
+        tester1.assertCompleted();
+        tester1.assertNoErrors();
+        tester2.assertCompleted();
+        tester2.assertNoErrors();
+    }
+
+    @Test
+    public void commonRealmRepository_updateCoalescedError() {
+        SampleModel model1 = new SampleModel();
+        model1.setUuid("modelUuid");
+        SampleModel model2 = new SampleModel();
+        model2.setUuid("modelUuid");
+
+        TestScheduler writeScheduler = new TestScheduler();
+        when(databaseRealm.getWriteScheduler()).thenReturn(writeScheduler);
+        when(databaseRealm.update(model2)).thenThrow(new IllegalStateException("error"));
+
+        TestSubscriber<Void> tester1 = new TestSubscriber<>();
+        TestSubscriber<Void> tester2 = new TestSubscriber<>();
+        sampleRepository.update(model1).subscribe(tester1);
+        sampleRepository.update(model2).subscribe(tester2);
+
+        // the first caller leaving doesn't cancel the write
+        tester1.unsubscribe();
+        TestSubscriber<Void> tester3 = new TestSubscriber<>();
+        sampleRepository.update(model2).subscribe(tester3);
+        writeScheduler.triggerActions();
+
+        verify(databaseRealm).update(model2);
+
+        tester2.assertNoValues();
+        tester2.assertError(IllegalStateException.class);
+        tester3.assertError(IllegalStateException.class);
+    }
+
     @Test
     public void commonRealmRepository_delete() {
         String UUID = "modelUuid";
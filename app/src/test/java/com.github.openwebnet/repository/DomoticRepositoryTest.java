@@ -9,7 +9,9 @@ import com.github.openwebnet.component.module.ApplicationContextModuleTest;
 import com.github.openwebnet.component.module.DatabaseModuleTest;
 import com.github.openwebnet.component.module.DomoticModuleTest;
 import com.github.openwebnet.component.module.RepositoryModuleTest;
+import com.github.openwebnet.database.DatabaseQuery;
 import com.github.openwebnet.database.DatabaseRealm;
+import com.github.openwebnet.database.QueryChangeSet;
 import com.github.openwebnet.model.DomoticModel;
 import com.github.openwebnet.model.SampleModel;
 
@@ -24,13 +26,17 @@ import org.powermock.modules.junit4.rule.PowerMockRule;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import javax.inject.Inject;
 
+import rx.Observable;
 import rx.observers.TestSubscriber;
 
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -90,6 +96,33 @@ public class DomoticRepositoryTest {
         tester.assertNoErrors();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void lightRepository_findByEnvironmentPage() {
+        Integer ENVIRONMENT = 108;
+
+        SampleModel model = new SampleModel();
+        model.setUuid("uuid1");
+        model.setEnvironmentId(ENVIRONMENT);
+        List<SampleModel> models = Arrays.asList(model);
+
+        // fluent
+        DatabaseQuery<SampleModel> query = mock(DatabaseQuery.class, invocation -> invocation.getMock());
+        doReturn(models).when(query).findCopy();
+        when(databaseRealm.query(SampleModel.class)).thenReturn(query);
+
+        TestSubscriber<List<SampleModel>> tester = new TestSubscriber<>();
+        sampleRepository.findByEnvironment(ENVIRONMENT, 2, 50).subscribe(tester);
+
+        verify(query).equalTo(DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT);
+        verify(query).sortAscending(DomoticModel.FIELD_NAME);
+        verify(query).page(2, 50);
+
+        tester.assertValue(models);
+        tester.assertCompleted();
+        tester.assertNoErrors();
+    }
+
     @Test
     public void lightRepository_findFavourites() {
         SampleModel model = new SampleModel();
@@ -113,4 +146,43 @@ public class DomoticRepositoryTest {
         tester.assertNoErrors();
     }
 
+    @Test
+    public void lightRepository_observeByEnvironment() {
+        Integer ENVIRONMENT = 108;
+
+        SampleModel model = new SampleModel();
+        model.setUuid("uuid1");
+        model.setEnvironmentId(ENVIRONMENT);
+        QueryChangeSet<SampleModel> changeSet = QueryChangeSet.initial(Arrays.asList(model));
+
+        when(databaseRealm.observeWhere(SampleModel.class, DomoticModel.FIELD_ENVIRONMENT_ID,
+            ENVIRONMENT, DomoticModel.FIELD_NAME)).thenReturn(Observable.just(changeSet));
+
+        TestSubscriber<QueryChangeSet<SampleModel>> tester = new TestSubscriber<>();
+        sampleRepository.observeByEnvironment(ENVIRONMENT).subscribe(tester);
+
+        verify(databaseRealm).observeWhere(SampleModel.class, DomoticModel.FIELD_ENVIRONMENT_ID,
+            ENVIRONMENT, DomoticModel.FIELD_NAME);
+
+        tester.assertValue(changeSet);
+        tester.assertNoErrors();
+    }
+
+    @Test
+    public void lightRepository_observeFavourites() {
+        QueryChangeSet<SampleModel> changeSet = QueryChangeSet.initial(new ArrayList<>());
+
+        when(databaseRealm.observeWhere(SampleModel.class, DomoticModel.FIELD_FAVOURITE,
+            true, DomoticModel.FIELD_NAME)).thenReturn(Observable.just(changeSet));
+
+        TestSubscriber<QueryChangeSet<SampleModel>> tester = new TestSubscriber<>();
+        sampleRepository.observeFavourites().subscribe(tester);
+
+        verify(databaseRealm).observeWhere(SampleModel.class, DomoticModel.FIELD_FAVOURITE,
+            true, DomoticModel.FIELD_NAME);
+
+        tester.assertValue(changeSet);
+        tester.assertNoErrors();
+    }
+
 }
@@ -13,9 +13,12 @@ import com.github.openwebnet.database.DatabaseRealm;
 import com.github.openwebnet.model.AutomationModel;
 import com.github.openwebnet.model.DeviceModel;
 import com.github.openwebnet.model.DomoticModel;
+import com.github.openwebnet.model.EnergyModel;
 import com.github.openwebnet.model.EnvironmentModel;
 import com.github.openwebnet.model.IpcamModel;
 import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.ScenarioModel;
+import com.github.openwebnet.model.SoundModel;
 import com.github.openwebnet.model.TemperatureModel;
 
 import org.junit.Before;
@@ -34,9 +37,15 @@ import java.util.List;
 
 import javax.inject.Inject;
 
+import io.realm.RealmObject;
 import rx.observers.TestSubscriber;
 
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,6 +55,10 @@ import static org.mockito.Mockito.when;
 @PrepareForTest({Injector.class})
 public class EnvironmentRepositoryTest {
 
+    private static final List<Class<? extends RealmObject>> DOMOTIC_CLASSES = Arrays.asList(
+        AutomationModel.class, DeviceModel.class, EnergyModel.class, IpcamModel.class,
+        LightModel.class, ScenarioModel.class, SoundModel.class, TemperatureModel.class);
+
     @Rule
     public PowerMockRule rule = new PowerMockRule();
 
@@ -70,25 +83,16 @@ public class EnvironmentRepositoryTest {
         ((ApplicationComponentTest) Injector.getApplicationComponent()).inject(this);
     }
 
-    @Test
-    public void environmentRepository_getNextIdDefault() {
-        environmentRepository_testGetNextId(null, 100);
-    }
-
     @Test
     public void environmentRepository_getNextId() {
-        environmentRepository_testGetNextId(108, 109);
-    }
-
-    private void environmentRepository_testGetNextId(Integer currentMaxId, Integer nextId) {
-        when(databaseRealm.findMax(EnvironmentModel.class, EnvironmentModel.FIELD_ID)).thenReturn(currentMaxId);
+        when(databaseRealm.nextId(EnvironmentModel.class, EnvironmentModel.FIELD_ID, 100)).thenReturn(109);
 
         TestSubscriber<Integer> tester = new TestSubscriber<>();
         environmentRepository.getNextId().subscribe(tester);
 
-        verify(databaseRealm).findMax(EnvironmentModel.class, EnvironmentModel.FIELD_ID);
+        verify(databaseRealm).nextId(EnvironmentModel.class, EnvironmentModel.FIELD_ID, 100);
 
-        tester.assertValue(nextId);
+        tester.assertValue(109);
         tester.assertCompleted();
         tester.assertNoErrors();
     }
@@ -166,28 +170,62 @@ public class EnvironmentRepositoryTest {
     @Test
     public void environmentRepository_delete() {
         final int ENVIRONMENT_ID = 42;
+        final Integer[] ENVIRONMENT_IDS = {ENVIRONMENT_ID};
 
-        doNothing().when(databaseRealm).delete(EnvironmentModel.class, EnvironmentModel.FIELD_ID, ENVIRONMENT_ID);
-        doNothing().when(databaseRealm).delete(LightModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
-        doNothing().when(databaseRealm).delete(AutomationModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
-        doNothing().when(databaseRealm).delete(DeviceModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
-        doNothing().when(databaseRealm).delete(IpcamModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
-        doNothing().when(databaseRealm).delete(TemperatureModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
+        // fluent
+        DatabaseRealm.Batch batch = mock(DatabaseRealm.Batch.class, invocation -> invocation.getMock());
+        when(databaseRealm.newBatch()).thenReturn(batch);
+        when(databaseRealm.getModelClasses(DomoticModel.class)).thenReturn(DOMOTIC_CLASSES);
 
         TestSubscriber<Void> tester = new TestSubscriber<>();
         environmentRepository.delete(ENVIRONMENT_ID).subscribe(tester);
 
-        verify(databaseRealm).delete(LightModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
-        verify(databaseRealm).delete(AutomationModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
-        verify(databaseRealm).delete(DeviceModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
-        verify(databaseRealm).delete(IpcamModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
-        verify(databaseRealm).delete(TemperatureModel.class, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_ID);
-        verify(databaseRealm).delete(EnvironmentModel.class, EnvironmentModel.FIELD_ID, ENVIRONMENT_ID);
+        for (Class<? extends RealmObject> clazz : DOMOTIC_CLASSES) {
+            verify(batch).deleteIn(clazz, DomoticModel.FIELD_ENVIRONMENT_ID, ENVIRONMENT_IDS);
+        }
+        verify(batch).deleteIn(EnvironmentModel.class, EnvironmentModel.FIELD_ID, ENVIRONMENT_IDS);
+        // single transaction
+        verify(databaseRealm).execute(batch);
+        verify(databaseRealm, never()).delete(any(Class.class), anyString(), anyInt());
 
         tester.assertCompleted();
         tester.assertNoErrors();
     }
 
+    @Test
+    public void environmentRepository_deleteAll() {
+        DatabaseRealm.Batch batch = mock(DatabaseRealm.Batch.class, invocation -> invocation.getMock());
+        when(databaseRealm.newBatch()).thenReturn(batch);
+        when(databaseRealm.getModelClasses(DomoticModel.class)).thenReturn(DOMOTIC_CLASSES);
+
+        TestSubscriber<Void> tester = new TestSubscriber<>();
+        environmentRepository.deleteAll().subscribe(tester);
+
+        for (Class<? extends RealmObject> clazz : DOMOTIC_CLASSES) {
+            verify(batch).deleteAll(clazz);
+        }
+        verify(batch).deleteAll(EnvironmentModel.class);
+        // single transaction, without reading the environments
+        verify(databaseRealm).execute(batch);
+        verify(databaseRealm, never()).findSortedAscending(EnvironmentModel.class, EnvironmentModel.FIELD_NAME);
+
+        tester.assertCompleted();
+        tester.assertNoErrors();
+    }
+
+    @Test
+    public void environmentRepository_deleteRollback() {
+        DatabaseRealm.Batch batch = mock(DatabaseRealm.Batch.class, invocation -> invocation.getMock());
+        when(databaseRealm.newBatch()).thenReturn(batch);
+        doThrow(new IllegalStateException("transaction failed")).when(databaseRealm).execute(batch);
+
+        TestSubscriber<Void> tester = new TestSubscriber<>();
+        environmentRepository.delete(42).subscribe(tester);
+
+        tester.assertError(IllegalStateException.class);
+        tester.assertNotCompleted();
+    }
+
     private EnvironmentModel newEnvironmentModel(Integer id, String name) {
         EnvironmentModel environment = new EnvironmentModel();
         environment.setId(id);
@@ -0,0 +1,177 @@
+package com.github.openwebnet.repository;
+
+import com.github.niqdev.openwebnet.message.Automation;
+import com.github.niqdev.openwebnet.message.EnergyManagement;
+import com.github.niqdev.openwebnet.message.Lighting;
+import com.github.niqdev.openwebnet.message.SoundSystem;
+import com.github.openwebnet.BuildConfig;
+import com.github.openwebnet.OpenWebNetApplicationTest;
+import com.github.openwebnet.component.ApplicationComponentTest;
+import com.github.openwebnet.component.DaggerApplicationComponentTest;
+import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.component.module.ApplicationContextModuleTest;
+import com.github.openwebnet.component.module.DatabaseModuleTest;
+import com.github.openwebnet.component.module.DomoticModuleTest;
+import com.github.openwebnet.component.module.RepositoryModuleTest;
+import com.github.openwebnet.database.DatabaseQuery;
+import com.github.openwebnet.database.DatabaseRealm;
+import com.github.openwebnet.model.AutomationModel;
+import com.github.openwebnet.model.EnergyModel;
+import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.SoundModel;
+import com.github.openwebnet.model.codec.ModelCodec;
+import com.github.openwebnet.model.codec.ModelCodecs;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import io.realm.RealmObject;
+import rx.functions.Func0;
+import rx.observers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = OpenWebNetApplicationTest.class, constants = BuildConfig.class, sdk = 21)
+@PowerMockIgnore({"android.*"})
+@PrepareForTest({Injector.class})
+public class SnapshotRepositoryTest {
+
+    @Rule
+    public PowerMockRule rule = new PowerMockRule();
+
+    @Inject
+    SnapshotRepository snapshotRepository;
+
+    @Inject
+    DatabaseRealm databaseRealm;
+
+    @Before
+    public void setupDagger() {
+        ApplicationComponentTest applicationComponentTest = DaggerApplicationComponentTest.builder()
+            .applicationContextModuleTest(new ApplicationContextModuleTest())
+            .databaseModuleTest(new DatabaseModuleTest())
+            .repositoryModuleTest(new RepositoryModuleTest(false))
+            .domoticModuleTest(new DomoticModuleTest())
+            .build();
+
+        PowerMockito.mockStatic(Injector.class);
+        PowerMockito.when(Injector.getApplicationComponent()).thenReturn(applicationComponentTest);
+
+        ((ApplicationComponentTest) Injector.getApplicationComponent()).inject(this);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void snapshotRepository_exportImport() {
+        AutomationModel automation = AutomationModel.addBuilder()
+            .environment(100).gateway("gatewayUuid").name("shutter").where("31")
+            .type(Automation.Type.POINT_TO_POINT).bus(Automation.NO_BUS).favourite(true).build();
+        EnergyModel energy = EnergyModel.addBuilder()
+            .environment(100).gateway("gatewayUuid").name("meter").where("51")
+            .version(EnergyManagement.Version.MODEL_F523).favourite(false).build();
+        LightModel light = LightModel.addBuilder()
+            .environment(100).gateway("gatewayUuid").name("ceiling").where("21")
+            .type(Lighting.Type.POINT_TO_POINT).bus(Lighting.NO_BUS).favourite(true).build();
+        SoundModel sound = SoundModel.addBuilder()
+            .environment(100).gateway("gatewayUuid").name("speaker").where("41")
+            .source(SoundSystem.Source.STEREO_CHANNEL).type(SoundSystem.Type.AMPLIFIER_P2P).favourite(false).build();
+
+        for (ModelCodec<? extends RealmObject> codec : ModelCodecs.ALL) {
+            mockQuery(codec.getModelClass(), Collections.emptyList());
+        }
+        mockQuery(AutomationModel.class, Collections.singletonList(automation));
+        mockQuery(EnergyModel.class, Collections.singletonList(energy));
+        mockQuery(LightModel.class, Collections.singletonList(light));
+        mockQuery(SoundModel.class, Collections.singletonList(sound));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        TestSubscriber<Integer> exportTester = new TestSubscriber<>();
+        snapshotRepository.exportSnapshot(outputStream).subscribe(exportTester);
+
+        exportTester.assertValue(4);
+        exportTester.assertCompleted();
+        exportTester.assertNoErrors();
+
+        // the models are read while the batch is executed
+        DatabaseRealm.Batch batch = mock(DatabaseRealm.Batch.class);
+        when(databaseRealm.newBatch()).thenReturn(batch);
+        List<RealmObject> imported = new ArrayList<>();
+        ArgumentCaptor<Func0> sourceCaptor = ArgumentCaptor.forClass(Func0.class);
+        doAnswer(invocation -> {
+            verify(batch).addAll(anyListOf(Class.class), sourceCaptor.capture());
+            RealmObject model = (RealmObject) sourceCaptor.getValue().call();
+            while (model != null) {
+                imported.add(model);
+                model = (RealmObject) sourceCaptor.getValue().call();
+            }
+            return null;
+        }).when(databaseRealm).execute(batch);
+
+        TestSubscriber<Integer> importTester = new TestSubscriber<>();
+        snapshotRepository.importSnapshot(new ByteArrayInputStream(outputStream.toByteArray())).subscribe(importTester);
+
+        importTester.assertValue(4);
+        importTester.assertCompleted();
+        importTester.assertNoErrors();
+
+        assertEquals("invalid size", 4, imported.size());
+        assertTrue("invalid automation", imported.get(0) instanceof AutomationModel);
+        AutomationModel automationCopy = (AutomationModel) imported.get(0);
+        assertEquals("invalid automation uuid", automation.getUuid(), automationCopy.getUuid());
+        assertEquals("invalid automation type", Automation.Type.POINT_TO_POINT, automationCopy.getAutomationType());
+
+        assertTrue("invalid energy", imported.get(1) instanceof EnergyModel);
+        EnergyModel energyCopy = (EnergyModel) imported.get(1);
+        assertEquals("invalid energy uuid", energy.getUuid(), energyCopy.getUuid());
+        assertEquals("invalid energy version", EnergyManagement.Version.MODEL_F523, energyCopy.getEnergyManagementVersion());
+
+        assertTrue("invalid light", imported.get(2) instanceof LightModel);
+        LightModel lightCopy = (LightModel) imported.get(2);
+        assertEquals("invalid light uuid", light.getUuid(), lightCopy.getUuid());
+        assertEquals("invalid light type", Lighting.Type.POINT_TO_POINT, lightCopy.getLightingType());
+
+        assertTrue("invalid sound", imported.get(3) instanceof SoundModel);
+        SoundModel soundCopy = (SoundModel) imported.get(3);
+        assertEquals("invalid sound uuid", sound.getUuid(), soundCopy.getUuid());
+        assertEquals("invalid sound source", SoundSystem.Source.STEREO_CHANNEL, soundCopy.getSoundSystemSource());
+        assertEquals("invalid sound type", SoundSystem.Type.AMPLIFIER_P2P, soundCopy.getSoundSystemType());
+
+        verify(databaseRealm).execute(batch);
+        verify(batch).deleteAll(LightModel.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends RealmObject> void mockQuery(Class<T> clazz, List<? extends RealmObject> models) {
+        DatabaseQuery<T> query = mock(DatabaseQuery.class);
+        when(query.count()).thenReturn((long) models.size());
+        when(query.page(anyInt(), anyInt())).thenReturn(query);
+        when(query.findCopy()).thenReturn((List<T>) models);
+        when(databaseRealm.query(clazz)).thenReturn(query);
+    }
+
+}
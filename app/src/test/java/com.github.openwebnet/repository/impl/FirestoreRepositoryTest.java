@@ -0,0 +1,85 @@
+package com.github.openwebnet.repository.impl;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.android.gms.tasks.Task;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FirestoreRepositoryTest {
+
+    private static final String RESULT = "RESULT";
+
+    private Task<Void> task;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        task = mock(Task.class);
+        when(task.addOnSuccessListener(any(OnSuccessListener.class))).thenReturn(task);
+        when(task.addOnFailureListener(any(OnFailureListener.class))).thenReturn(task);
+        when(task.addOnCompleteListener(any(OnCompleteListener.class))).thenReturn(task);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void onWrite_offlineAcknowledged() {
+        TestSubscriber<String> tester = write(false);
+
+        // the pending write is still queued
+        tester.assertValue(RESULT);
+        tester.assertCompleted();
+        tester.assertNoErrors();
+        verify(task).addOnCompleteListener(any(OnCompleteListener.class));
+        verify(task, never()).addOnSuccessListener(any(OnSuccessListener.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void onWrite_onlineSuccess() {
+        TestSubscriber<String> tester = write(true);
+        tester.assertNoValues();
+        tester.assertNoTerminalEvent();
+
+        ArgumentCaptor<OnSuccessListener> listener = ArgumentCaptor.forClass(OnSuccessListener.class);
+        verify(task).addOnSuccessListener(listener.capture());
+        listener.getValue().onSuccess(null);
+
+        tester.assertValue(RESULT);
+        tester.assertCompleted();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void onWrite_onlineFailure() {
+        TestSubscriber<String> tester = write(true);
+
+        ArgumentCaptor<OnFailureListener> listener = ArgumentCaptor.forClass(OnFailureListener.class);
+        verify(task).addOnFailureListener(listener.capture());
+        listener.getValue().onFailure(new IllegalStateException("error"));
+
+        tester.assertNoValues();
+        tester.assertError(IllegalStateException.class);
+    }
+
+    private TestSubscriber<String> write(boolean online) {
+        TestSubscriber<String> tester = new TestSubscriber<>();
+        Observable.<String>create(subscriber ->
+            FirestoreRepositoryImpl.onWrite(online, task, subscriber, RESULT, "test"))
+            .subscribe(tester);
+        return tester;
+    }
+
+}
@@ -1,7 +1,6 @@
 package com.github.openwebnet.service;
 
 import com.github.niqdev.openwebnet.OpenSession;
-import com.github.niqdev.openwebnet.OpenWebNet;
 import com.github.niqdev.openwebnet.message.Automation;
 import com.github.niqdev.openwebnet.message.OpenMessage;
 import com.github.openwebnet.BuildConfig;
@@ -13,7 +12,6 @@ import com.github.openwebnet.component.module.DatabaseModuleTest;
 import com.github.openwebnet.component.module.DomoticModule;
 import com.github.openwebnet.component.module.RepositoryModuleTest;
 import com.github.openwebnet.model.AutomationModel;
-import com.github.openwebnet.model.GatewayModel;
 import com.github.openwebnet.repository.AutomationRepository;
 
 import org.junit.After;
@@ -39,6 +37,8 @@ import rx.Observable;
 import rx.observers.TestSubscriber;
 import rx.plugins.RxJavaTestPlugins;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -241,7 +241,7 @@ public class AutomationServiceTest {
         TestSubscriber<AutomationModel> tester = new TestSubscriber<>();
         automationService.stop(automation).subscribe(tester);
 
-        verify(commonService).findClient(GATEWAY_UUID);
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
 
         tester.assertValue(automation);
         tester.assertCompleted();
@@ -256,7 +256,7 @@ public class AutomationServiceTest {
         TestSubscriber<AutomationModel> tester = new TestSubscriber<>();
         automationService.moveUp(automation).subscribe(tester);
 
-        verify(commonService).findClient(GATEWAY_UUID);
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
 
         tester.assertValue(automation);
         tester.assertCompleted();
@@ -271,7 +271,22 @@ public class AutomationServiceTest {
         TestSubscriber<AutomationModel> tester = new TestSubscriber<>();
         automationService.moveDown(automation).subscribe(tester);
 
-        verify(commonService).findClient(GATEWAY_UUID);
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
+
+        tester.assertValue(automation);
+        tester.assertCompleted();
+        tester.assertNoErrors();
+    }
+
+    @Test
+    public void automationService_requestStatus() {
+        AutomationModel automation = mockAutomationModel();
+        mockClient();
+
+        TestSubscriber<AutomationModel> tester = new TestSubscriber<>();
+        automationService.requestStatus(automation).subscribe(tester);
+
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
 
         tester.assertValue(automation);
         tester.assertCompleted();
@@ -289,27 +304,13 @@ public class AutomationServiceTest {
             .build();
     }
 
-    private OpenWebNet mockClient() {
-        String GATEWAY_HOST = "1.1.1.1";
-        Integer GATEWAY_PORT = 1;
-
-        GatewayModel gateway = new GatewayModel();
-        gateway.setUuid(GATEWAY_UUID);
-        gateway.setHost(GATEWAY_HOST);
-        gateway.setPort(GATEWAY_PORT);
-
+    private void mockClient() {
         OpenMessage request = () -> "REQUEST";
         OpenMessage response = () -> "RESPONSE";
         OpenSession session = OpenSession.newSession(request);
         session.addResponse(response);
 
-        OpenWebNet client = OpenWebNet.newClient(OpenWebNet.gateway(GATEWAY_HOST, GATEWAY_PORT));
-        OpenWebNet clientSpy = PowerMockito.mock(OpenWebNet.class, invocation -> Observable.just(client));
-
-        when(clientSpy.send(request)).thenReturn(Observable.just(session));
-        when(commonService.findClient(GATEWAY_UUID)).thenReturn(clientSpy);
-
-        return clientSpy;
+        when(commonService.send(eq(GATEWAY_UUID), any(OpenMessage.class))).thenReturn(Observable.just(session));
     }
 
 }
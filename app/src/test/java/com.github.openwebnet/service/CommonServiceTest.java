@@ -3,6 +3,7 @@ package com.github.openwebnet.service;
 import android.content.Context;
 import android.support.v7.app.AppCompatActivity;
 
+import com.github.niqdev.openwebnet.OpenSession;
 import com.github.niqdev.openwebnet.OpenWebNet;
 import com.github.openwebnet.BuildConfig;
 import com.github.openwebnet.OpenWebNetApplicationTest;
@@ -16,8 +17,10 @@ import com.github.openwebnet.model.GatewayModel;
 import com.github.openwebnet.service.impl.CommonServiceImpl;
 import com.github.openwebnet.service.impl.FirebaseServiceImpl;
 import com.github.openwebnet.service.impl.PreferenceServiceImpl;
+import com.github.openwebnet.service.impl.SnapshotServiceImpl;
 import com.github.openwebnet.service.impl.UtilityServiceImpl;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -30,6 +33,10 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -37,9 +44,16 @@ import dagger.Component;
 import dagger.Module;
 import dagger.Provides;
 import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.plugins.RxJavaHooks;
+import rx.plugins.RxJavaTestPlugins;
+import rx.schedulers.TestScheduler;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -117,6 +131,22 @@ public class CommonServiceTest {
             return mock(FirebaseServiceImpl.class);
         }
 
+        @Provides
+        @Singleton
+        public SnapshotService provideSnapshotService() {
+            return mock(SnapshotServiceImpl.class);
+        }
+
+    }
+
+    @Before
+    public void setupRxJava() {
+        RxJavaTestPlugins.immediateAndroidSchedulers();
+    }
+
+    @After
+    public void tearDownRxJava() {
+        RxJavaTestPlugins.resetPlugins();
     }
 
     @Before
@@ -144,6 +174,7 @@ public class CommonServiceTest {
 
         when(utilityService.getString(ID_LABEL)).thenReturn(LABEL_ENVIRONMENT);
         when(environmentService.add(LABEL_ENVIRONMENT)).thenReturn(Observable.just(ID_ENVIRONMENT));
+        when(gatewayService.findAll()).thenReturn(Observable.just(new ArrayList<>()));
 
         commonService.initApplication(mock(AppCompatActivity.class));
 
@@ -154,6 +185,7 @@ public class CommonServiceTest {
     @Test
     public void commonService_initApplication_isNotFirstTime() {
         when(preferenceService.isFirstRun()).thenReturn(false);
+        when(gatewayService.findAll()).thenReturn(Observable.just(new ArrayList<>()));
 
         commonService.initApplication(mock(AppCompatActivity.class));
 
@@ -170,15 +202,123 @@ public class CommonServiceTest {
         gateway.setPort(123);
 
         when(preferenceService.isFirstRun()).thenReturn(false);
+        when(gatewayService.findAll()).thenReturn(Observable.just(new ArrayList<>()));
         when(gatewayService.findById(GATEWAY_UUID)).thenReturn(Observable.just(gateway));
 
         commonService.initApplication(mock(AppCompatActivity.class));
         OpenWebNet client = commonService.findClient(GATEWAY_UUID);
 
         assertNotNull("null client", client);
+        assertSame("client not cached", client, commonService.findClient(GATEWAY_UUID));
         verify(gatewayService).findById(GATEWAY_UUID);
     }
 
+    @Test
+    public void commonService_findClient_warmUp() {
+        String GATEWAY_UUID = "gatewayUuid";
+        GatewayModel gateway = new GatewayModel();
+        gateway.setUuid(GATEWAY_UUID);
+        gateway.setHost("host");
+        gateway.setPort(123);
+
+        when(preferenceService.isFirstRun()).thenReturn(false);
+        when(gatewayService.findAll()).thenReturn(Observable.just(Arrays.asList(gateway)));
+        when(gatewayService.findById(GATEWAY_UUID)).thenReturn(Observable.just(gateway));
+
+        commonService.initApplication(mock(AppCompatActivity.class));
+        // loaded by the warm up
+        verify(gatewayService).findById(GATEWAY_UUID);
+
+        OpenWebNet client = commonService.findClient(GATEWAY_UUID);
+
+        assertNotNull("null client", client);
+        verify(gatewayService, times(1)).findById(GATEWAY_UUID);
+    }
+
+    @Test
+    public void commonService_send_lookupOnIo() {
+        String GATEWAY_UUID = "gatewayUuid";
+        GatewayModel gateway = new GatewayModel();
+        gateway.setUuid(GATEWAY_UUID);
+        gateway.setHost("host");
+        gateway.setPort(123);
+
+        when(gatewayService.findById(GATEWAY_UUID)).thenReturn(Observable.just(gateway));
+
+        TestScheduler ioScheduler = new TestScheduler();
+        RxJavaHooks.setOnIOScheduler(scheduler -> ioScheduler);
+        try {
+            commonService.send(GATEWAY_UUID, () -> "*#1*21##").subscribe(new TestSubscriber<>());
+            // not on the caller thread
+            verify(gatewayService, never()).findById(GATEWAY_UUID);
+
+            ioScheduler.triggerActions();
+            verify(gatewayService).findById(GATEWAY_UUID);
+        } finally {
+            RxJavaHooks.reset();
+        }
+    }
+
+    @Test
+    public void commonService_unknownGateway() {
+        String GATEWAY_UUID = "gatewayUuid";
+        when(gatewayService.findById(GATEWAY_UUID))
+            .thenReturn(Observable.error(new IllegalStateException("primary key violation: invalid uuid")));
+
+        assertNull("client should not exist", commonService.findClient(GATEWAY_UUID));
+
+        TestSubscriber<OpenSession> tester = new TestSubscriber<>();
+        commonService.send(GATEWAY_UUID, () -> "*#1*21##").subscribe(tester);
+
+        tester.awaitTerminalEvent(1, TimeUnit.SECONDS);
+        tester.assertNoValues();
+        tester.assertError(IllegalStateException.class);
+    }
+
+    @Test
+    public void commonService_getGatewayStats() {
+        String GATEWAY_UUID = "gatewayUuid";
+        GatewayModel gateway = new GatewayModel();
+        gateway.setUuid(GATEWAY_UUID);
+        gateway.setHost("host");
+        gateway.setPort(123);
+
+        when(gatewayService.findById(GATEWAY_UUID)).thenReturn(Observable.just(gateway));
+
+        // no session is opened to read the stats
+        assertNull("session should not exist", commonService.getGatewayStats(GATEWAY_UUID));
+        verify(gatewayService, never()).findById(GATEWAY_UUID);
+
+        commonService.findClient(GATEWAY_UUID);
+        GatewayStats stats = commonService.getGatewayStats(GATEWAY_UUID);
+
+        assertNotNull("null stats", stats);
+        assertEquals("invalid gateway", GATEWAY_UUID, stats.getGatewayUuid());
+        assertEquals("invalid in flight", 0, stats.getInFlight());
+        assertEquals("invalid queue depth", 0, stats.getQueueDepth());
+        assertEquals("invalid max queue depth", 0, stats.getMaxQueueDepth());
+
+        commonService.invalidateClient(GATEWAY_UUID);
+        assertNull("stale stats", commonService.getGatewayStats(GATEWAY_UUID));
+    }
+
+    @Test
+    public void commonService_invalidateClient() {
+        String GATEWAY_UUID = "gatewayUuid";
+        GatewayModel gateway = new GatewayModel();
+        gateway.setUuid(GATEWAY_UUID);
+        gateway.setHost("host");
+        gateway.setPort(123);
+
+        when(gatewayService.findById(GATEWAY_UUID)).thenReturn(Observable.just(gateway));
+
+        OpenWebNet client = commonService.findClient(GATEWAY_UUID);
+        commonService.invalidateClient(GATEWAY_UUID);
+
+        assertNotSame("stale client", client, commonService.findClient(GATEWAY_UUID));
+        verify(gatewayService, times(2)).findById(GATEWAY_UUID);
+    }
+
     @Test
     public void commonService_getDefaultGateway() {
         String DEFAULT_GATEWAY = "gatewayUuid";
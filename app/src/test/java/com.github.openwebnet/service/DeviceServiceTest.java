@@ -1,7 +1,6 @@
 package com.github.openwebnet.service;
 
 import com.github.niqdev.openwebnet.OpenSession;
-import com.github.niqdev.openwebnet.OpenWebNet;
 import com.github.niqdev.openwebnet.message.OpenMessage;
 import com.github.openwebnet.BuildConfig;
 import com.github.openwebnet.OpenWebNetApplicationTest;
@@ -12,7 +11,6 @@ import com.github.openwebnet.component.module.DatabaseModuleTest;
 import com.github.openwebnet.component.module.DomoticModule;
 import com.github.openwebnet.component.module.RepositoryModuleTest;
 import com.github.openwebnet.model.DeviceModel;
-import com.github.openwebnet.model.GatewayModel;
 import com.github.openwebnet.repository.DeviceRepository;
 
 import org.junit.After;
@@ -39,6 +37,8 @@ import rx.Observable;
 import rx.observers.TestSubscriber;
 import rx.plugins.RxJavaTestPlugins;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -233,28 +233,15 @@ public class DeviceServiceTest {
 
     }
 
-    private OpenWebNet mockClient() {
+    private void mockClient() {
         String GATEWAY_UUID = "myGateway";
-        String GATEWAY_HOST = "1.1.1.1";
-        Integer GATEWAY_PORT = 1;
-
-        GatewayModel gateway = new GatewayModel();
-        gateway.setUuid(GATEWAY_UUID);
-        gateway.setHost(GATEWAY_HOST);
-        gateway.setPort(GATEWAY_PORT);
 
         OpenMessage request = () -> "REQUEST";
         OpenMessage response = () -> "RESPONSE";
         OpenSession session = OpenSession.newSession(request);
         session.addResponse(response);
 
-        OpenWebNet client = OpenWebNet.newClient(OpenWebNet.gateway(GATEWAY_HOST, GATEWAY_PORT));
-        OpenWebNet clientSpy = PowerMockito.mock(OpenWebNet.class, invocation -> Observable.just(client));
-
-        when(clientSpy.send(request)).thenReturn(Observable.just(session));
-        when(commonService.findClient(GATEWAY_UUID)).thenReturn(clientSpy);
-
-        return clientSpy;
+        when(commonService.send(eq(GATEWAY_UUID), any(OpenMessage.class))).thenReturn(Observable.just(session));
     }
     
 }
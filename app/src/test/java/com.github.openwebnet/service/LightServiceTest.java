@@ -1,7 +1,6 @@
 package com.github.openwebnet.service;
 
 import com.github.niqdev.openwebnet.OpenSession;
-import com.github.niqdev.openwebnet.OpenWebNet;
 import com.github.niqdev.openwebnet.message.Lighting;
 import com.github.niqdev.openwebnet.message.OpenMessage;
 import com.github.openwebnet.BuildConfig;
@@ -12,9 +11,9 @@ import com.github.openwebnet.component.module.ApplicationContextModuleTest;
 import com.github.openwebnet.component.module.DatabaseModuleTest;
 import com.github.openwebnet.component.module.DomoticModule;
 import com.github.openwebnet.component.module.RepositoryModuleTest;
-import com.github.openwebnet.model.GatewayModel;
 import com.github.openwebnet.model.LightModel;
 import com.github.openwebnet.repository.LightRepository;
+import com.google.common.collect.Lists;
 
 import org.junit.After;
 import org.junit.Before;
@@ -39,6 +38,10 @@ import rx.Observable;
 import rx.observers.TestSubscriber;
 import rx.plugins.RxJavaTestPlugins;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -62,6 +65,9 @@ public class LightServiceTest {
     @Inject
     CommonService commonService;
 
+    @Inject
+    PreferenceService preferenceService;
+
     @Singleton
     @Component(modules = {
         ApplicationContextModuleTest.class,
@@ -237,7 +243,7 @@ public class LightServiceTest {
         TestSubscriber<LightModel> tester = new TestSubscriber<>();
         lightService.turnOn(light).subscribe(tester);
 
-        verify(commonService).findClient(GATEWAY_UUID);
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
 
         tester.assertValue(light);
         tester.assertCompleted();
@@ -252,7 +258,47 @@ public class LightServiceTest {
         TestSubscriber<LightModel> tester = new TestSubscriber<>();
         lightService.turnOff(light).subscribe(tester);
 
-        verify(commonService).findClient(GATEWAY_UUID);
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
+
+        tester.assertValue(light);
+        tester.assertCompleted();
+        tester.assertNoErrors();
+    }
+
+    @Test
+    public void lightService_requestByEnvironment_cachedState() {
+        Integer ENVIRONMENT = 108;
+        LightModel light = mockLightModel();
+
+        when(preferenceService.getGatewayStateCacheSeconds()).thenReturn(30);
+        mockClient("*#*1##");
+        lightService.turnOn(light).subscribe();
+
+        // fresh copy from the database
+        LightModel lightCopy = mockLightModel();
+        when(lightRepository.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.newArrayList(lightCopy)));
+
+        TestSubscriber<List<LightModel>> tester = new TestSubscriber<>();
+        lightService.requestByEnvironment(ENVIRONMENT).subscribe(tester);
+
+        // only the command: the status is not requested again
+        verify(commonService, times(1)).send(eq(GATEWAY_UUID), any(OpenMessage.class));
+        assertEquals("invalid cached status", LightModel.Status.ON, lightCopy.getStatus());
+
+        tester.assertValue(Lists.newArrayList(lightCopy));
+        tester.assertCompleted();
+        tester.assertNoErrors();
+    }
+
+    @Test
+    public void lightService_requestStatus() {
+        LightModel light = mockLightModel();
+        mockClient();
+
+        TestSubscriber<LightModel> tester = new TestSubscriber<>();
+        lightService.requestStatus(light).subscribe(tester);
+
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
 
         tester.assertValue(light);
         tester.assertCompleted();
@@ -270,27 +316,17 @@ public class LightServiceTest {
             .build();
     }
 
-    private OpenWebNet mockClient() {
-        String GATEWAY_HOST = "1.1.1.1";
-        Integer GATEWAY_PORT = 1;
-
-        GatewayModel gateway = new GatewayModel();
-        gateway.setUuid(GATEWAY_UUID);
-        gateway.setHost(GATEWAY_HOST);
-        gateway.setPort(GATEWAY_PORT);
+    private void mockClient() {
+        mockClient("RESPONSE");
+    }
 
+    private void mockClient(String value) {
         OpenMessage request = () -> "REQUEST";
-        OpenMessage response = () -> "RESPONSE";
+        OpenMessage response = () -> value;
         OpenSession session = OpenSession.newSession(request);
         session.addResponse(response);
 
-        OpenWebNet client = OpenWebNet.newClient(OpenWebNet.gateway(GATEWAY_HOST, GATEWAY_PORT));
-        OpenWebNet clientSpy = PowerMockito.mock(OpenWebNet.class, invocation -> Observable.just(client));
-
-        when(clientSpy.send(request)).thenReturn(Observable.just(session));
-        when(commonService.findClient(GATEWAY_UUID)).thenReturn(clientSpy);
-
-        return clientSpy;
+        when(commonService.send(eq(GATEWAY_UUID), any(OpenMessage.class))).thenReturn(Observable.just(session));
     }
 
 }
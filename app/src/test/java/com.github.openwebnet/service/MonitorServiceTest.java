@@ -0,0 +1,207 @@
+package com.github.openwebnet.service;
+
+import com.github.niqdev.openwebnet.message.Heating;
+import com.github.openwebnet.BuildConfig;
+import com.github.openwebnet.OpenWebNetApplicationTest;
+import com.github.openwebnet.component.ApplicationComponent;
+import com.github.openwebnet.component.Injector;
+import com.github.openwebnet.component.module.ApplicationContextModuleTest;
+import com.github.openwebnet.component.module.DatabaseModuleTest;
+import com.github.openwebnet.component.module.DomoticModule;
+import com.github.openwebnet.component.module.RepositoryModuleTest;
+import com.github.openwebnet.model.AutomationModel;
+import com.github.openwebnet.model.GatewayModel;
+import com.github.openwebnet.model.LightModel;
+import com.github.openwebnet.model.TemperatureModel;
+import com.github.openwebnet.repository.GatewayRepository;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.Component;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = OpenWebNetApplicationTest.class, constants = BuildConfig.class, sdk = 21)
+@PowerMockIgnore({"android.*"})
+@PrepareForTest({Injector.class})
+public class MonitorServiceTest {
+
+    private static final String GATEWAY_UUID = "myGateway";
+    private static final Charset CHARSET = Charset.forName("US-ASCII");
+
+    @Rule
+    public PowerMockRule rule = new PowerMockRule();
+
+    @Inject
+    GatewayRepository gatewayRepository;
+
+    @Inject
+    PreferenceService preferenceService;
+
+    @Inject
+    MonitorService monitorService;
+
+    @Singleton
+    @Component(modules = {
+        ApplicationContextModuleTest.class,
+        DatabaseModuleTest.class,
+        RepositoryModuleTest.class,
+        DomoticModule.class
+    })
+    public interface MonitorComponentTest extends ApplicationComponent {
+
+        void inject(MonitorServiceTest service);
+
+    }
+
+    private ServerSocket serverSocket;
+
+    @Before
+    public void setupDagger() {
+        MonitorComponentTest applicationComponentTest = DaggerMonitorServiceTest_MonitorComponentTest.builder()
+            .applicationContextModuleTest(new ApplicationContextModuleTest())
+            .databaseModuleTest(new DatabaseModuleTest())
+            .repositoryModuleTest(new RepositoryModuleTest(true))
+            .domoticModule(new DomoticModule())
+            .build();
+
+        PowerMockito.mockStatic(Injector.class);
+        PowerMockito.when(Injector.getApplicationComponent()).thenReturn(applicationComponentTest);
+
+        ((MonitorComponentTest) Injector.getApplicationComponent()).inject(this);
+    }
+
+    @After
+    public void tearDownGateway() throws Exception {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+    }
+
+    /*
+     * Fake gateway: accepts the event session and sends the given frames.
+     */
+    private void mockGateway(String... frames) throws Exception {
+        serverSocket = new ServerSocket(0);
+
+        GatewayModel gateway = new GatewayModel();
+        gateway.setUuid(GATEWAY_UUID);
+        gateway.setHost("127.0.0.1");
+        gateway.setPort(serverSocket.getLocalPort());
+        when(gatewayRepository.findAll()).thenReturn(Observable.just(Collections.singletonList(gateway)));
+
+        new Thread(() -> {
+            try (Socket socket = serverSocket.accept()) {
+                InputStream input = socket.getInputStream();
+                OutputStream output = socket.getOutputStream();
+                output.write("*#*1##".getBytes(CHARSET));
+                byte[] request = new byte["*99*1##".length()];
+                int read = 0;
+                while (read < request.length) {
+                    read += input.read(request, read, request.length - read);
+                }
+                assertEquals("*99*1##", new String(request, CHARSET));
+                output.write("*#*1##".getBytes(CHARSET));
+                for (String frame : frames) {
+                    output.write(frame.getBytes(CHARSET));
+                }
+                output.flush();
+                // keep the session open
+                input.read();
+            } catch (Exception e) {
+                // closed on tear down
+            }
+        }).start();
+    }
+
+    private LightModel newLight(String where) {
+        LightModel light = new LightModel();
+        light.setGatewayUuid(GATEWAY_UUID);
+        light.setWhere(where);
+        return light;
+    }
+
+    @Test
+    public void monitorService_observe() throws Exception {
+        when(preferenceService.getDefaultTemperatureScale()).thenReturn(Heating.TemperatureScale.CELSIUS);
+        mockGateway("*1*1*21##", "*1*0*22##", "*2*2*31##", "*#4*1*0*0215##", "*#*1##");
+
+        TestSubscriber<String> tester = new TestSubscriber<>();
+        monitorService.observe().subscribe(tester);
+        tester.awaitValueCount(4, 5, TimeUnit.SECONDS);
+        tester.unsubscribe();
+
+        tester.assertValues(GATEWAY_UUID, GATEWAY_UUID, GATEWAY_UUID, GATEWAY_UUID);
+        tester.assertNoErrors();
+
+        LightModel lightOn = newLight("21");
+        assertTrue("should be updated", monitorService.update(lightOn));
+        assertEquals("should be on", LightModel.Status.ON, lightOn.getStatus());
+        assertFalse("should not be updated twice", monitorService.update(lightOn));
+
+        LightModel lightOff = newLight("22");
+        assertTrue("should be updated", monitorService.update(lightOff));
+        assertEquals("should be off", LightModel.Status.OFF, lightOff.getStatus());
+
+        assertFalse("should not be monitored", monitorService.update(newLight("23")));
+
+        AutomationModel automation = new AutomationModel();
+        automation.setGatewayUuid(GATEWAY_UUID);
+        automation.setWhere("31");
+        assertTrue("should be updated", monitorService.update(automation));
+        assertEquals("should be down", AutomationModel.Status.DOWN, automation.getStatus());
+
+        TemperatureModel temperature = new TemperatureModel();
+        temperature.setGatewayUuid(GATEWAY_UUID);
+        temperature.setWhere("1");
+        assertTrue("should be updated", monitorService.update(temperature));
+        assertEquals("invalid temperature", "21.5", temperature.getValue());
+    }
+
+    @Test
+    public void monitorService_reload() throws Exception {
+        mockGateway("*1*1*21##");
+
+        TestSubscriber<String> tester = new TestSubscriber<>();
+        monitorService.observe().subscribe(tester);
+        tester.awaitValueCount(1, 5, TimeUnit.SECONDS);
+
+        monitorService.reload();
+
+        // the gateways are read again and the old states are discarded
+        verify(gatewayRepository, timeout(5000).times(2)).findAll();
+        assertFalse("should not be updated", monitorService.update(newLight("21")));
+        tester.unsubscribe();
+        tester.assertNoErrors();
+    }
+
+}
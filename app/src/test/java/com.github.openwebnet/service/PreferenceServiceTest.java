@@ -13,6 +13,7 @@ import com.github.openwebnet.component.module.RepositoryModuleTest;
 import com.github.openwebnet.service.impl.CommonServiceImpl;
 import com.github.openwebnet.service.impl.FirebaseServiceImpl;
 import com.github.openwebnet.service.impl.PreferenceServiceImpl;
+import com.github.openwebnet.service.impl.SnapshotServiceImpl;
 import com.github.openwebnet.service.impl.UtilityServiceImpl;
 
 import org.junit.Before;
@@ -37,11 +38,15 @@ import dagger.Provides;
 
 import static com.github.niqdev.openwebnet.message.Heating.TemperatureScale.CELSIUS;
 import static com.github.niqdev.openwebnet.message.Heating.TemperatureScale.FAHRENHEIT;
+import static com.github.openwebnet.service.impl.PreferenceServiceImpl.DEFAULT_GATEWAY_MAX_REQUESTS;
+import static com.github.openwebnet.service.impl.PreferenceServiceImpl.DEFAULT_GATEWAY_STATE_CACHE_SECONDS;
 import static com.github.openwebnet.service.impl.PreferenceServiceImpl.KEY_FIRST_RUN;
 import static com.github.openwebnet.service.impl.PreferenceServiceImpl.PREFERENCE_DEFAULT;
 import static com.github.openwebnet.service.impl.PreferenceServiceImpl.PREFERENCE_MAIN;
 import static com.github.openwebnet.view.settings.GatewayListPreference.PREF_DEFAULT_GATEWAY_KEY;
 import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_DEBUG_DEVICE;
+import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_GATEWAY_MAX_REQUESTS;
+import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_GATEWAY_STATE_CACHE;
 import static com.github.openwebnet.view.settings.SettingsFragment.PREF_KEY_TEMPERATURE;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
@@ -107,6 +112,12 @@ public class PreferenceServiceTest {
             return mock(FirebaseServiceImpl.class);
         }
 
+        @Provides
+        @Singleton
+        public SnapshotService provideSnapshotService() {
+            return mock(SnapshotServiceImpl.class);
+        }
+
     }
 
     @Before
@@ -154,6 +165,20 @@ public class PreferenceServiceTest {
         assertEquals("invalid gateway", GATEWAY, preferenceService.getDefaultGateway());
     }
 
+    @Test
+    public void testGetGatewayMaxRequests() {
+        assertEquals("invalid max requests", DEFAULT_GATEWAY_MAX_REQUESTS, preferenceService.getGatewayMaxRequests());
+        getMockedDefaultSharedPreferences().edit().putString(PREF_KEY_GATEWAY_MAX_REQUESTS, "4").commit();
+        assertEquals("invalid max requests", 4, preferenceService.getGatewayMaxRequests());
+    }
+
+    @Test
+    public void testGetGatewayStateCacheSeconds() {
+        assertEquals("invalid state cache", DEFAULT_GATEWAY_STATE_CACHE_SECONDS, preferenceService.getGatewayStateCacheSeconds());
+        getMockedDefaultSharedPreferences().edit().putString(PREF_KEY_GATEWAY_STATE_CACHE, "0").commit();
+        assertEquals("invalid state cache", 0, preferenceService.getGatewayStateCacheSeconds());
+    }
+
     @Test
     public void testGetDefaultTemperatureScale() {
         assertEquals("invalid temperature scale", CELSIUS, preferenceService.getDefaultTemperatureScale());
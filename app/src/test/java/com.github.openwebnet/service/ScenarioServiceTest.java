@@ -1,7 +1,6 @@
 package com.github.openwebnet.service;
 
 import com.github.niqdev.openwebnet.OpenSession;
-import com.github.niqdev.openwebnet.OpenWebNet;
 import com.github.niqdev.openwebnet.message.OpenMessage;
 import com.github.openwebnet.BuildConfig;
 import com.github.openwebnet.OpenWebNetApplicationTest;
@@ -11,7 +10,6 @@ import com.github.openwebnet.component.module.ApplicationContextModuleTest;
 import com.github.openwebnet.component.module.DatabaseModuleTest;
 import com.github.openwebnet.component.module.DomoticModule;
 import com.github.openwebnet.component.module.RepositoryModuleTest;
-import com.github.openwebnet.model.GatewayModel;
 import com.github.openwebnet.model.ScenarioModel;
 import com.github.openwebnet.repository.ScenarioRepository;
 
@@ -38,6 +36,8 @@ import rx.Observable;
 import rx.observers.TestSubscriber;
 import rx.plugins.RxJavaTestPlugins;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -236,7 +236,7 @@ public class ScenarioServiceTest {
         TestSubscriber<ScenarioModel> tester = new TestSubscriber<>();
         scenarioService.start(scenario).subscribe(tester);
 
-        verify(commonService).findClient(GATEWAY_UUID);
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
 
         tester.assertValue(scenario);
         tester.assertCompleted();
@@ -251,7 +251,22 @@ public class ScenarioServiceTest {
         TestSubscriber<ScenarioModel> tester = new TestSubscriber<>();
         scenarioService.stop(scenario).subscribe(tester);
 
-        verify(commonService).findClient(GATEWAY_UUID);
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
+
+        tester.assertValue(scenario);
+        tester.assertCompleted();
+        tester.assertNoErrors();
+    }
+
+    @Test
+    public void scenarioService_requestStatus() {
+        ScenarioModel scenario = mockScenarioModel();
+        mockClient();
+
+        TestSubscriber<ScenarioModel> tester = new TestSubscriber<>();
+        scenarioService.requestStatus(scenario).subscribe(tester);
+
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
 
         tester.assertValue(scenario);
         tester.assertCompleted();
@@ -267,27 +282,13 @@ public class ScenarioServiceTest {
             .build();
     }
 
-    private OpenWebNet mockClient() {
-        String GATEWAY_HOST = "1.1.1.1";
-        Integer GATEWAY_PORT = 1;
-
-        GatewayModel gateway = new GatewayModel();
-        gateway.setUuid(GATEWAY_UUID);
-        gateway.setHost(GATEWAY_HOST);
-        gateway.setPort(GATEWAY_PORT);
-
+    private void mockClient() {
         OpenMessage request = () -> "REQUEST";
         OpenMessage response = () -> "RESPONSE";
         OpenSession session = OpenSession.newSession(request);
         session.addResponse(response);
 
-        OpenWebNet client = OpenWebNet.newClient(OpenWebNet.gateway(GATEWAY_HOST, GATEWAY_PORT));
-        OpenWebNet clientSpy = PowerMockito.mock(OpenWebNet.class, invocation -> Observable.just(client));
-
-        when(clientSpy.send(request)).thenReturn(Observable.just(session));
-        when(commonService.findClient(GATEWAY_UUID)).thenReturn(clientSpy);
-
-        return clientSpy;
+        when(commonService.send(eq(GATEWAY_UUID), any(OpenMessage.class))).thenReturn(Observable.just(session));
     }
 
 }
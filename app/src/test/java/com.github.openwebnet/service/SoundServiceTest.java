@@ -1,7 +1,6 @@
 package com.github.openwebnet.service;
 
 import com.github.niqdev.openwebnet.OpenSession;
-import com.github.niqdev.openwebnet.OpenWebNet;
 import com.github.niqdev.openwebnet.message.OpenMessage;
 import com.github.niqdev.openwebnet.message.SoundSystem;
 import com.github.openwebnet.BuildConfig;
@@ -12,7 +11,6 @@ import com.github.openwebnet.component.module.ApplicationContextModuleTest;
 import com.github.openwebnet.component.module.DatabaseModuleTest;
 import com.github.openwebnet.component.module.DomoticModule;
 import com.github.openwebnet.component.module.RepositoryModuleTest;
-import com.github.openwebnet.model.GatewayModel;
 import com.github.openwebnet.model.SoundModel;
 import com.github.openwebnet.repository.SoundRepository;
 
@@ -39,6 +37,8 @@ import rx.Observable;
 import rx.observers.TestSubscriber;
 import rx.plugins.RxJavaTestPlugins;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -237,7 +237,7 @@ public class SoundServiceTest {
         TestSubscriber<SoundModel> tester = new TestSubscriber<>();
         soundService.turnOn(sound).subscribe(tester);
 
-        verify(commonService).findClient(GATEWAY_UUID);
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
 
         tester.assertValue(sound);
         tester.assertCompleted();
@@ -252,7 +252,22 @@ public class SoundServiceTest {
         TestSubscriber<SoundModel> tester = new TestSubscriber<>();
         soundService.turnOff(sound).subscribe(tester);
 
-        verify(commonService).findClient(GATEWAY_UUID);
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
+
+        tester.assertValue(sound);
+        tester.assertCompleted();
+        tester.assertNoErrors();
+    }
+
+    @Test
+    public void soundService_requestStatus() {
+        SoundModel sound = mockSoundModel();
+        mockClient();
+
+        TestSubscriber<SoundModel> tester = new TestSubscriber<>();
+        soundService.requestStatus(sound).subscribe(tester);
+
+        verify(commonService).send(eq(GATEWAY_UUID), any(OpenMessage.class));
 
         tester.assertValue(sound);
         tester.assertCompleted();
@@ -270,27 +285,13 @@ public class SoundServiceTest {
             .build();
     }
 
-    private OpenWebNet mockClient() {
-        String GATEWAY_HOST = "1.1.1.1";
-        Integer GATEWAY_PORT = 1;
-
-        GatewayModel gateway = new GatewayModel();
-        gateway.setUuid(GATEWAY_UUID);
-        gateway.setHost(GATEWAY_HOST);
-        gateway.setPort(GATEWAY_PORT);
-
+    private void mockClient() {
         OpenMessage request = () -> "REQUEST";
         OpenMessage response = () -> "RESPONSE";
         OpenSession session = OpenSession.newSession(request);
         session.addResponse(response);
 
-        OpenWebNet client = OpenWebNet.newClient(OpenWebNet.gateway(GATEWAY_HOST, GATEWAY_PORT));
-        OpenWebNet clientSpy = PowerMockito.mock(OpenWebNet.class, invocation -> Observable.just(client));
-
-        when(clientSpy.send(request)).thenReturn(Observable.just(session));
-        when(commonService.findClient(GATEWAY_UUID)).thenReturn(clientSpy);
-
-        return clientSpy;
+        when(commonService.send(eq(GATEWAY_UUID), any(OpenMessage.class))).thenReturn(Observable.just(session));
     }
 
 }
@@ -16,6 +16,7 @@ import com.github.openwebnet.component.module.RepositoryModuleTest;
 import com.github.openwebnet.service.impl.CommonServiceImpl;
 import com.github.openwebnet.service.impl.FirebaseServiceImpl;
 import com.github.openwebnet.service.impl.PreferenceServiceImpl;
+import com.github.openwebnet.service.impl.SnapshotServiceImpl;
 import com.github.openwebnet.service.impl.UtilityServiceImpl;
 
 import org.junit.Before;
@@ -107,6 +108,12 @@ public class UtilityServiceTest {
             return mock(FirebaseServiceImpl.class);
         }
 
+        @Provides
+        @Singleton
+        public SnapshotService provideSnapshotService() {
+            return mock(SnapshotServiceImpl.class);
+        }
+
     }
 
     @Before
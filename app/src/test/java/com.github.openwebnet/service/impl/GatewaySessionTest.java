@@ -0,0 +1,269 @@
+package com.github.openwebnet.service.impl;
+
+import com.github.niqdev.openwebnet.OpenSession;
+import com.github.niqdev.openwebnet.OpenWebNet;
+import com.github.niqdev.openwebnet.message.OpenMessage;
+import com.github.openwebnet.BuildConfig;
+import com.github.openwebnet.OpenWebNetApplicationTest;
+import com.github.openwebnet.service.GatewayStats;
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.net.ConnectException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = OpenWebNetApplicationTest.class, constants = BuildConfig.class, sdk = 21)
+@PowerMockIgnore({"org.mockito.*", "org.robolectric.*", "android.*"})
+@PrepareForTest({OpenWebNet.class})
+public class GatewaySessionTest {
+
+    @Rule
+    public PowerMockRule rule = new PowerMockRule();
+
+    private static final String GATEWAY_UUID = "myGateway";
+    private static final long TIMEOUT_MILLIS = 1000;
+
+    private OpenWebNet client;
+
+    @Before
+    public void setup() {
+        client = PowerMockito.mock(OpenWebNet.class);
+    }
+
+    @Test
+    public void gatewaySession_sendInOrder() {
+        OpenMessage request1 = () -> "*1*1*21##";
+        OpenMessage request2 = () -> "*1*0*22##";
+        List<OpenSession> sessions = Lists.newArrayList(newSession(request1), newSession(request2));
+        when(client.send(anyListOf(OpenMessage.class))).thenReturn(Observable.just(sessions));
+
+        GatewaySession gatewaySession = new GatewaySession(GATEWAY_UUID, client, () -> 1);
+        TestSubscriber<List<OpenSession>> tester = new TestSubscriber<>();
+        gatewaySession.send(Lists.newArrayList(request1, request2)).subscribe(tester);
+
+        tester.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester.assertNoErrors();
+        tester.assertValue(sessions);
+        verify(client, times(1)).send(Lists.newArrayList(request1, request2));
+        assertReleased(gatewaySession);
+    }
+
+    @Test
+    public void gatewaySession_maxRequests() {
+        PublishSubject<List<OpenSession>> pending = PublishSubject.create();
+        OpenMessage request1 = () -> "*1*1*21##";
+        OpenMessage request2 = () -> "*1*0*22##";
+        when(client.send(anyListOf(OpenMessage.class)))
+            .thenReturn(pending)
+            .thenReturn(Observable.just(Lists.newArrayList(newSession(request2))));
+
+        GatewaySession gatewaySession = new GatewaySession(GATEWAY_UUID, client, () -> 1);
+        TestSubscriber<OpenSession> tester1 = new TestSubscriber<>();
+        TestSubscriber<OpenSession> tester2 = new TestSubscriber<>();
+        gatewaySession.send(request1).subscribe(tester1);
+        verify(client, timeout(TIMEOUT_MILLIS).times(1)).send(anyListOf(OpenMessage.class));
+
+        gatewaySession.send(request2).subscribe(tester2);
+        tester2.awaitTerminalEvent(100, TimeUnit.MILLISECONDS);
+        tester2.assertNoTerminalEvent();
+        assertEquals("invalid in flight", 1, gatewaySession.getInFlight());
+        assertEquals("invalid queue depth", 1, gatewaySession.getQueueDepth());
+        GatewayStats stats = gatewaySession.getStats();
+        assertEquals("invalid stats gateway", GATEWAY_UUID, stats.getGatewayUuid());
+        assertEquals("invalid stats in flight", 1, stats.getInFlight());
+        assertEquals("invalid stats queue depth", 1, stats.getQueueDepth());
+        assertEquals("invalid stats max queue depth", 1, stats.getMaxQueueDepth());
+        verify(client, times(1)).send(anyListOf(OpenMessage.class));
+
+        pending.onNext(Lists.newArrayList(newSession(request1)));
+        pending.onCompleted();
+
+        tester1.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester1.assertNoErrors();
+        tester2.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester2.assertNoErrors();
+        tester2.assertValueCount(1);
+        verify(client, times(2)).send(anyListOf(OpenMessage.class));
+        assertReleased(gatewaySession);
+        // the peak is kept after the queue is drained
+        assertEquals("invalid max queue depth", 1, gatewaySession.getStats().getMaxQueueDepth());
+    }
+
+    @Test
+    public void gatewaySession_releaseAfterError() {
+        OpenMessage request = () -> "*1*1*21##";
+        when(client.send(anyListOf(OpenMessage.class))).thenReturn(Observable.error(new IllegalStateException("error")));
+
+        GatewaySession gatewaySession = new GatewaySession(GATEWAY_UUID, client, () -> 1);
+        TestSubscriber<OpenSession> tester = new TestSubscriber<>();
+        gatewaySession.send(request).subscribe(tester);
+
+        tester.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester.assertError(IllegalStateException.class);
+        assertReleased(gatewaySession);
+    }
+
+    @Test
+    public void gatewaySession_releaseAfterSynchronousError() {
+        OpenMessage request = () -> "*1*1*21##";
+        when(client.send(anyListOf(OpenMessage.class))).thenThrow(new IllegalStateException("error"));
+
+        GatewaySession gatewaySession = new GatewaySession(GATEWAY_UUID, client, () -> 1);
+        TestSubscriber<OpenSession> tester = new TestSubscriber<>();
+        gatewaySession.send(request).subscribe(tester);
+
+        tester.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester.assertError(IllegalStateException.class);
+        assertReleased(gatewaySession);
+    }
+
+    @Test
+    public void gatewaySession_releaseAfterCompletion() {
+        OpenMessage request = () -> "*1*1*21##";
+        when(client.send(anyListOf(OpenMessage.class))).thenReturn(Observable.just(Lists.newArrayList(newSession(request))));
+
+        GatewaySession gatewaySession = new GatewaySession(GATEWAY_UUID, client, () -> 1);
+        for (int i = 0; i < 3; i++) {
+            TestSubscriber<OpenSession> tester = new TestSubscriber<>();
+            gatewaySession.send(request).subscribe(tester);
+
+            tester.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            tester.assertNoErrors();
+            tester.assertValueCount(1);
+            assertReleased(gatewaySession);
+        }
+    }
+
+    @Test
+    public void gatewaySession_missingResponse() {
+        OpenMessage request1 = () -> "*1*1*21##";
+        OpenMessage request2 = () -> "*1*0*22##";
+        // only the first frame is answered
+        when(client.send(anyListOf(OpenMessage.class))).thenReturn(Observable.just(Lists.newArrayList(newSession(request1))));
+
+        GatewaySession gatewaySession = new GatewaySession(GATEWAY_UUID, client, () -> 1);
+        TestSubscriber<OpenSession> tester1 = new TestSubscriber<>();
+        TestSubscriber<OpenSession> tester2 = new TestSubscriber<>();
+        gatewaySession.send(request1).subscribe(tester1);
+        gatewaySession.send(request2).subscribe(tester2);
+
+        tester1.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester1.assertNoErrors();
+        tester1.assertValueCount(1);
+        tester2.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester2.assertError(IllegalStateException.class);
+        assertEquals("invalid error", "missing response", tester2.getOnErrorEvents().get(0).getMessage());
+        assertReleased(gatewaySession);
+    }
+
+    @Test
+    public void gatewaySession_fallbackOneByOne() {
+        OpenMessage request1 = () -> "*1*1*21##";
+        OpenMessage request2 = () -> "*1*0*22##";
+        OpenSession session2 = newSession(request2);
+        when(client.send(anyListOf(OpenMessage.class))).thenReturn(Observable.error(new IllegalStateException("burst")));
+        when(client.send(any(OpenMessage.class)))
+            .thenReturn(Observable.error(new IllegalStateException("frame")))
+            .thenReturn(Observable.just(session2));
+
+        GatewaySession gatewaySession = new GatewaySession(GATEWAY_UUID, client, () -> 1);
+        TestSubscriber<OpenSession> tester1 = new TestSubscriber<>();
+        TestSubscriber<OpenSession> tester2 = new TestSubscriber<>();
+        gatewaySession.send(request1).subscribe(tester1);
+        gatewaySession.send(request2).subscribe(tester2);
+
+        tester1.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester1.assertError(IllegalStateException.class);
+        tester2.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester2.assertNoErrors();
+        tester2.assertValue(session2);
+        verify(client, times(2)).send(any(OpenMessage.class));
+        assertReleased(gatewaySession);
+    }
+
+    @Test
+    public void gatewaySession_noFallbackOnTimeout() {
+        OpenMessage request1 = () -> "*1*1*21##";
+        OpenMessage request2 = () -> "*1*0*22##";
+        when(client.send(anyListOf(OpenMessage.class))).thenReturn(Observable.error(new TimeoutException()));
+
+        GatewaySession gatewaySession = new GatewaySession(GATEWAY_UUID, client, () -> 1);
+        TestSubscriber<OpenSession> tester1 = new TestSubscriber<>();
+        TestSubscriber<OpenSession> tester2 = new TestSubscriber<>();
+        gatewaySession.send(request1).subscribe(tester1);
+        gatewaySession.send(request2).subscribe(tester2);
+
+        tester1.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester1.assertError(TimeoutException.class);
+        tester2.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester2.assertError(TimeoutException.class);
+        verify(client, never()).send(any(OpenMessage.class));
+        assertReleased(gatewaySession);
+    }
+
+    @Test
+    public void gatewaySession_fallbackStopsOnConnectionError() {
+        OpenMessage request1 = () -> "*1*1*21##";
+        OpenMessage request2 = () -> "*1*0*22##";
+        when(client.send(anyListOf(OpenMessage.class))).thenReturn(Observable.error(new IllegalStateException("burst")));
+        when(client.send(any(OpenMessage.class))).thenReturn(Observable.error(new ConnectException("unreachable")));
+
+        GatewaySession gatewaySession = new GatewaySession(GATEWAY_UUID, client, () -> 1);
+        TestSubscriber<OpenSession> tester1 = new TestSubscriber<>();
+        TestSubscriber<OpenSession> tester2 = new TestSubscriber<>();
+        gatewaySession.send(request1).subscribe(tester1);
+        gatewaySession.send(request2).subscribe(tester2);
+
+        tester1.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester1.assertError(ConnectException.class);
+        tester2.awaitTerminalEvent(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        tester2.assertError(ConnectException.class);
+        // the second frame is not sent
+        verify(client, times(1)).send(any(OpenMessage.class));
+        assertReleased(gatewaySession);
+    }
+
+    private OpenSession newSession(OpenMessage request) {
+        OpenSession session = OpenSession.newSession(request);
+        session.addResponse(() -> "*#*1##");
+        return session;
+    }
+
+    // the slot is released after the subscribers are notified
+    private void assertReleased(GatewaySession gatewaySession) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (gatewaySession.getInFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertEquals("session not released", 0, gatewaySession.getInFlight());
+        assertTrue("invalid queue depth", gatewaySession.getQueueDepth() == 0);
+    }
+
+}
@@ -31,9 +31,12 @@ import com.github.openwebnet.service.FirebaseService;
 import com.github.openwebnet.service.GatewayService;
 import com.github.openwebnet.service.IpcamService;
 import com.github.openwebnet.service.LightService;
+import com.github.openwebnet.service.MonitorService;
 import com.github.openwebnet.service.PreferenceService;
 import com.github.openwebnet.service.ScenarioService;
+import com.github.openwebnet.service.SnapshotService;
 import com.github.openwebnet.service.SoundService;
+import com.github.openwebnet.service.StateService;
 import com.github.openwebnet.service.TemperatureService;
 import com.github.openwebnet.service.UtilityService;
 import com.github.openwebnet.service.impl.AutomationServiceImpl;
@@ -45,9 +48,12 @@ import com.github.openwebnet.service.impl.FirebaseServiceImpl;
 import com.github.openwebnet.service.impl.GatewayServiceImpl;
 import com.github.openwebnet.service.impl.IpcamServiceImpl;
 import com.github.openwebnet.service.impl.LightServiceImpl;
+import com.github.openwebnet.service.impl.MonitorServiceImpl;
 import com.github.openwebnet.service.impl.PreferenceServiceImpl;
 import com.github.openwebnet.service.impl.ScenarioServiceImpl;
+import com.github.openwebnet.service.impl.SnapshotServiceImpl;
 import com.github.openwebnet.service.impl.SoundServiceImpl;
+import com.github.openwebnet.service.impl.StateServiceImpl;
 import com.github.openwebnet.service.impl.TemperatureServiceImpl;
 import com.github.openwebnet.service.impl.UtilityServiceImpl;
 
@@ -245,6 +251,28 @@ public class AutomationActivityTest {
             return new SoundServiceImpl();
         }
 
+        @Provides
+        @Singleton
+        SnapshotService provideSnapshotService() {
+            return mock(SnapshotServiceImpl.class);
+        }
+
+        @Provides
+        @Singleton
+        StateService provideStateService() {
+            // the preference is mocked: no ttl, every request is sent
+            return new StateServiceImpl();
+        }
+
+        @Provides
+        @Singleton
+        MonitorService provideMonitorService() {
+            // no event sessions in the activities under test
+            MonitorService monitorService = mock(MonitorServiceImpl.class);
+            when(monitorService.observe()).thenReturn(Observable.never());
+            return monitorService;
+        }
+
     }
 
     @Before
@@ -2,6 +2,7 @@ package com.github.openwebnet.view.device;
 
 import android.os.Bundle;
 
+import com.github.niqdev.openwebnet.message.Lighting;
 import com.github.openwebnet.BuildConfig;
 import com.github.openwebnet.OpenWebNetApplicationTest;
 import com.github.openwebnet.component.ApplicationComponentTest;
@@ -31,6 +32,8 @@ import com.github.openwebnet.service.SoundService;
 import com.github.openwebnet.service.TemperatureService;
 import com.google.common.collect.Lists;
 
+import org.greenrobot.eventbus.EventBus;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -48,10 +51,13 @@ import java.util.List;
 import javax.inject.Inject;
 
 import rx.Observable;
+import rx.plugins.RxJavaTestPlugins;
 
 import static com.github.openwebnet.view.NavigationViewItemSelectedListener.MENU_FAVOURITE;
 import static com.github.openwebnet.view.device.DeviceListFragment.ARG_ENVIRONMENT;
 import static junit.framework.Assert.assertNotNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -104,6 +110,13 @@ public class DeviceListFragmentTest {
         PowerMockito.when(Injector.getApplicationComponent()).thenReturn(applicationComponentTest);
 
         ((ApplicationComponentTest) Injector.getApplicationComponent()).inject(this);
+
+        RxJavaTestPlugins.immediateAndroidSchedulers();
+    }
+
+    @After
+    public void tearDown() {
+        RxJavaTestPlugins.resetPlugins();
     }
 
     private void setupFragment(int environment) {
@@ -130,51 +143,102 @@ public class DeviceListFragmentTest {
         return environment;
     }
 
+    private LightModel newLightModel(String uuid) {
+        LightModel light = new LightModel();
+        light.setUuid(uuid);
+        light.setLightingType(Lighting.Type.POINT_TO_POINT);
+        return light;
+    }
+
     @Test
     public void onUpdateDeviceListEvent_initCards() {
         int ENVIRONMENT = 456;
         when(ipcamService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<IpcamModel>>empty());
-        when(temperatureService.requestByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<TemperatureModel>>empty());
-        when(lightService.requestByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<LightModel>>empty());
-        when(automationService.requestByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<AutomationModel>>empty());
-        when(deviceService.requestByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<DeviceModel>>empty());
-        when(scenarioService.requestByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<ScenarioModel>>empty());
-        when(energyService.requestByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<EnergyModel>>empty());
-        when(soundService.requestByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<SoundModel>>empty());
+        when(temperatureService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<TemperatureModel>>empty());
+        when(lightService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<LightModel>>empty());
+        when(automationService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<AutomationModel>>empty());
+        when(deviceService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<DeviceModel>>empty());
+        when(scenarioService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<ScenarioModel>>empty());
+        when(energyService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<EnergyModel>>empty());
+        when(soundService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.<List<SoundModel>>empty());
 
         setupFragment(ENVIRONMENT);
 
         verify(ipcamService).findByEnvironment(ENVIRONMENT);
-        verify(temperatureService).requestByEnvironment(ENVIRONMENT);
-        verify(lightService).requestByEnvironment(ENVIRONMENT);
-        verify(automationService).requestByEnvironment(ENVIRONMENT);
-        verify(deviceService).requestByEnvironment(ENVIRONMENT);
-        verify(scenarioService).requestByEnvironment(ENVIRONMENT);
-        verify(energyService).requestByEnvironment(ENVIRONMENT);
-        verify(soundService).requestByEnvironment(ENVIRONMENT);
+        verify(temperatureService).findByEnvironment(ENVIRONMENT);
+        verify(lightService).findByEnvironment(ENVIRONMENT);
+        verify(automationService).findByEnvironment(ENVIRONMENT);
+        verify(deviceService).findByEnvironment(ENVIRONMENT);
+        verify(scenarioService).findByEnvironment(ENVIRONMENT);
+        verify(energyService).findByEnvironment(ENVIRONMENT);
+        verify(soundService).findByEnvironment(ENVIRONMENT);
     }
 
     @Test
     public void onUpdateDeviceListEvent_initFavouriteCards() {
         when(ipcamService.findFavourites()).thenReturn(Observable.<List<IpcamModel>>empty());
-        when(temperatureService.requestFavourites()).thenReturn(Observable.<List<TemperatureModel>>empty());
-        when(lightService.requestFavourites()).thenReturn(Observable.<List<LightModel>>empty());
-        when(automationService.requestFavourites()).thenReturn(Observable.<List<AutomationModel>>empty());
-        when(deviceService.requestFavourites()).thenReturn(Observable.<List<DeviceModel>>empty());
-        when(scenarioService.requestFavourites()).thenReturn(Observable.<List<ScenarioModel>>empty());
-        when(energyService.requestFavourites()).thenReturn(Observable.<List<EnergyModel>>empty());
-        when(soundService.requestFavourites()).thenReturn(Observable.<List<SoundModel>>empty());
+        when(temperatureService.findFavourites()).thenReturn(Observable.<List<TemperatureModel>>empty());
+        when(lightService.findFavourites()).thenReturn(Observable.<List<LightModel>>empty());
+        when(automationService.findFavourites()).thenReturn(Observable.<List<AutomationModel>>empty());
+        when(deviceService.findFavourites()).thenReturn(Observable.<List<DeviceModel>>empty());
+        when(scenarioService.findFavourites()).thenReturn(Observable.<List<ScenarioModel>>empty());
+        when(energyService.findFavourites()).thenReturn(Observable.<List<EnergyModel>>empty());
+        when(soundService.findFavourites()).thenReturn(Observable.<List<SoundModel>>empty());
 
         setupFragment(MENU_FAVOURITE);
 
         verify(ipcamService).findFavourites();
-        verify(temperatureService).requestFavourites();
-        verify(lightService).requestFavourites();
-        verify(automationService).requestFavourites();
-        verify(deviceService).requestFavourites();
-        verify(scenarioService).requestFavourites();
-        verify(energyService).requestFavourites();
-        verify(soundService).requestFavourites();
+        verify(temperatureService).findFavourites();
+        verify(lightService).findFavourites();
+        verify(automationService).findFavourites();
+        verify(deviceService).findFavourites();
+        verify(scenarioService).findFavourites();
+        verify(energyService).findFavourites();
+        verify(soundService).findFavourites();
+    }
+
+    @Test
+    public void onUpdateDeviceListEvent_requestStatus() {
+        int ENVIRONMENT = 456;
+        LightModel light = newLightModel("myLight");
+        when(ipcamService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<IpcamModel>newArrayList()));
+        when(temperatureService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<TemperatureModel>newArrayList()));
+        when(lightService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.newArrayList(light)));
+        when(automationService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<AutomationModel>newArrayList()));
+        when(deviceService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<DeviceModel>newArrayList()));
+        when(scenarioService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<ScenarioModel>newArrayList()));
+        when(energyService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<EnergyModel>newArrayList()));
+        when(soundService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<SoundModel>newArrayList()));
+        when(lightService.requestStatus(light)).thenReturn(Observable.just(light));
+
+        setupFragment(ENVIRONMENT);
+
+        // one request for each device, after the cards are rendered
+        verify(lightService).requestStatus(light);
+    }
+
+    @Test
+    public void onUpdateDeviceListEvent_reuseUnchangedItems() {
+        int ENVIRONMENT = 456;
+        LightModel light = newLightModel("myLight");
+        LightModel lightReloaded = newLightModel("myLight");
+        when(ipcamService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<IpcamModel>newArrayList()));
+        when(temperatureService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<TemperatureModel>newArrayList()));
+        when(lightService.findByEnvironment(ENVIRONMENT)).thenReturn(
+            Observable.just(Lists.newArrayList(light)), Observable.just(Lists.newArrayList(lightReloaded)));
+        when(automationService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<AutomationModel>newArrayList()));
+        when(deviceService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<DeviceModel>newArrayList()));
+        when(scenarioService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<ScenarioModel>newArrayList()));
+        when(energyService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<EnergyModel>newArrayList()));
+        when(soundService.findByEnvironment(ENVIRONMENT)).thenReturn(Observable.just(Lists.<SoundModel>newArrayList()));
+        when(lightService.requestStatus(light)).thenReturn(Observable.just(light));
+
+        setupFragment(ENVIRONMENT);
+        EventBus.getDefault().post(new DeviceListFragment.UpdateDeviceListEvent(ENVIRONMENT));
+
+        // the card already rendered keeps its instance
+        verify(lightService, times(2)).requestStatus(light);
+        verify(lightService, never()).requestStatus(lightReloaded);
     }
 
 }